@@ -0,0 +1,58 @@
+package com.medicarehub.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runtime switch for verbose access logging of selected users or path prefixes (toggled by admins through
+ * /api/admin/access-log/debug). Matching requests are always logged, bypassing sampling, and include their
+ * (redacted) request headers. Kept in memory per node; a restart turns everything off again.
+ */
+@Component
+public class AccessLogDebugSwitch {
+
+    private final Set<String> users = ConcurrentHashMap.newKeySet();
+    private final Set<String> pathPrefixes = ConcurrentHashMap.newKeySet();
+
+    public boolean isEnabledFor(String username, String path) {
+        if (users.isEmpty() && pathPrefixes.isEmpty()) {
+            return false; // Common case: nothing switched on
+        }
+        if (username != null && users.contains(username)) {
+            return true;
+        }
+        for (String prefix : pathPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void setUser(String username, boolean enabled) {
+        if (enabled) {
+            users.add(username);
+        } else {
+            users.remove(username);
+        }
+    }
+
+    public void setPathPrefix(String prefix, boolean enabled) {
+        if (enabled) {
+            pathPrefixes.add(prefix);
+        } else {
+            pathPrefixes.remove(prefix);
+        }
+    }
+
+    public Set<String> getUsers() {
+        return new TreeSet<>(users);
+    }
+
+    public Set<String> getPathPrefixes() {
+        return new TreeSet<>(pathPrefixes);
+    }
+}
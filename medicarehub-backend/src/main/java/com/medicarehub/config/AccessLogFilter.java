@@ -0,0 +1,159 @@
+package com.medicarehub.config;
+
+import com.medicarehub.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one structured access-log record per request through {@link AccessLogWriter}.
+ * <p>
+ * Successful, fast requests are sampled ({@code accesslog.sample-rate}); server errors, slow requests
+ * ({@code accesslog.slow-threshold-ms}) and requests matched by the {@link AccessLogDebugSwitch} are always
+ * logged. Query parameters listed in {@code accesslog.redact-params} are masked, and in debug mode the
+ * headers in {@code accesslog.redact-headers} are masked as well; bearer tokens never reach the log.
+ * Runs inside {@link QueryCountFilter}, so the record includes the request's SQL statement count.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final String REDACTED = "***";
+
+    @Autowired
+    private AccessLogWriter writer;
+
+    @Autowired
+    private AccessLogDebugSwitch debugSwitch;
+
+    @Value("${accesslog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${accesslog.sample-rate:1.0}")
+    private double sampleRate;
+
+    @Value("${accesslog.slow-threshold-ms:1000}")
+    private long slowThresholdMillis;
+
+    @Value("${accesslog.redact-params:password,token,holdToken}")
+    private List<String> redactParams;
+
+    @Value("${accesslog.redact-headers:authorization,cookie,set-cookie}")
+    private List<String> redactHeaders;
+
+    private Set<String> redactParamNames;
+    private Set<String> redactHeaderNames;
+
+    @PostConstruct
+    void init() {
+        redactParamNames = lowerCase(redactParams);
+        redactHeaderNames = lowerCase(redactHeaders);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long startedAt = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long durationMicros = (System.nanoTime() - startedAt) / 1000;
+            String path = request.getRequestURI();
+            Claims claims = JwtUtils.getRequestClaims(request);
+            String user = claims != null ? claims.getSubject() : null;
+            boolean debug = debugSwitch.isEnabledFor(user, path);
+            int status = response.getStatus();
+
+            if (debug || shouldSample(status, durationMicros)) {
+                writer.submit(new AccessLogRecord(
+                        Instant.now(),
+                        request.getMethod(),
+                        path,
+                        redactQuery(request.getQueryString()),
+                        status,
+                        durationMicros,
+                        QueryCountInspector.current(),
+                        user,
+                        request.getRemoteAddr(),
+                        debug,
+                        debug ? redactedHeaders(request) : null));
+            }
+        }
+    }
+
+    private boolean shouldSample(int status, long durationMicros) {
+        if (status >= 500 || durationMicros >= slowThresholdMillis * 1000) {
+            return true;
+        }
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private String redactQuery(String query) {
+        if (query == null || query.isEmpty()) {
+            return null;
+        }
+        StringBuilder redacted = new StringBuilder(query.length());
+        for (String pair : query.split("&")) {
+            if (redacted.length() > 0) {
+                redacted.append('&');
+            }
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            if (eq >= 0 && redactParamNames.contains(name.toLowerCase(Locale.ROOT))) {
+                redacted.append(name).append('=').append(REDACTED);
+            } else {
+                redacted.append(pair.replace("\"", "%22")); // Keep the quoted log field intact
+            }
+        }
+        return redacted.toString();
+    }
+
+    private Map<String, String> redactedHeaders(HttpServletRequest request) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        Enumeration<String> names = request.getHeaderNames();
+        if (names == null) {
+            return headers;
+        }
+        for (String name : Collections.list(names)) {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            String value = redactHeaderNames.contains(lowerName)
+                    ? REDACTED
+                    : String.join(",", Collections.list(request.getHeaders(name))).replace("\"", "'");
+            headers.put(lowerName, value);
+        }
+        return headers;
+    }
+
+    private static Set<String> lowerCase(List<String> names) {
+        return names.stream()
+                .map(String::trim)
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,48 @@
+package com.medicarehub.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One access-log line: everything is captured on the request thread as plain values, formatting happens
+ * on the {@link AccessLogWriter} thread. Values are already redacted when the record is created.
+ */
+@Getter
+@AllArgsConstructor
+public class AccessLogRecord {
+    private final Instant timestamp;
+    private final String method;
+    private final String path;
+    private final String query;            // Redacted query string, null if none
+    private final int status;
+    private final long durationMicros;
+    private final int queries;             // SQL statements issued (see QueryCountInspector)
+    private final String user;             // Token subject, null for anonymous requests
+    private final String clientIp;
+    private final boolean debug;
+    private final Map<String, String> headers; // Only captured in debug mode, otherwise null
+
+    // logfmt-style key=value line, easy to grep and to ship to a log pipeline
+    public String format() {
+        StringBuilder line = new StringBuilder(160)
+                .append("ts=").append(timestamp)
+                .append(" method=").append(method)
+                .append(" path=").append(path);
+        if (query != null) {
+            line.append(" query=\"").append(query).append('"');
+        }
+        line.append(" status=").append(status)
+                .append(" duration_us=").append(durationMicros)
+                .append(" queries=").append(queries)
+                .append(" user=").append(user != null ? user : "-")
+                .append(" ip=").append(clientIp);
+        if (debug) {
+            line.append(" debug=true");
+            headers.forEach((name, value) -> line.append(" h.").append(name).append("=\"").append(value).append('"'));
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.medicarehub.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded hand-off between request threads and the log appender.
+ * <p>
+ * Request threads only {@code offer} into a fixed-size buffer and never wait: when the buffer is full the
+ * record is dropped and counted instead of slowing the request down. A single daemon thread drains the
+ * buffer in batches and writes to the {@code ACCESS} logger, so appender locking and string formatting stay
+ * off the request path. The number of dropped records is reported with the next batch.
+ */
+@Component
+public class AccessLogWriter {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS");
+    private static final Logger logger = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    private static final int DRAIN_BATCH = 256;
+
+    @Value("${accesslog.buffer-size:8192}")
+    private int bufferSize;
+
+    private BlockingQueue<AccessLogRecord> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported; // Only touched by the writer thread
+    private Thread worker;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        running = true;
+        worker = new Thread(this::drainLoop, "access-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(2));
+        writeBatch(drainAvailable()); // Whatever arrived during shutdown
+    }
+
+    // Never blocks; returns false if the record was dropped because the buffer is full
+    public boolean submit(AccessLogRecord record) {
+        if (buffer.offer(record)) {
+            return true;
+        }
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                AccessLogRecord first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<AccessLogRecord> batch = drainAvailable();
+                batch.add(0, first);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Access log writer failed to write a batch: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private List<AccessLogRecord> drainAvailable() {
+        List<AccessLogRecord> batch = new ArrayList<>(DRAIN_BATCH);
+        buffer.drainTo(batch, DRAIN_BATCH);
+        return batch;
+    }
+
+    private void writeBatch(List<AccessLogRecord> batch) {
+        for (AccessLogRecord record : batch) {
+            accessLog.info(record.format());
+        }
+        long droppedTotal = dropped.get();
+        if (droppedTotal > droppedReported) {
+            logger.warn("Access log buffer full, dropped {} records ({} in total)", droppedTotal - droppedReported, droppedTotal);
+            droppedReported = droppedTotal;
+        }
+    }
+}
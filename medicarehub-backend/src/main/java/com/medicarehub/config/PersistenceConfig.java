@@ -0,0 +1,16 @@
+package com.medicarehub.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersistenceConfig {
+
+    // Per-request query counting (X-Query-Count header, budget warnings)
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+}
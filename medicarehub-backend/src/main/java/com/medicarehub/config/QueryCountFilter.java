@@ -0,0 +1,70 @@
+package com.medicarehub.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Resets the per-thread query counter at the start of every request, returns the count to clients as the
+ * {@value #HEADER} response header and warns when a request goes over the query budget
+ * ({@code querycount.budget}). The header is set just before the response is committed (first flush, error,
+ * redirect or full buffer), or at the end for responses that never wrote anything, so it is present on
+ * every response, with or without a body.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Count";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    @Value("${querycount.budget:10}")
+    private int budget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCountInspector.reset();
+        QueryCountResponse countingResponse = new QueryCountResponse(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            countingResponse.setHeaderIfUncommitted();
+            int queries = QueryCountInspector.current();
+            if (queries > budget) {
+                logger.warn("{} {} issued {} SQL statements (budget {})", request.getMethod(), request.getRequestURI(), queries, budget);
+            }
+        }
+    }
+
+    private static final class QueryCountResponse extends OnCommittedResponseWrapper {
+
+        QueryCountResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setHeaderIfUncommitted();
+            disableOnResponseCommitted();
+        }
+
+        void setHeaderIfUncommitted() {
+            if (!isCommitted()) {
+                setHeader(HEADER, Integer.toString(QueryCountInspector.current()));
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.medicarehub.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread. Registered as Hibernate's
+ * statement inspector in {@link PersistenceConfig}; {@link QueryCountFilter} resets it per request.
+ * Statements issued through JdbcTemplate (e.g., the backfill jobs) are not counted.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql; // Never rewrites the statement
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
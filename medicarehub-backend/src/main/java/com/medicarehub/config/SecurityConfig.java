@@ -1,12 +1,14 @@
 package com.medicarehub.config;
 
 // Make sure all necessary imports are present
+import com.medicarehub.security.BoundedPasswordEncoder;
 import com.medicarehub.security.jwt.AuthEntryPointJwt; // Adjust if your path is different
 import com.medicarehub.security.jwt.AuthTokenFilter;   // Adjust if your path is different
 // UserDetailsServiceImpl should be in a service package, often within security
 // e.g., com.medicarehub.security.services.UserDetailsServiceImpl
 import com.medicarehub.service.UserDetailsServiceImpl; // Corrected path based on typical structure
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,7 +20,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -31,6 +32,18 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final AuthEntryPointJwt unauthorizedHandler;
 
+    @Value("${security.password-hashing.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${security.password-hashing.threads:0}") // 0 = half the available processors
+    private int hashingThreads;
+
+    @Value("${security.password-hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password-hashing.timeout-ms:5000}")
+    private long hashingTimeoutMillis;
+
     // Constructor Injection (Recommended)
     @Autowired
     public SecurityConfig(UserDetailsServiceImpl userDetailsService, AuthEntryPointJwt unauthorizedHandler) {
@@ -61,10 +74,12 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // BCrypt on a dedicated, bounded pool so a login storm cannot take every CPU from the other endpoints
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public BoundedPasswordEncoder passwordEncoder() {
         System.out.println("!!!!!!!!!!! Creating PasswordEncoder bean (BCrypt) !!!!!!!!!!"); // DEBUG LINE
-        return new BCryptPasswordEncoder();
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), threads, hashingQueueCapacity, hashingTimeoutMillis);
     }
 
     @Bean
@@ -15,6 +15,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:5173") // <<<< YOUR FRONTEND ORIGIN (Port 5176 from error)
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS") // OPTIONS IS CRITICAL
                 .allowedHeaders("*") // Allows all standard and custom headers
+                .exposedHeaders(QueryCountFilter.HEADER) // Per-request SQL statement count
                 .allowCredentials(true) // Allows cookies/authorization headers
                 .maxAge(3600); // Cache preflight response for 1 hour
     }
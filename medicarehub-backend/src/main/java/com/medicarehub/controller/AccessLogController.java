@@ -0,0 +1,65 @@
+package com.medicarehub.controller;
+
+import com.medicarehub.config.AccessLogDebugSwitch;
+import com.medicarehub.config.AccessLogWriter;
+import com.medicarehub.dto.AccessLogDebugStatusDto;
+import com.medicarehub.exception.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+// Runtime control of debug access logging, e.g. PUT /api/admin/access-log/debug?user=jdoe
+// or PUT /api/admin/access-log/debug?path=/api/appointments; DELETE with the same parameter switches it off.
+// Applies to the node that receives the call.
+@RestController
+@RequestMapping("/api/admin/access-log")
+public class AccessLogController {
+
+    @Autowired
+    private AccessLogDebugSwitch debugSwitch;
+
+    @Autowired
+    private AccessLogWriter accessLogWriter;
+
+    @GetMapping("/debug")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AccessLogDebugStatusDto> getDebugStatus() {
+        return ResponseEntity.ok(status());
+    }
+
+    @PutMapping("/debug")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AccessLogDebugStatusDto> enableDebug(
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String path) {
+        toggle(user, path, true);
+        return ResponseEntity.ok(status());
+    }
+
+    @DeleteMapping("/debug")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AccessLogDebugStatusDto> disableDebug(
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String path) {
+        toggle(user, path, false);
+        return ResponseEntity.ok(status());
+    }
+
+    private void toggle(String user, String path, boolean enabled) {
+        if ((user == null || user.isBlank()) && (path == null || path.isBlank())) {
+            throw new BadRequestException("Specify a 'user' or a 'path' prefix.");
+        }
+        if (user != null && !user.isBlank()) {
+            debugSwitch.setUser(user.trim(), enabled);
+        }
+        if (path != null && !path.isBlank()) {
+            debugSwitch.setPathPrefix(path.trim(), enabled);
+        }
+    }
+
+    private AccessLogDebugStatusDto status() {
+        return new AccessLogDebugStatusDto(debugSwitch.getUsers(), debugSwitch.getPathPrefixes(),
+                accessLogWriter.getDroppedCount());
+    }
+}
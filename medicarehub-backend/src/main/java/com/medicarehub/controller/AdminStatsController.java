@@ -0,0 +1,47 @@
+package com.medicarehub.controller;
+
+import com.medicarehub.dto.PasswordHashingStatsDto;
+import com.medicarehub.dto.SecondLevelCacheStatsDto;
+import com.medicarehub.security.BoundedPasswordEncoder;
+import com.medicarehub.service.SecondLevelCacheStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Operational counters for admins (per node)
+@RestController
+@RequestMapping("/api/admin/stats")
+public class AdminStatsController {
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private SecondLevelCacheStatsService secondLevelCacheStatsService;
+
+    // Queue depth, rejections and hash latency of the password hashing pool
+    @GetMapping("/password-hashing")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PasswordHashingStatsDto> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordEncoder.getStats());
+    }
+
+    // Hibernate second-level/query cache hits, misses and puts per region since startup or the last reset
+    @GetMapping("/second-level-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SecondLevelCacheStatsDto> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheStatsService.getStats());
+    }
+
+    // Resets the counters, e.g. before measuring a load test; cached entries are kept
+    @DeleteMapping("/second-level-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> resetSecondLevelCacheStats() {
+        secondLevelCacheStatsService.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.medicarehub.controller;
+
+import com.medicarehub.dto.AppointmentRequestDto;
+import com.medicarehub.dto.AppointmentResponseDto;
+import com.medicarehub.dto.BatchAppointmentRequestDto;
+import com.medicarehub.dto.BatchAppointmentResponseDto;
+import com.medicarehub.dto.CursorPageDto;
+import com.medicarehub.dto.SlotHoldRequestDto;
+import com.medicarehub.dto.SlotHoldResponseDto;
+import com.medicarehub.entity.AppointmentStatus;
+import com.medicarehub.service.AppointmentBatchService;
+import com.medicarehub.service.AppointmentService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/appointments")
+public class AppointmentController {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentBatchService appointmentBatchService;
+
+    // Book an appointment. Patients book for themselves, staff pass a patientId.
+    // Pass the 'holdToken' from POST /api/appointments/holds to book a slot reserved earlier.
+    @PostMapping
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<AppointmentResponseDto> bookAppointment(
+            @Valid @RequestBody AppointmentRequestDto appointmentRequestDto,
+            Authentication authentication) {
+        AppointmentResponseDto appointment = appointmentService.bookAppointment(appointmentRequestDto, authentication);
+        return new ResponseEntity<>(appointment, HttpStatus.CREATED);
+    }
+
+    // Bulk booking for call center / referral imports. Each item succeeds or fails on its own;
+    // the response lists a result per item in request order.
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<BatchAppointmentResponseDto> bookAppointmentsBatch(
+            @Valid @RequestBody BatchAppointmentRequestDto batchRequestDto,
+            Authentication authentication) {
+        return ResponseEntity.ok(appointmentBatchService.bookAppointments(batchRequestDto, authentication));
+    }
+
+    // Reserve a slot for a few minutes while the booking form is filled in (409 if someone else holds it)
+    @PostMapping("/holds")
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<SlotHoldResponseDto> holdSlot(
+            @Valid @RequestBody SlotHoldRequestDto holdRequestDto,
+            Authentication authentication) {
+        SlotHoldResponseDto hold = appointmentService.holdSlot(holdRequestDto, authentication);
+        return new ResponseEntity<>(hold, HttpStatus.CREATED);
+    }
+
+    // Give a held slot back early (e.g., the user navigated away)
+    @DeleteMapping("/holds/{holdToken}")
+    @PreAuthorize("hasAnyRole('PATIENT', 'ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<Void> releaseSlotHold(@PathVariable String holdToken, Authentication authentication) {
+        appointmentService.releaseSlotHold(holdToken, authentication);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Keyset ("scroll") listings: ordered by date, time, id; pass back 'nextCursor' to continue. No total count,
+    // so deep pages cost the same as the first.
+    @GetMapping("/patient/{patientId}/scroll")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<CursorPageDto<AppointmentResponseDto>> scrollAppointmentsForPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        return ResponseEntity.ok(appointmentService.scrollAppointmentsForPatient(patientId, cursor, size, authentication));
+    }
+
+    @GetMapping("/doctor/{doctorId}/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR')")
+    public ResponseEntity<CursorPageDto<AppointmentResponseDto>> scrollAppointmentsForDoctor(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        return ResponseEntity.ok(appointmentService.scrollAppointmentsForDoctor(doctorId, cursor, size, authentication));
+    }
+
+    // Staff overview with optional filters, e.g. /api/appointments/scroll?date=2025-07-01&status=SCHEDULED&doctorName=smith
+    // Names match by prefix of the first name, the full name ("jane d") or the last name, case-insensitively.
+    // Send the same filters with every cursor.
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<CursorPageDto<AppointmentResponseDto>> scrollAllAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) String patientName,
+            @RequestParam(required = false) String doctorName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(appointmentService.scrollAllAppointmentsFiltered(
+                Optional.ofNullable(date),
+                Optional.ofNullable(status),
+                Optional.ofNullable(patientName).filter(name -> !name.isBlank()),
+                Optional.ofNullable(doctorName).filter(name -> !name.isBlank()),
+                cursor,
+                size));
+    }
+}
@@ -3,9 +3,12 @@ package com.medicarehub.controller;
 import com.medicarehub.dto.JwtResponseDto;
 import com.medicarehub.dto.LoginRequestDto;
 import com.medicarehub.dto.MessageResponseDto;
+import com.medicarehub.dto.RefreshTokenRequestDto;
 import com.medicarehub.dto.SignupRequestDto;
 // import com.medicarehub.entity.User; // Not used directly here
+import com.medicarehub.security.jwt.JwtUtils;
 import com.medicarehub.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +28,20 @@ public class AuthController {
         return ResponseEntity.ok(jwtResponse);
     }
 
+    // New access + refresh token pair; the refresh token presented here can't be used again
+    @PostMapping("/refresh")
+    public ResponseEntity<JwtResponseDto> refreshToken(@Valid @RequestBody RefreshTokenRequestDto refreshRequest) {
+        return ResponseEntity.ok(authService.refreshTokens(refreshRequest.getRefreshToken()));
+    }
+
+    // Revokes the bearer token of this request and, if sent, the refresh token
+    @PostMapping("/logout")
+    public ResponseEntity<MessageResponseDto> logout(@RequestBody(required = false) RefreshTokenRequestDto logoutRequest,
+                                                     HttpServletRequest request) {
+        authService.logout(JwtUtils.getRequestClaims(request), logoutRequest != null ? logoutRequest.getRefreshToken() : null);
+        return ResponseEntity.ok(new MessageResponseDto("Logged out successfully."));
+    }
+
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequestDto signUpRequest) {
         authService.registerUser(signUpRequest);
@@ -1,9 +1,11 @@
 package com.medicarehub.controller;
 
 import com.medicarehub.dto.DepartmentDto;
+import com.medicarehub.service.DepartmentCatalog;
 import com.medicarehub.service.DepartmentService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +22,10 @@ public class DepartmentController {
     @Autowired
     private DepartmentService departmentService;
 
+    // Clients may keep the response but must revalidate it (conditional GET) before every use.
+    // Setting it here also stops Spring Security's default no-store header, which would disable revalidation.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     // Create a new department
     // Accessible only by ADMIN
     @PostMapping
@@ -32,11 +38,13 @@ public class DepartmentController {
     // Get a department by its ID
     // Accessible by ADMIN, DOCTOR, RECEPTIONIST, NURSE (for selection or info)
     // Patients might get a list of departments via a different, more restricted endpoint if needed.
+    // Served from the department cache with a strong ETag; If-None-Match with the current tag gets a 304 without body
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST', 'NURSE')")
     public ResponseEntity<DepartmentDto> getDepartmentById(@PathVariable Long id) {
-        DepartmentDto departmentDto = departmentService.getDepartmentById(id);
-        return ResponseEntity.ok(departmentDto);
+        DepartmentCatalog catalog = departmentService.getCatalog();
+        DepartmentDto departmentDto = catalog.require(id);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(catalog.etagOf(id)).body(departmentDto);
     }
 
     // Get all departments
@@ -44,8 +52,8 @@ public class DepartmentController {
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST', 'NURSE')")
     public ResponseEntity<List<DepartmentDto>> getAllDepartments() {
-        List<DepartmentDto> departments = departmentService.getAllDepartments();
-        return ResponseEntity.ok(departments);
+        DepartmentCatalog catalog = departmentService.getCatalog(); // ETag and body from the same snapshot
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(catalog.getListEtag()).body(catalog.getDepartments());
     }
 
     // Update an existing department
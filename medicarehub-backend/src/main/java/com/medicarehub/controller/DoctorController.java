@@ -39,7 +39,7 @@ public class DoctorController {
         return ResponseEntity.ok(doctorDto);
     }
 
-    // Get all doctors with pagination and optional search
+    // Get all doctors with pagination and optional search (with a searchTerm, results are ranked by relevance)
     // Publicly accessible list for patients to find doctors, or restricted for staff
     // For more fine-grained control, could have separate public/internal endpoints
     @GetMapping
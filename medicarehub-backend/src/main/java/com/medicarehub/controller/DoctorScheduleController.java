@@ -1,8 +1,12 @@
 package com.medicarehub.controller;
 
 import com.medicarehub.dto.AvailabilitySlotDto;
+import com.medicarehub.dto.DailyAvailabilityDto;
 import com.medicarehub.dto.DoctorScheduleRequestDto;
 import com.medicarehub.dto.DoctorScheduleResponseDto;
+import com.medicarehub.dto.ScheduleConflictDto;
+import com.medicarehub.dto.SlotSearchResultDto;
+import com.medicarehub.service.AvailabilitySearchService;
 import com.medicarehub.service.DoctorScheduleService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +27,9 @@ public class DoctorScheduleController {
     @Autowired
     private DoctorScheduleService doctorScheduleService;
 
+    @Autowired
+    private AvailabilitySearchService availabilitySearchService;
+
     // --- Endpoints for Managing a Doctor's Own Schedule (if a Doctor is logged in) ---
     // These would require checking if the authenticated principal is the doctorId in the path.
     // For simplicity, we'll assume Admin or the Doctor themselves can manage via a doctorId path param.
@@ -68,6 +75,14 @@ public class DoctorScheduleController {
     }
 
 
+    // Audit of overlapping schedule entries across all doctors (e.g., entries created before overlap validation existed)
+    @GetMapping("/schedules/conflicts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ScheduleConflictDto>> auditScheduleConflicts() {
+        return ResponseEntity.ok(doctorScheduleService.auditScheduleConflicts());
+    }
+
+
     // --- Endpoint for Fetching Doctor Availability (e.g., for Patients/Receptionists) ---
 
     @GetMapping("/doctors/{doctorId}/availability")
@@ -79,4 +94,29 @@ public class DoctorScheduleController {
         List<AvailabilitySlotDto> availableSlots = doctorScheduleService.getDoctorAvailability(doctorId, date);
         return ResponseEntity.ok(availableSlots);
     }
-}
\ No newline at end of file
+
+    // Multi-day variant for calendar views: /api/doctors/{doctorId}/availability?from=2025-07-01&to=2025-07-31
+    // Covers at most 60 days and is served with a single schedule query and a single appointment query.
+    @GetMapping(value = "/doctors/{doctorId}/availability", params = {"from", "to"})
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<DailyAvailabilityDto>> getDoctorAvailabilityRange(
+            @PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<DailyAvailabilityDto> availability = doctorScheduleService.getDoctorAvailabilityRange(doctorId, from, to);
+        return ResponseEntity.ok(availability);
+    }
+
+    // Earliest open slots across all doctors of a department, e.g. for reception:
+    // /api/departments/{departmentId}/first-available-slots?specialization=Cardiologist&days=14&limit=5
+    @GetMapping("/departments/{departmentId}/first-available-slots")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<SlotSearchResultDto>> findFirstAvailableSlots(
+            @PathVariable Long departmentId,
+            @RequestParam(required = false) String specialization,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(defaultValue = "5") int limit) {
+        List<SlotSearchResultDto> slots = availabilitySearchService.findEarliestSlotsInDepartment(departmentId, specialization, days, limit);
+        return ResponseEntity.ok(slots);
+    }
+}
@@ -1,18 +1,27 @@
 package com.medicarehub.controller;
 
+import com.medicarehub.dto.CursorPageDto;
+import com.medicarehub.dto.DuplicateCandidateDto;
+import com.medicarehub.dto.DuplicateClusterDto;
+import com.medicarehub.dto.PatientLookupDto;
 import com.medicarehub.dto.PatientRequestDto;
 import com.medicarehub.dto.PatientResponseDto;
+import com.medicarehub.service.PatientDuplicateService;
 import com.medicarehub.service.PatientService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/patients")
 // Add @CrossOrigin here if not handled globally by WebConfig
@@ -21,6 +30,9 @@ public class PatientController {
     @Autowired
     private PatientService patientService;
 
+    @Autowired
+    private PatientDuplicateService duplicateService;
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<PatientResponseDto> createPatient(@Valid @RequestBody PatientRequestDto patientRequestDto) {
@@ -29,15 +41,9 @@ public class PatientController {
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR', 'NURSE') or (hasRole('PATIENT') and @patientSecurityService.isSelf(authentication, #id))")
-    // For patient self-access, you'd need a @PatientSecurityService bean to check ownership.
-    // For now, keeping it simpler for staff roles.
-    // @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR', 'NURSE')")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR', 'NURSE') or (hasRole('PATIENT') and @customSecurityService.isPatientSelf(authentication, #id))")
+    // Patients may read their own record ('id' is the Patient's DB ID), staff any record
     public ResponseEntity<PatientResponseDto> getPatientById(@PathVariable Long id) {
-        // TODO: For PATIENT role, check if they are requesting their own record.
-        // This requires more complex security expression or service method.
-        // For simplicity, let's assume staff can access, and patient access is handled via a dedicated "/api/me/profile" endpoint.
-        // If 'id' here is the Patient's own DB ID.
         // If it was patientUniqueId: getPatientByPatientUniqueId(String patientUniqueId)
         PatientResponseDto patient = patientService.getPatientById(id);
         return ResponseEntity.ok(patient);
@@ -59,6 +65,46 @@ public class PatientController {
         return ResponseEntity.ok(patients);
     }
 
+    // Reception type-ahead, e.g. /api/patients/search?name=jane%20d, ?phone=4567, ?dateOfBirth=1980-02-29, ?uniqueId=P00012
+    // Criteria are combined; names match by prefix of first name, full name or last name, phone by its last digits
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR', 'NURSE')")
+    public ResponseEntity<List<PatientLookupDto>> searchPatients(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateOfBirth,
+            @RequestParam(required = false) String uniqueId,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(patientService.lookupPatients(name, phone, dateOfBirth, uniqueId, limit));
+    }
+
+    // Existing patients that may be the person about to be registered (reception checks before creating)
+    @GetMapping("/duplicates/candidates")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<List<DuplicateCandidateDto>> findDuplicateCandidates(
+            @RequestParam String firstName,
+            @RequestParam String lastName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateOfBirth,
+            @RequestParam(required = false) String phone) {
+        return ResponseEntity.ok(duplicateService.findCandidates(firstName, lastName, dateOfBirth, phone, null));
+    }
+
+    // Batch scan of the whole patient base for likely duplicate registrations (heavy, run off-peak)
+    @GetMapping("/duplicates")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DuplicateClusterDto>> findDuplicateClusters() {
+        return ResponseEntity.ok(duplicateService.findDuplicateClusters());
+    }
+
+    // Keyset listing for large registries: pass back 'nextCursor' to continue; no total count
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST', 'DOCTOR', 'NURSE')")
+    public ResponseEntity<CursorPageDto<PatientResponseDto>> scrollPatients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(patientService.scrollPatients(cursor, size));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<PatientResponseDto> updatePatient(@PathVariable Long id, @Valid @RequestBody PatientRequestDto patientRequestDto) {
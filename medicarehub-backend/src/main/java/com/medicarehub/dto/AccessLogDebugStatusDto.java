@@ -0,0 +1,18 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Set;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccessLogDebugStatusDto {
+    private Set<String> users;          // Usernames whose requests are logged in debug mode
+    private Set<String> pathPrefixes;   // Request paths starting with one of these are logged in debug mode
+    private long droppedRecords;        // Records dropped because the log buffer was full (since startup)
+}
@@ -36,4 +36,7 @@ public class AppointmentRequestDto {
 
     @Size(max = 500)
     private String notesByPatient; // Optional notes from the patient
+
+    // Optional token from POST /api/appointments/holds; a valid hold lets booking skip the slot revalidation
+    private String holdToken;
 }
\ No newline at end of file
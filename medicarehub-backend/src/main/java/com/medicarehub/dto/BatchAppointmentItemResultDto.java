@@ -0,0 +1,17 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAppointmentItemResultDto {
+    private int index;                          // Position of the item in the request
+    private boolean success;
+    private AppointmentResponseDto appointment; // Set when booked
+    private String error;                       // Set when rejected
+}
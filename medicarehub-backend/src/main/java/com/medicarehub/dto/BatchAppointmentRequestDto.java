@@ -0,0 +1,21 @@
+package com.medicarehub.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchAppointmentRequestDto {
+
+    // patientId is required on every item (staff books on behalf of patients)
+    @NotEmpty(message = "At least one appointment is required.")
+    @Size(max = 500, message = "At most 500 appointments can be booked in one batch.")
+    private List<@Valid AppointmentRequestDto> appointments;
+}
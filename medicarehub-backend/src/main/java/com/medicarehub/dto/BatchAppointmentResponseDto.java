@@ -0,0 +1,19 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAppointmentResponseDto {
+    private int requested;
+    private int booked;
+    private int failed;
+    private List<BatchAppointmentItemResultDto> results; // Same order as the request
+}
@@ -0,0 +1,18 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDto {
+    private String region;         // Hibernate region name (entity/collection role or query cache region)
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRatio;       // hits / (hits + misses), 0 when unused
+}
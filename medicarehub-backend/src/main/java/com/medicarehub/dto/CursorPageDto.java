@@ -0,0 +1,20 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// One page of a keyset ("scroll") listing. No total count; pass nextCursor back to get the following page.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDto<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+}
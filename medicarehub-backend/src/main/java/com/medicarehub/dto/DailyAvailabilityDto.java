@@ -0,0 +1,18 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyAvailabilityDto {
+    private LocalDate date;
+    private List<AvailabilitySlotDto> slots; // Same content as GET /availability?date= for that day
+}
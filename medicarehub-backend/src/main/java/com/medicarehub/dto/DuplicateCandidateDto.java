@@ -0,0 +1,16 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// An existing patient that may be the same person as the one being registered (score 0..1)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidateDto {
+    private PatientLookupDto patient;
+    private double score;
+}
@@ -0,0 +1,18 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Patients that probably are the same person (linked by pairwise scores at or above the threshold)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateClusterDto {
+    private List<PatientLookupDto> patients;
+    private double maxScore;
+}
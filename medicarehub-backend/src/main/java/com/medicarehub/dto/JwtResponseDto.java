@@ -10,6 +10,8 @@ import java.util.List;
 public class JwtResponseDto {
     private String token;
     private String type = "Bearer";
+    private long expiresIn;        // Access token lifetime in milliseconds
+    private String refreshToken;   // Exchange at POST /api/auth/refresh before the access token expires
     private Long id;
     private String username;
     private String email;
@@ -0,0 +1,23 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDto {
+    private int threads;
+    private int activeHashes;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;         // Turned away with 503 because the queue was full
+    private long timedOut;         // Gave up waiting for a result (also 503)
+    private long avgQueueWaitMicros;
+    private long avgHashMicros;
+    private long maxHashMicros;
+}
@@ -0,0 +1,22 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// Compact patient search result for reception type-ahead; open the full record with GET /api/patients/{id}
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientLookupDto {
+    private Long id;
+    private String patientUniqueId;
+    private String firstName;
+    private String lastName;
+    private LocalDate dateOfBirth;
+    private String phoneNumber;
+}
@@ -61,6 +61,9 @@ public class PatientRequestDto {
     @PastOrPresent
     private LocalDate registrationDate;
 
+    // Registration is refused (409) when it looks like an existing patient; set after checking the candidates
+    private Boolean allowPossibleDuplicate;
+
     public String getUsername() {
         return username;
     }
@@ -172,5 +175,13 @@ public class PatientRequestDto {
     public void setRegistrationDate(LocalDate registrationDate) {
         this.registrationDate = registrationDate;
     }
+
+    public Boolean getAllowPossibleDuplicate() {
+        return allowPossibleDuplicate;
+    }
+
+    public void setAllowPossibleDuplicate(Boolean allowPossibleDuplicate) {
+        this.allowPossibleDuplicate = allowPossibleDuplicate;
+    }
 // Add other fields as needed from Patient entity that can be set via request
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleConflictDto {
+    private Long doctorId;
+    private DayOfWeek dayOfWeek;     // Set for conflicts between recurring entries
+    private LocalDate specificDate;  // Set for conflicts between specific-date entries
+    private Long scheduleId;
+    private String scheduleTimes;    // "HH:mm-HH:mm"
+    private Long conflictingScheduleId;
+    private String conflictingScheduleTimes;
+}
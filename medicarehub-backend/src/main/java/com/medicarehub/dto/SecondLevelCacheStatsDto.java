@@ -0,0 +1,26 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SecondLevelCacheStatsDto {
+    private boolean statisticsEnabled;   // hibernate.generate_statistics; all counters are 0 when off
+    private Instant since;               // Start of the counting period (startup or last reset)
+    private long hits;                   // Entity and collection regions
+    private long misses;
+    private long puts;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private long queryCachePuts;
+    private long statements;             // JDBC statements prepared in the same period, for comparison
+    private List<CacheRegionStatsDto> regions;
+}
@@ -0,0 +1,26 @@
+package com.medicarehub.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class SlotHoldRequestDto {
+
+    @NotNull(message = "Doctor ID is required.")
+    private Long doctorId;
+
+    @NotNull(message = "Appointment date is required.")
+    @FutureOrPresent(message = "Appointment date must be today or in the future.")
+    private LocalDate appointmentDate;
+
+    @NotNull(message = "Appointment time is required.")
+    private LocalTime appointmentTime; // Start time of an available slot
+}
@@ -0,0 +1,21 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldResponseDto {
+    private String holdToken;      // Pass as 'holdToken' when booking
+    private Long doctorId;
+    private LocalDate appointmentDate;
+    private String startTime;      // Format "HH:mm"
+    private String endTime;        // Format "HH:mm"
+    private String expiresAt;      // ISO date-time, server local time
+}
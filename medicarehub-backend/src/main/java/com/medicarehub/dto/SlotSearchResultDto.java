@@ -0,0 +1,22 @@
+package com.medicarehub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotSearchResultDto {
+    private Long doctorId;
+    private String doctorFirstName;
+    private String doctorLastName;
+    private String doctorSpecialization;
+    private LocalDate date;
+    private String startTime; // Format "HH:mm"
+    private String endTime;   // Format "HH:mm"
+}
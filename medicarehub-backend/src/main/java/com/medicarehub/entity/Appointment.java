@@ -20,17 +20,30 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "appointments", indexes = {
-        @Index(name = "idx_appointment_patient_date", columnList = "patient_id, appointmentDate"),
-        @Index(name = "idx_appointment_doctor_date", columnList = "doctor_id, appointmentDate"),
-        @Index(name = "idx_appointment_status", columnList = "status")
+        // Overlap checks are range predicates on (date, start, end), fully covered by these indexes
+        @Index(name = "idx_appointment_patient_date_time", columnList = "patient_id, appointmentDate, appointmentTime, endTime"),
+        @Index(name = "idx_appointment_doctor_date_time", columnList = "doctor_id, appointmentDate, appointmentTime, endTime"),
+        @Index(name = "idx_appointment_status", columnList = "status"),
+        // Keyset listing order (date, time, id); InnoDB appends the primary key, so id needs no column here
+        @Index(name = "idx_appointment_date_time", columnList = "appointmentDate, appointmentTime")
 })
 @Getter
 @Setter
 @NoArgsConstructor
 public class Appointment {
 
+    // Sequence row in id_blocks; the hibernate.id.optimizer.pooled.preferred=pooled-lo setting makes Hibernate
+    // hand out [next_value, next_value + allocationSize) per reservation, the same meaning IdBlockAllocator uses
+    public static final String ID_SEQUENCE = "appointment_id";
+
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59, 59);
+
+    // Ids are reserved in blocks (hi/lo) instead of coming from IDENTITY: Hibernate knows them before the INSERT,
+    // so the inserts of one flush can go out as a JDBC batch (AppointmentBatchService)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "appointment_ids")
+    @TableGenerator(name = "appointment_ids", table = "id_blocks", pkColumnName = "name", valueColumnName = "next_value",
+            pkColumnValue = ID_SEQUENCE, allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -54,6 +67,10 @@ public class Appointment {
     @Min(value = 5, message = "Duration must be at least 5 minutes.")
     private Integer durationMinutes; // Duration of the appointment in minutes
 
+    // appointmentTime + durationMinutes, kept in sync on every insert/update so overlap queries can use the index.
+    // Nullable only for rows created before this column existed (backfilled at startup).
+    private LocalTime endTime;
+
     @Enumerated(EnumType.STRING)
     @Column(length = 30, nullable = false)
     @NotNull(message = "Appointment status is required.")
@@ -81,11 +98,26 @@ public class Appointment {
         if (status == null) {
             status = AppointmentStatus.SCHEDULED;
         }
+        updateEndTime();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        updateEndTime();
+    }
+
+    public void updateEndTime() {
+        if (appointmentTime != null && durationMinutes != null) {
+            endTime = endTimeOf(appointmentTime, durationMinutes);
+        }
+    }
+
+    // End of an appointment starting at 'start'; capped at the end of the day instead of wrapping past midnight
+    // (23:59:59 rather than LocalTime.MAX, which a TIME column without fractional seconds would round to 24:00)
+    public static LocalTime endTimeOf(LocalTime start, int durationMinutes) {
+        LocalTime end = start.plusMinutes(durationMinutes);
+        return end.isAfter(start) ? end : END_OF_DAY;
     }
 
     public Long getId() {
@@ -168,6 +200,14 @@ public class Appointment {
         this.notesByDoctorOrStaff = notesByDoctorOrStaff;
     }
 
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalTime endTime) {
+        this.endTime = endTime;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -192,5 +232,6 @@ public class Appointment {
         this.durationMinutes = durationMinutes;
         this.reasonForVisit = reasonForVisit;
         this.status = AppointmentStatus.SCHEDULED;
+        updateEndTime();
     }
 }
\ No newline at end of file
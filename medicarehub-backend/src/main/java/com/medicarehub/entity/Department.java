@@ -6,10 +6,14 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set; // If you want a bi-directional relationship to Doctors
 
 @Entity
+@Cacheable // Reference data: joined into every doctor load (EAGER), rarely edited
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "departments")
 @Getter
 @Setter
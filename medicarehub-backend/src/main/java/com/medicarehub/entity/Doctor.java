@@ -8,11 +8,15 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 // import java.util.Set; // For DoctorSchedules
 
 @Entity
+@Cacheable // Loaded with appointments, schedules and availability checks; see application.conf for the region bounds
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "doctors")
 @Getter
 @Setter
@@ -5,12 +5,16 @@ import jakarta.validation.constraints.NotNull; // Ensure this is imported if you
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.time.LocalDate;
 
 @Entity
+@Cacheable // Read by every availability computation, edited rarely
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "doctor_schedules", indexes = { // Adding indexes can improve query performance
         @Index(name = "idx_doctorschedule_doctor_date", columnList = "doctor_id, specificDate"),
         @Index(name = "idx_doctorschedule_doctor_day", columnList = "doctor_id, dayOfWeek")
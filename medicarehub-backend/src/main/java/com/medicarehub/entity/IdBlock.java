@@ -0,0 +1,28 @@
+package com.medicarehub.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// High-water mark of a block-allocated identifier sequence (hi/lo). Each node reserves a block of values
+// by advancing nextValue under a row lock and then hands them out from memory.
+@Entity
+@Table(name = "id_blocks")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdBlock {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(nullable = false)
+    private long nextValue; // First value not yet reserved by any node
+
+    public IdBlock(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+}
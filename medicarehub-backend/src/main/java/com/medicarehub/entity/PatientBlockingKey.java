@@ -0,0 +1,36 @@
+package com.medicarehub.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Blocking key of a patient for duplicate detection (e.g. phonetic surname + date of birth). Patients sharing
+// a key are candidate duplicates; candidates are found with an indexed lookup on keyValue instead of a scan.
+// Derived from the patient's user data and rewritten whenever that changes (see PatientDuplicateService).
+@Entity
+@Table(name = "patient_blocking_keys",
+        indexes = {
+                @Index(name = "idx_blocking_key_value", columnList = "keyValue"),
+                @Index(name = "idx_blocking_key_patient", columnList = "patient_id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+public class PatientBlockingKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(nullable = false, length = 40)
+    private String keyValue;
+
+    public PatientBlockingKey(Long patientId, String keyValue) {
+        this.patientId = patientId;
+        this.keyValue = keyValue;
+    }
+}
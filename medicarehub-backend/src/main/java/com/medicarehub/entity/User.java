@@ -7,10 +7,13 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Set;
 
 @Entity
@@ -18,6 +21,16 @@ import java.util.Set;
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = "username"),
                 @UniqueConstraint(columnNames = "email")
+        },
+        indexes = {
+                // Patient/doctor lists are ordered by last name (keyset listing uses lastName + the implicit id)
+                @Index(name = "idx_user_last_name", columnList = "lastName"),
+                // Name search is a prefix LIKE on these normalized columns, i.e. an index range scan
+                @Index(name = "idx_user_search_full_name", columnList = "searchFullName"),
+                @Index(name = "idx_user_search_last_name", columnList = "searchLastName"),
+                // Patient lookup: phone number suffix (prefix of the reversed digits) and date of birth
+                @Index(name = "idx_user_search_phone", columnList = "searchPhoneReversed"),
+                @Index(name = "idx_user_date_of_birth", columnList = "dateOfBirth")
         })
 @Getter
 @Setter
@@ -46,6 +59,17 @@ public class User {
     @Size(max = 50)
     private String lastName;
 
+    // Normalized copies of the name for search ("first last" and last name), kept in sync on persist/update
+    @Column(length = 101)
+    private String searchFullName;
+
+    @Column(length = 50)
+    private String searchLastName;
+
+    // Digits of the phone number in reverse order, so "ends with 4567" is an index range scan on "7654%"
+    @Column(length = 15)
+    private String searchPhoneReversed;
+
     @Size(max = 15)
     private String phoneNumber;
 
@@ -170,6 +194,7 @@ public class User {
     }
 
     @ManyToMany(fetch = FetchType.EAGER) // EAGER is simpler for auth, LAZY better for general performance
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // Role ids per user; the roles come from the Role region
     @JoinTable(name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id"))
@@ -187,10 +212,34 @@ public class User {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        updateSearchFields();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        updateSearchFields();
+    }
+
+    public void updateSearchFields() {
+        searchLastName = normalizeName(lastName);
+        searchFullName = normalizeName((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName));
+        searchPhoneReversed = reversedPhoneDigits(phoneNumber);
+    }
+
+    // "+1 (555) 123-4567" -> "76543215551" (empty if the number has no digits, null if there is no number)
+    public static String reversedPhoneDigits(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        return new StringBuilder(phoneNumber.replaceAll("\\D", "")).reverse().toString();
+    }
+
+    // Lower case (locale independent), trimmed, inner whitespace collapsed; search terms go through the same function
+    public static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
     }
 }
\ No newline at end of file
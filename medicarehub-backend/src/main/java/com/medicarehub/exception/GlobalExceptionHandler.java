@@ -3,6 +3,8 @@ package com.medicarehub.exception;
 import com.medicarehub.dto.MessageResponseDto;
 import org.slf4j.Logger; // Using SLF4J for logging
 import org.slf4j.LoggerFactory; // Using SLF4J for logging
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException; // Handles @PreAuthorize failures if not caught more specifically
@@ -107,6 +109,23 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponseDto("Authentication error: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(PessimisticLockingFailureException.class) // Lock wait timeout / deadlock, e.g. on a heavily contended doctor
+    public ResponseEntity<MessageResponseDto> handlePessimisticLockingFailureException(PessimisticLockingFailureException ex) {
+        logger.warn("Lock contention: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT) // 409
+                .body(new MessageResponseDto("The requested resource is busy with another request. Please try again."));
+    }
+
+    @ExceptionHandler(ServiceBusyException.class) // Load shedding, e.g. password hashing queue full during a login storm
+    public ResponseEntity<MessageResponseDto> handleServiceBusyException(ServiceBusyException ex) {
+        logger.warn("Service busy: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE) // 503
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponseDto(ex.getMessage()));
+    }
+
     // Generic fallback handler for any other unhandled exceptions
     @ExceptionHandler(Exception.class)
     public ResponseEntity<MessageResponseDto> handleGenericException(Exception ex) {
@@ -0,0 +1,12 @@
+package com.medicarehub.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The server is shedding load (e.g., the password hashing queue is full); the client should retry shortly
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) // 503
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
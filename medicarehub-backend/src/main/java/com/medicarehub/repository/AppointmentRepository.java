@@ -4,6 +4,7 @@ import com.medicarehub.entity.Appointment;
 import com.medicarehub.entity.AppointmentStatus;
 import com.medicarehub.entity.Doctor;
 import com.medicarehub.entity.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -13,12 +14,39 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
+    // Select list and joins shared by the list projections below (one statement per page, plus the count)
+    String ROW_SELECT = "SELECT new com.medicarehub.repository.AppointmentRow(" +
+            "a.id, p.id, pu.firstName, pu.lastName, p.patientUniqueId, " +
+            "d.id, du.firstName, du.lastName, d.specialization, dept.name, " +
+            "a.appointmentDate, a.appointmentTime, a.durationMinutes, a.status, a.reasonForVisit, " +
+            "a.notesByPatient, a.notesByDoctorOrStaff, a.createdAt, a.updatedAt) " +
+            "FROM Appointment a JOIN a.patient p JOIN p.user pu " +
+            "JOIN a.doctor d JOIN d.user du LEFT JOIN d.department dept ";
+
+    // Name filters take a prefix pattern from AppointmentService.namePrefixPattern (see SearchPatterns),
+    // matched against the indexed search columns of users: "jan", "jane d" and "doe" all find Jane Doe
+    String FILTER_WHERE = "WHERE (:dateFilter IS NULL OR a.appointmentDate = :dateFilter) " +
+            "AND (:statusFilter IS NULL OR a.status = :statusFilter) " +
+            "AND (:patientNameSearch IS NULL OR pu.searchFullName LIKE :patientNameSearch ESCAPE '!' OR pu.searchLastName LIKE :patientNameSearch ESCAPE '!') " +
+            "AND (:doctorNameSearch IS NULL OR du.searchFullName LIKE :doctorNameSearch ESCAPE '!' OR du.searchLastName LIKE :doctorNameSearch ESCAPE '!')";
+
+    // Only used to start the id sequence after the rows inserted with IDENTITY ids
+    @Query("SELECT MAX(a.id) FROM Appointment a")
+    Optional<Long> findMaxId();
+
+    // Keyset listings: rows strictly after (date, time, id) of the previous page's last row, in that order
+    String KEYSET_AFTER = "(a.appointmentDate > :afterDate OR (a.appointmentDate = :afterDate AND " +
+            "(a.appointmentTime > :afterTime OR (a.appointmentTime = :afterTime AND a.id > :afterId)))) ";
+
+    String KEYSET_ORDER = "ORDER BY a.appointmentDate, a.appointmentTime, a.id";
+
     // Find appointments for a specific patient
     Page<Appointment> findByPatient(Patient patient, Pageable pageable);
     Page<Appointment> findByPatientId(Long patientId, Pageable pageable);
@@ -31,32 +59,27 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findByDoctorAndAppointmentDate(Doctor doctor, LocalDate appointmentDate);
     List<Appointment> findByDoctorIdAndAppointmentDate(Long doctorId, LocalDate appointmentDate);
 
+    // All appointments of a set of doctors in a date window (used to compute multi-day availability in one pass)
+    List<Appointment> findByDoctorIdInAndAppointmentDateBetween(Collection<Long> doctorIds, LocalDate from, LocalDate to);
+
     // Find appointments for a patient on a specific date
     List<Appointment> findByPatientAndAppointmentDate(Patient patient, LocalDate appointmentDate);
 
-    // Check for overlapping appointments for a doctor
-    @Query("SELECT a FROM Appointment a WHERE a.doctor = :doctor " +
-            "AND a.appointmentDate = :date " +
-            "AND a.status <> com.medicarehub.entity.AppointmentStatus.CANCELLED_BY_PATIENT " + // Exclude cancelled
-            "AND a.status <> com.medicarehub.entity.AppointmentStatus.CANCELLED_BY_STAFF " +  // Exclude cancelled
-            "AND a.appointmentTime < :endTime " +
-            "AND FUNCTION('ADDTIME', a.appointmentTime, FUNCTION('SEC_TO_TIME', a.durationMinutes * 60)) > :startTime")
-    List<Appointment> findOverlappingAppointmentsForDoctor(
-            @Param("doctor") Doctor doctor,
-            @Param("date") LocalDate date,
-            @Param("startTime") LocalTime startTime,
-            @Param("endTime") LocalTime endTime
-    );
+    // All appointments of a set of patients in a date window (batch booking snapshot)
+    List<Appointment> findByPatientIdInAndAppointmentDateBetween(Collection<Long> patientIds, LocalDate from, LocalDate to);
 
-    // Check for overlapping appointments for a patient
-    @Query("SELECT a FROM Appointment a WHERE a.patient = :patient " +
+    // Both booking overlap checks in one query: anything overlapping [startTime, endTime) for the doctor OR the patient.
+    // Plain range predicates on the stored end time (portable JPQL); each branch is an indexed range scan
+    // (idx_appointment_doctor_date_time / idx_appointment_patient_date_time), merged by the database.
+    @Query("SELECT a FROM Appointment a WHERE (a.doctor.id = :doctorId OR a.patient.id = :patientId) " +
             "AND a.appointmentDate = :date " +
-            "AND a.status <> com.medicarehub.entity.AppointmentStatus.CANCELLED_BY_PATIENT " +
-            "AND a.status <> com.medicarehub.entity.AppointmentStatus.CANCELLED_BY_STAFF " +
             "AND a.appointmentTime < :endTime " +
-            "AND FUNCTION('ADDTIME', a.appointmentTime, FUNCTION('SEC_TO_TIME', a.durationMinutes * 60)) > :startTime")
-    List<Appointment> findOverlappingAppointmentsForPatient(
-            @Param("patient") Patient patient,
+            "AND a.endTime > :startTime " +
+            "AND a.status <> com.medicarehub.entity.AppointmentStatus.CANCELLED_BY_PATIENT " +
+            "AND a.status <> com.medicarehub.entity.AppointmentStatus.CANCELLED_BY_STAFF")
+    List<Appointment> findOverlappingAppointmentsForDoctorOrPatient(
+            @Param("doctorId") Long doctorId,
+            @Param("patientId") Long patientId,
             @Param("date") LocalDate date,
             @Param("startTime") LocalTime startTime,
             @Param("endTime") LocalTime endTime
@@ -66,10 +89,7 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT a FROM Appointment a " +
             "LEFT JOIN a.patient p LEFT JOIN p.user pu " + // Join for patient user details
             "LEFT JOIN a.doctor d LEFT JOIN d.user du " +  // Join for doctor user details
-            "WHERE (:dateFilter IS NULL OR a.appointmentDate = :dateFilter) " +
-            "AND (:statusFilter IS NULL OR a.status = :statusFilter) " +
-            "AND (:patientNameSearch IS NULL OR lower(pu.firstName) LIKE lower(concat('%', :patientNameSearch, '%')) OR lower(pu.lastName) LIKE lower(concat('%', :patientNameSearch, '%'))) " +
-            "AND (:doctorNameSearch IS NULL OR lower(du.firstName) LIKE lower(concat('%', :doctorNameSearch, '%')) OR lower(du.lastName) LIKE lower(concat('%', :doctorNameSearch, '%')))")
+            FILTER_WHERE)
     Page<Appointment> findAllFiltered(
             @Param("dateFilter") Optional<LocalDate> dateFilter,
             @Param("statusFilter") Optional<AppointmentStatus> statusFilter,
@@ -77,4 +97,68 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             @Param("doctorNameSearch") Optional<String> doctorNameSearch,
             Pageable pageable
     );
-}
\ No newline at end of file
+
+    // --- List projections: one row query + one count per page ---
+
+    @Query(value = ROW_SELECT + "WHERE p.id = :patientId",
+            countQuery = "SELECT count(a) FROM Appointment a WHERE a.patient.id = :patientId")
+    Page<AppointmentRow> findRowsByPatientId(@Param("patientId") Long patientId, Pageable pageable);
+
+    @Query(value = ROW_SELECT + "WHERE d.id = :doctorId",
+            countQuery = "SELECT count(a) FROM Appointment a WHERE a.doctor.id = :doctorId")
+    Page<AppointmentRow> findRowsByDoctorId(@Param("doctorId") Long doctorId, Pageable pageable);
+
+    @Query(value = ROW_SELECT + FILTER_WHERE,
+            countQuery = "SELECT count(a) FROM Appointment a JOIN a.patient p JOIN p.user pu " +
+                    "JOIN a.doctor d JOIN d.user du " + FILTER_WHERE)
+    Page<AppointmentRow> findAllFilteredRows(
+            @Param("dateFilter") Optional<LocalDate> dateFilter,
+            @Param("statusFilter") Optional<AppointmentStatus> statusFilter,
+            @Param("patientNameSearch") Optional<String> patientNameSearch,
+            @Param("doctorNameSearch") Optional<String> doctorNameSearch,
+            Pageable pageable
+    );
+
+    // --- Keyset (scroll) listings: no offset, no count; first page and "after cursor" variants ---
+
+    @Query(ROW_SELECT + "WHERE p.id = :patientId " + KEYSET_ORDER)
+    List<AppointmentRow> scrollRowsByPatientId(@Param("patientId") Long patientId, Limit limit);
+
+    @Query(ROW_SELECT + "WHERE p.id = :patientId AND " + KEYSET_AFTER + KEYSET_ORDER)
+    List<AppointmentRow> scrollRowsByPatientIdAfter(@Param("patientId") Long patientId,
+                                                    @Param("afterDate") LocalDate afterDate,
+                                                    @Param("afterTime") LocalTime afterTime,
+                                                    @Param("afterId") Long afterId,
+                                                    Limit limit);
+
+    @Query(ROW_SELECT + "WHERE d.id = :doctorId " + KEYSET_ORDER)
+    List<AppointmentRow> scrollRowsByDoctorId(@Param("doctorId") Long doctorId, Limit limit);
+
+    @Query(ROW_SELECT + "WHERE d.id = :doctorId AND " + KEYSET_AFTER + KEYSET_ORDER)
+    List<AppointmentRow> scrollRowsByDoctorIdAfter(@Param("doctorId") Long doctorId,
+                                                   @Param("afterDate") LocalDate afterDate,
+                                                   @Param("afterTime") LocalTime afterTime,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    @Query(ROW_SELECT + FILTER_WHERE + " " + KEYSET_ORDER)
+    List<AppointmentRow> scrollAllFilteredRows(
+            @Param("dateFilter") Optional<LocalDate> dateFilter,
+            @Param("statusFilter") Optional<AppointmentStatus> statusFilter,
+            @Param("patientNameSearch") Optional<String> patientNameSearch,
+            @Param("doctorNameSearch") Optional<String> doctorNameSearch,
+            Limit limit
+    );
+
+    @Query(ROW_SELECT + FILTER_WHERE + " AND " + KEYSET_AFTER + KEYSET_ORDER)
+    List<AppointmentRow> scrollAllFilteredRowsAfter(
+            @Param("dateFilter") Optional<LocalDate> dateFilter,
+            @Param("statusFilter") Optional<AppointmentStatus> statusFilter,
+            @Param("patientNameSearch") Optional<String> patientNameSearch,
+            @Param("doctorNameSearch") Optional<String> doctorNameSearch,
+            @Param("afterDate") LocalDate afterDate,
+            @Param("afterTime") LocalTime afterTime,
+            @Param("afterId") Long afterId,
+            Limit limit
+    );
+}
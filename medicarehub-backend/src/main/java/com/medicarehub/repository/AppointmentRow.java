@@ -0,0 +1,37 @@
+package com.medicarehub.repository;
+
+import com.medicarehub.entity.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Constructor projection with exactly the columns an appointment list entry needs (see AppointmentResponseDto).
+ * Filled by a single joined SELECT, so listing a page never touches lazy patient/doctor/user/department proxies.
+ */
+@Getter
+@AllArgsConstructor
+public class AppointmentRow {
+    private final Long id;
+    private final Long patientId;
+    private final String patientFirstName;
+    private final String patientLastName;
+    private final String patientUniqueId;
+    private final Long doctorId;
+    private final String doctorFirstName;
+    private final String doctorLastName;
+    private final String doctorSpecialization;
+    private final String doctorDepartmentName;
+    private final LocalDate appointmentDate;
+    private final LocalTime appointmentTime;
+    private final Integer durationMinutes;
+    private final AppointmentStatus status;
+    private final String reasonForVisit;
+    private final String notesByPatient;
+    private final String notesByDoctorOrStaff;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+}
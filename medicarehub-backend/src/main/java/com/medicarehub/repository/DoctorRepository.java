@@ -3,17 +3,26 @@ package com.medicarehub.repository;
 import com.medicarehub.entity.Doctor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByUserId(Long userId);
+
+    // Id only, for resolving the logged-in doctor (no entity/user load)
+    @Query("SELECT d.id FROM Doctor d WHERE d.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
     Optional<Doctor> findByLicenseNumber(String licenseNumber); // For fetching
 
     // VVVVVV ADD THIS METHOD SIGNATURE VVVVVV
@@ -22,12 +31,50 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
     Optional<Doctor> findByUserUsername(String username); // We added this earlier
 
+    // Directory search while the in-memory index is cold: active doctors only, like the index
     @Query("SELECT d FROM Doctor d JOIN d.user u JOIN d.department dept " +
-            "WHERE lower(u.firstName) LIKE lower(concat('%', :searchTerm, '%')) " +
+            "WHERE u.isActive = true AND (lower(u.firstName) LIKE lower(concat('%', :searchTerm, '%')) " +
             "OR lower(u.lastName) LIKE lower(concat('%', :searchTerm, '%')) " +
             "OR lower(d.specialization) LIKE lower(concat('%', :searchTerm, '%')) " +
-            "OR lower(dept.name) LIKE lower(concat('%', :searchTerm, '%'))")
+            "OR lower(dept.name) LIKE lower(concat('%', :searchTerm, '%')))")
     Page<Doctor> searchDoctors(@Param("searchTerm") String searchTerm, Pageable pageable);
 
     List<Doctor> findByDepartmentId(Long departmentId);
-}
\ No newline at end of file
+
+    // Every active doctor with user, roles and department in one query (loading the directory search index)
+    @Query("SELECT DISTINCT d FROM Doctor d JOIN FETCH d.user u LEFT JOIN FETCH u.roles JOIN FETCH d.department " +
+            "WHERE u.isActive = true")
+    List<Doctor> findAllForDirectory();
+
+    // Active doctors of a department with user/department fetched in the same query (no per-doctor user lookups)
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u JOIN FETCH d.department dept " +
+            "WHERE dept.id = :departmentId AND u.isActive = true " +
+            "AND (:specialization IS NULL OR lower(d.specialization) = lower(:specialization))")
+    List<Doctor> findActiveByDepartmentWithUser(@Param("departmentId") Long departmentId,
+                                                @Param("specialization") String specialization);
+
+    // SELECT ... FOR UPDATE on the doctor row: serializes bookings per doctor until the transaction ends.
+    // Waits at most 5s, then fails with a PessimisticLockingFailureException (mapped to 409).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT d FROM Doctor d WHERE d.id = :id")
+    Optional<Doctor> findByIdForUpdate(@Param("id") Long id);
+
+    // Which of the given ids are doctors (existence check for many ids in one query)
+    @Query("SELECT d.id FROM Doctor d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Several doctors with user and department in one query (batch booking)
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u LEFT JOIN FETCH u.roles JOIN FETCH d.department WHERE d.id IN :ids")
+    List<Doctor> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Doctor + user (+ roles) + department in a single query, used on the booking path
+    @Query("SELECT d FROM Doctor d JOIN FETCH d.user u LEFT JOIN FETCH u.roles JOIN FETCH d.department WHERE d.id = :id")
+    Optional<Doctor> findWithUserById(@Param("id") Long id);
+
+    // Batch variant of findByIdForUpdate. Rows are locked in id order so concurrent batches cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT d FROM Doctor d WHERE d.id IN :ids ORDER BY d.id")
+    List<Doctor> findAllByIdInForUpdate(@Param("ids") Collection<Long> ids);
+}
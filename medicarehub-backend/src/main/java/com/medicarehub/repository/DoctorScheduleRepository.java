@@ -2,13 +2,16 @@ package com.medicarehub.repository;
 
 import com.medicarehub.entity.Doctor;
 import com.medicarehub.entity.DoctorSchedule;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,8 +19,19 @@ public interface DoctorScheduleRepository extends JpaRepository<DoctorSchedule,
 
     List<DoctorSchedule> findByDoctor(Doctor doctor);
 
+    // Query cache holds the schedule ids; any write to doctor_schedules invalidates it
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<DoctorSchedule> findByDoctorId(Long doctorId);
 
+    // Write path (overlap validation under the doctor row lock): current rows from the database,
+    // bypassing the query cache and the second-level cache, which may lag behind other nodes
+    @QueryHints(@QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "BYPASS"))
+    @Query("SELECT ds FROM DoctorSchedule ds WHERE ds.doctor.id = :doctorId")
+    List<DoctorSchedule> findCurrentByDoctorId(@Param("doctorId") Long doctorId);
+
+    // Schedules of several doctors at once (department-wide availability search)
+    List<DoctorSchedule> findByDoctorIdIn(Collection<Long> doctorIds);
+
     // Find recurring weekly schedules for a doctor
     List<DoctorSchedule> findByDoctorAndDayOfWeekIsNotNull(Doctor doctor);
 
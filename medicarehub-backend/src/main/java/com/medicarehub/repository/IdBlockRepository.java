@@ -0,0 +1,23 @@
+package com.medicarehub.repository;
+
+import com.medicarehub.entity.IdBlock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdBlockRepository extends JpaRepository<IdBlock, String> {
+
+    // SELECT ... FOR UPDATE: nodes reserving a block of the same sequence take turns
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("SELECT b FROM IdBlock b WHERE b.name = :name")
+    Optional<IdBlock> findByNameForUpdate(@Param("name") String name);
+}
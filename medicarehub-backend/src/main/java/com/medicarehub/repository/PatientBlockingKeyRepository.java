@@ -0,0 +1,36 @@
+package com.medicarehub.repository;
+
+import com.medicarehub.entity.PatientBlockingKey;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PatientBlockingKeyRepository extends JpaRepository<PatientBlockingKey, Long> {
+
+    // Candidate duplicates: patients sharing any of the keys (index lookups on keyValue)
+    @Query("SELECT DISTINCT k.patientId FROM PatientBlockingKey k WHERE k.keyValue IN :keyValues")
+    List<Long> findPatientIdsByKeyValueIn(@Param("keyValues") Collection<String> keyValues, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM PatientBlockingKey k WHERE k.patientId = :patientId")
+    int deleteByPatientId(@Param("patientId") Long patientId);
+
+    // Batch scan: keys shared by more than one patient, i.e. the blocks worth comparing
+    @Query("SELECT k.keyValue FROM PatientBlockingKey k GROUP BY k.keyValue HAVING COUNT(k) > 1")
+    List<String> findSharedKeyValues();
+
+    @Query("SELECT k.patientId FROM PatientBlockingKey k WHERE k.keyValue = :keyValue ORDER BY k.patientId")
+    List<Long> findPatientIdsByKeyValue(@Param("keyValue") String keyValue, Limit limit);
+
+    // Patients registered before blocking keys existed (see PatientBlockingKeyBackfill), walked in id order
+    @Query("SELECT p.id FROM Patient p WHERE p.id > :afterId " +
+            "AND NOT EXISTS (SELECT k.id FROM PatientBlockingKey k WHERE k.patientId = p.id) ORDER BY p.id")
+    List<Long> findPatientIdsWithoutKeys(@Param("afterId") Long afterId, Limit limit);
+}
@@ -1,10 +1,16 @@
 package com.medicarehub.repository;
 
+import com.medicarehub.dto.PatientLookupDto;
 import com.medicarehub.entity.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query; // Keep if you use @Query for other methods
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,10 +24,64 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
 
     boolean existsByPatientUniqueId(String patientUniqueId);
 
-    // This was for a simplistic unique ID generation, consider removing or improving
-    // @Query("SELECT MAX(p.id) FROM Patient p")
-    // Long findMaxId();
+    // Highest number among the patient unique IDs issued so far ("P" + digits), compared as a number: a string
+    // MAX would rank "P999" above "P1000" once IDs outgrow the zero padding. Only used to seed the ID sequence.
+    @Query("SELECT MAX(CAST(SUBSTRING(p.patientUniqueId, 2) AS Long)) FROM Patient p")
+    Optional<Long> findMaxPatientNumber();
 
     // If you still need findByUserId for other purposes (e.g., AuthContext on frontend or other services):
     Optional<Patient> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Id only, for resolving the logged-in patient (no entity/user load)
+    @Query("SELECT p.id FROM Patient p WHERE p.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
+
+    // Several patients with their users in one query (batch booking)
+    @Query("SELECT p FROM Patient p JOIN FETCH p.user u LEFT JOIN FETCH u.roles WHERE p.id IN :ids")
+    List<Patient> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Patient + user (+ the eagerly loaded roles) in a single query, used on the booking path
+    @Query("SELECT p FROM Patient p JOIN FETCH p.user u LEFT JOIN FETCH u.roles WHERE p.id = :id")
+    Optional<Patient> findWithUserById(@Param("id") Long id);
+
+    @Query("SELECT p FROM Patient p JOIN FETCH p.user u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<Patient> findWithUserByUsername(@Param("username") String username);
+
+    // Reception lookup. Every criterion is optional (null = ignored) and is a range/equality predicate on an index:
+    // name prefix on the normalized name columns, phone suffix as a prefix of the reversed digits, date of birth,
+    // unique ID prefix. Patterns come from PatientService (see SearchPatterns).
+    // Ordered by (search_last_name, user id), which idx_user_search_last_name supplies as is (InnoDB appends the
+    // primary key): the database reads users in that order and stops after 'limit' matches instead of sorting them all.
+    @Query("SELECT new com.medicarehub.dto.PatientLookupDto(p.id, p.patientUniqueId, u.firstName, u.lastName, u.dateOfBirth, u.phoneNumber) " +
+            "FROM Patient p JOIN p.user u " +
+            "WHERE (:namePattern IS NULL OR u.searchFullName LIKE :namePattern ESCAPE '!' OR u.searchLastName LIKE :namePattern ESCAPE '!') " +
+            "AND (:phonePattern IS NULL OR u.searchPhoneReversed LIKE :phonePattern) " +
+            "AND (:dateOfBirth IS NULL OR u.dateOfBirth = :dateOfBirth) " +
+            "AND (:uniqueIdPattern IS NULL OR p.patientUniqueId LIKE :uniqueIdPattern ESCAPE '!') " +
+            "ORDER BY u.searchLastName, u.id")
+    List<PatientLookupDto> lookup(@Param("namePattern") String namePattern,
+                                  @Param("phonePattern") String phonePattern,
+                                  @Param("dateOfBirth") LocalDate dateOfBirth,
+                                  @Param("uniqueIdPattern") String uniqueIdPattern,
+                                  Limit limit);
+
+    // Same compact rows by id (duplicate candidates)
+    @Query("SELECT new com.medicarehub.dto.PatientLookupDto(p.id, p.patientUniqueId, u.firstName, u.lastName, u.dateOfBirth, u.phoneNumber) " +
+            "FROM Patient p JOIN p.user u WHERE p.id IN :ids")
+    List<PatientLookupDto> findLookupByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset listing by (last name, user id): ids only, the page is then loaded with findAllWithUserByIdIn
+    // (fetching the roles collection together with a limit would paginate in memory).
+    // Last name is nullable: it is read as '' in the order, the predicate and the cursor alike, so users
+    // without one sort first instead of being skipped by the comparison.
+    @Query("SELECT p.id FROM Patient p JOIN p.user u ORDER BY COALESCE(u.lastName, ''), u.id")
+    List<Long> scrollIds(Limit limit);
+
+    @Query("SELECT p.id FROM Patient p JOIN p.user u " +
+            "WHERE COALESCE(u.lastName, '') > :afterLastName " +
+            "OR (COALESCE(u.lastName, '') = :afterLastName AND u.id > :afterUserId) " +
+            "ORDER BY COALESCE(u.lastName, ''), u.id")
+    List<Long> scrollIdsAfter(@Param("afterLastName") String afterLastName,
+                              @Param("afterUserId") Long afterUserId,
+                              Limit limit);
+}
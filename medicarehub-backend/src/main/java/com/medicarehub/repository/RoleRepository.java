@@ -2,13 +2,17 @@ package com.medicarehub.repository;
 
 import com.medicarehub.entity.ERole;
 import com.medicarehub.entity.Role;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Integer> {
+    // Called on every registration/doctor creation; served from the query cache (ids) and the Role region
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Role> findByName(ERole name);
     boolean existsByName(ERole name);
-}
\ No newline at end of file
+}
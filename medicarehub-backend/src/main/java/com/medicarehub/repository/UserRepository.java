@@ -2,6 +2,8 @@ package com.medicarehub.repository;
 
 import com.medicarehub.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +15,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    // Principal load for JWT-authenticated requests and token refresh (single query incl. roles)
+    @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id = :id")
+    Optional<User> findWithRolesById(@Param("id") Long id);
 }
\ No newline at end of file
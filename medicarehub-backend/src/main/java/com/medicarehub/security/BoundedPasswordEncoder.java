@@ -0,0 +1,133 @@
+package com.medicarehub.security;
+
+import com.medicarehub.dto.PasswordHashingStatsDto;
+import com.medicarehub.exception.ServiceBusyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a (BCrypt) password encoder on a small dedicated pool instead of the calling Tomcat thread.
+ * <p>
+ * Hashing is CPU bound, so at most {@code threads} hashes run at once and the rest of the application keeps
+ * its CPU share during login storms. Up to {@code queueCapacity} further requests wait their turn; beyond
+ * that, or if a result takes longer than {@code timeoutMillis}, the caller gets a {@link ServiceBusyException}
+ * (503 + Retry-After) right away instead of piling up. Queue depth and latency are exposed through
+ * {@link #getStats()}.
+ * <p>
+ * The timeout only releases the caller. A request still waiting in the queue is cancelled and never runs, but
+ * a hash that has already started runs to completion on its pool thread: BCrypt does not check for interrupts,
+ * so it is not interrupted at all. CPU use is bounded by the pool size, not by the timeout.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalHashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMillis) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword); // Only parses the hash prefix, no need to offload
+    }
+
+    public PasswordHashingStatsDto getStats() {
+        long done = completed.sum();
+        return new PasswordHashingStatsDto(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                executor.getQueue().size() + executor.getQueue().remainingCapacity(),
+                done,
+                rejected.sum(),
+                timedOut.sum(),
+                done == 0 ? 0 : totalWaitNanos.sum() / done / 1000,
+                done == 0 ? 0 : totalHashNanos.sum() / done / 1000,
+                maxHashNanos.get() / 1000);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        long submittedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return hashing.call();
+                } finally {
+                    long hashNanos = System.nanoTime() - startedAt;
+                    totalWaitNanos.add(startedAt - submittedAt);
+                    totalHashNanos.add(hashNanos);
+                    maxHashNanos.accumulateAndGet(hashNanos, Math::max);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many sign-in requests at the moment. Please try again shortly.");
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(false); // Drops it if still queued; a started hash finishes (see class comment)
+            timedOut.increment();
+            throw new ServiceBusyException("Password verification is taking too long. Please try again shortly.");
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Password verification was interrupted. Please try again.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException; // e.g. IllegalArgumentException from the delegate
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
@@ -5,6 +5,8 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException; // explicit import
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,48 +17,125 @@ import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Name of the request attribute holding the Claims of the request's verified token
+    public static final String CLAIMS_ATTRIBUTE = JwtUtils.class.getName() + ".claims";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    // Short-lived access tokens; clients renew them with the refresh token
     @Value("${jwt.expirationMs}")
     private int jwtExpirationMs;
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    @Value("${jwt.refreshExpirationMs:1209600000}")
+    private long refreshExpirationMs;
+
+    private static final String TOKEN_TYPE_CLAIM = "typ";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    // Decoded once; the parser is immutable and thread-safe, so every request shares it
+    private Key signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateJwtToken(Authentication authentication) {
+        return generateJwtToken(authentication, null, null);
+    }
+
+    // doctorId/patientId (when the user has such a profile) let ActorResolver answer ownership checks without a lookup
+    public String generateJwtToken(Authentication authentication, Long doctorId, Long patientId) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
         List<String> roles = userPrincipal.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList());
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // jti, so the token can be revoked (logout)
                 .setSubject((userPrincipal.getUsername()))
                 .claim("roles", roles)
                 .claim("userId", userPrincipal.getId())
+                .claim("doctorId", doctorId)     // Null values are left out of the token
+                .claim("patientId", patientId)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    // Only accepted by /api/auth/refresh (AuthTokenFilter ignores it). Carries no roles: they are re-read on refresh.
+    public String generateRefreshToken(UserDetailsImpl userPrincipal) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(userPrincipal.getUsername())
+                .claim("userId", userPrincipal.getId())
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + refreshExpirationMs))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM));
+    }
+
+    public long getAccessTokenExpirationMs() {
+        return jwtExpirationMs;
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    // userId claim as written by generateJwtToken; null for tokens issued without it
+    public static Long getUserId(Claims claims) {
+        return getLong(claims, "userId");
+    }
+
+    public static Long getDoctorId(Claims claims) {
+        return getLong(claims, "doctorId");
+    }
+
+    public static Long getPatientId(Claims claims) {
+        return getLong(claims, "patientId");
+    }
+
+    private static Long getLong(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    // Claims verified by AuthTokenFilter for this request, or null for anonymous requests
+    public static Claims getRequestClaims(HttpServletRequest request) {
+        Object claims = request.getAttribute(CLAIMS_ATTRIBUTE);
+        return claims instanceof Claims ? (Claims) claims : null;
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    /**
+     * Verifies the signature and expiry and returns the token body in one pass, or null if the token is invalid.
+     * Callers should keep the result instead of parsing the same token again.
+     */
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken); // Changed parse to parseClaimsJws for more specific validation
-            logger.info("JWT Token validation successful.");
-            return true;
+            return parser.parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) { // From io.jsonwebtoken.security.SignatureException
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -68,6 +147,6 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty or argument is illegal: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 }
\ No newline at end of file
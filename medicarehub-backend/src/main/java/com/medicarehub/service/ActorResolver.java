@@ -0,0 +1,85 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.ERole;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.PatientRepository;
+import com.medicarehub.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+/**
+ * Turns the current {@link Authentication} into a {@link ResolvedActor}, once per request.
+ * <p>
+ * Roles come from the authentication's authorities; the doctor/patient ids from the {@code doctorId}/
+ * {@code patientId} claims written at login. Only tokens issued before those claims existed cost one
+ * id lookup, and the result is kept as a request attribute so the @PreAuthorize check and the service
+ * call of the same request share it.
+ */
+@Component
+public class ActorResolver {
+
+    private static final String ATTRIBUTE = ActorResolver.class.getName() + ".actor";
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    // For service methods: callers that are not authenticated with a JWT principal are denied (403)
+    public ResolvedActor resolve(Authentication authentication) {
+        return find(authentication)
+                .orElseThrow(() -> new AccessDeniedException("No authenticated user for this request."));
+    }
+
+    // For @PreAuthorize expressions, which must answer false rather than throw: empty if not authenticated with a JWT principal
+    public Optional<ResolvedActor> find(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()
+                || !(authentication.getPrincipal() instanceof UserDetailsImpl principal)) {
+            return Optional.empty();
+        }
+
+        HttpServletRequest request = currentRequest();
+        if (request != null && request.getAttribute(ATTRIBUTE) instanceof ResolvedActor cached
+                && cached.getUserId().equals(principal.getId())) {
+            return Optional.of(cached);
+        }
+
+        int roleMask = ResolvedActor.roleMask(authentication.getAuthorities());
+        Claims claims = request != null ? JwtUtils.getRequestClaims(request) : null;
+        Long doctorId = null;
+        Long patientId = null;
+        if (ResolvedActor.hasRole(roleMask, ERole.ROLE_DOCTOR)) {
+            doctorId = claims != null ? JwtUtils.getDoctorId(claims) : null;
+            if (doctorId == null) {
+                doctorId = doctorRepository.findIdByUserId(principal.getId()).orElse(null);
+            }
+        }
+        if (ResolvedActor.hasRole(roleMask, ERole.ROLE_PATIENT)) {
+            patientId = claims != null ? JwtUtils.getPatientId(claims) : null;
+            if (patientId == null) {
+                patientId = patientRepository.findIdByUserId(principal.getId()).orElse(null);
+            }
+        }
+
+        ResolvedActor actor = new ResolvedActor(principal.getId(), principal.getUsername(), doctorId, patientId, roleMask);
+        if (request != null) {
+            request.setAttribute(ATTRIBUTE, actor);
+        }
+        return Optional.of(actor);
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+}
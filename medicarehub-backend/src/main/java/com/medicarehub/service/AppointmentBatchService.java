@@ -0,0 +1,199 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.AppointmentRequestDto;
+import com.medicarehub.dto.BatchAppointmentItemResultDto;
+import com.medicarehub.dto.BatchAppointmentRequestDto;
+import com.medicarehub.dto.BatchAppointmentResponseDto;
+import com.medicarehub.entity.Appointment;
+import com.medicarehub.entity.AppointmentStatus;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.repository.AppointmentRepository;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Books many appointments in one transaction (call center / referral imports).
+ * <p>
+ * Instead of one bookAppointment round per item (~10 queries each), all doctors, patients, schedules and
+ * existing appointments involved are loaded once, every item is validated against that in-memory snapshot
+ * (accepted items are added to it, so the batch cannot double-book itself), and only the accepted rows are
+ * written. Appointment ids are reserved in blocks rather than generated by IDENTITY, so Hibernate sends the
+ * INSERTs of the accepted items as JDBC batches of {@code hibernate.jdbc.batch_size} at flush. Items fail
+ * individually; the rest of the batch is still booked.
+ */
+@Service
+public class AppointmentBatchService {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DoctorScheduleCache scheduleCache;
+
+    @Autowired
+    private DoctorAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private SlotHoldRegistry slotHoldRegistry;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    // READ_COMMITTED for the same reason as bookAppointment: the snapshot is read after the doctor locks are taken
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public BatchAppointmentResponseDto bookAppointments(BatchAppointmentRequestDto batchRequest, Authentication authentication) {
+        List<AppointmentRequestDto> items = batchRequest.getAppointments();
+        BatchAppointmentItemResultDto[] results = new BatchAppointmentItemResultDto[items.size()];
+
+        Set<Long> doctorIds = new HashSet<>();
+        Set<Long> patientIds = new HashSet<>();
+        LocalDate minDate = null;
+        LocalDate maxDate = null;
+        for (AppointmentRequestDto item : items) {
+            doctorIds.add(item.getDoctorId());
+            if (item.getPatientId() != null) {
+                patientIds.add(item.getPatientId());
+            }
+            minDate = minDate == null || item.getAppointmentDate().isBefore(minDate) ? item.getAppointmentDate() : minDate;
+            maxDate = maxDate == null || item.getAppointmentDate().isAfter(maxDate) ? item.getAppointmentDate() : maxDate;
+        }
+
+        // 1. Doctors (with user/department for the response), then lock them in id order like bookAppointment does
+        Map<Long, Doctor> doctors = doctorRepository.findAllWithUserByIdIn(doctorIds)
+                .stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        if (!doctors.isEmpty()) {
+            doctorRepository.findAllByIdInForUpdate(doctors.keySet());
+        }
+        Map<Long, Patient> patients = patientIds.isEmpty() ? Collections.emptyMap() : patientRepository.findAllWithUserByIdIn(patientIds)
+                .stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+
+        // 2. Snapshot: compiled schedules plus every existing appointment of the involved doctors and patients
+        Map<Long, CompiledDoctorSchedule> schedules = doctors.isEmpty() ? Collections.emptyMap() : scheduleCache.getAll(doctors.keySet());
+        Map<Long, Map<LocalDate, List<Appointment>>> doctorAppointments = doctors.isEmpty() ? Collections.emptyMap() : appointmentRepository
+                .findByDoctorIdInAndAppointmentDateBetween(doctors.keySet(), minDate, maxDate)
+                .stream()
+                .collect(Collectors.groupingBy(a -> a.getDoctor().getId(), Collectors.groupingBy(Appointment::getAppointmentDate)));
+        Map<Long, Map<LocalDate, List<int[]>>> patientIntervals = new HashMap<>();
+        if (!patients.isEmpty()) {
+            for (Appointment existing : appointmentRepository.findByPatientIdInAndAppointmentDateBetween(patients.keySet(), minDate, maxDate)) {
+                if (existing.getStatus() != AppointmentStatus.CANCELLED_BY_PATIENT && existing.getStatus() != AppointmentStatus.CANCELLED_BY_STAFF) {
+                    int start = DoctorAvailabilityIndex.toMinute(existing.getAppointmentTime());
+                    addInterval(patientIntervals, existing.getPatient().getId(), existing.getAppointmentDate(),
+                            start, DoctorAvailabilityIndex.endMinute(existing.getAppointmentTime(), existing.getDurationMinutes()));
+                }
+            }
+        }
+        // Slot grids are built lazily per doctor/day and only live for this request
+        Map<Long, Map<LocalDate, DoctorAvailabilityIndex.DaySlots>> days = new HashMap<>();
+
+        // 3. Validate every item against the snapshot
+        List<Appointment> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<SlotHoldRegistry.Hold> consumedHolds = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            AppointmentRequestDto item = items.get(i);
+            Doctor doctor = doctors.get(item.getDoctorId());
+            Patient patient = item.getPatientId() == null ? null : patients.get(item.getPatientId());
+            String error = null;
+            int startMinute = DoctorAvailabilityIndex.toMinute(item.getAppointmentTime());
+            Integer slotDuration = doctor == null ? null
+                    : schedules.get(doctor.getId()).slotDurationAt(item.getAppointmentDate(), startMinute);
+            SlotHoldRegistry.Hold hold = item.getHoldToken() == null ? null : slotHoldRegistry.findValid(item.getHoldToken());
+
+            if (item.getPatientId() == null) {
+                error = "Patient ID is required when staff is booking an appointment.";
+            } else if (patient == null) {
+                error = "Patient not found with ID: " + item.getPatientId();
+            } else if (doctor == null) {
+                error = "Doctor not found with ID: " + item.getDoctorId();
+            } else if (slotDuration == null || startMinute < DoctorAvailabilityIndex.firstBookableMinute(item.getAppointmentDate())) {
+                error = "The selected time slot is not part of Dr. " + doctor.getUser().getLastName() + "'s schedule.";
+            } else if (hold != null && (!hold.covers(doctor.getId(), item.getAppointmentDate(), startMinute)
+                    || !hold.getOwner().equals(authentication.getName()))) {
+                error = "The slot hold does not match the requested slot or belongs to another user.";
+            } else if (slotHoldRegistry.isHeldByOther(doctor.getId(), item.getAppointmentDate(), startMinute, item.getHoldToken())) {
+                error = "The selected time slot is currently held by another user.";
+            } else {
+                int endMinute = startMinute + slotDuration;
+                DoctorAvailabilityIndex.DaySlots day = days
+                        .computeIfAbsent(doctor.getId(), id -> new HashMap<>())
+                        .computeIfAbsent(item.getAppointmentDate(), date -> DoctorAvailabilityIndex.DaySlots.build(
+                                schedules.get(doctor.getId()).windowsFor(date),
+                                doctorAppointments.getOrDefault(doctor.getId(), Collections.emptyMap()).getOrDefault(date, Collections.emptyList()),
+                                Long.MAX_VALUE));
+                if (overlaps(patientIntervals, patient.getId(), item.getAppointmentDate(), startMinute, endMinute)) {
+                    error = "Patient already has an overlapping appointment at the selected time.";
+                } else if (!day.isSlotAvailable(startMinute) || !day.tryReserve(startMinute, endMinute)) {
+                    error = "The selected time slot is not available for Dr. " + doctor.getUser().getLastName() + ".";
+                } else {
+                    addInterval(patientIntervals, patient.getId(), item.getAppointmentDate(), startMinute, endMinute);
+                    Appointment appointment = new Appointment(patient, doctor, item.getAppointmentDate(),
+                            item.getAppointmentTime(), slotDuration, item.getReasonForVisit());
+                    appointment.setNotesByPatient(item.getNotesByPatient());
+                    accepted.add(appointment);
+                    acceptedIndexes.add(i);
+                    if (hold != null) {
+                        consumedHolds.add(hold);
+                    }
+                }
+            }
+            if (error != null) {
+                results[i] = new BatchAppointmentItemResultDto(i, false, null, error);
+            }
+        }
+
+        // 4. Insert the accepted rows through the entity mapping (callbacks fill in end time and timestamps);
+        // the INSERTs are batched when the transaction flushes
+        appointmentRepository.saveAll(accepted);
+        for (int j = 0; j < accepted.size(); j++) {
+            Appointment appointment = accepted.get(j);
+            availabilityIndex.markBookedAfterCommit(appointment);
+            int index = acceptedIndexes.get(j);
+            results[index] = new BatchAppointmentItemResultDto(index, true, appointmentService.mapToAppointmentResponseDto(appointment), null);
+        }
+        TransactionCallbacks.afterCommit(() -> consumedHolds.forEach(slotHoldRegistry::release));
+
+        List<BatchAppointmentItemResultDto> resultList = List.of(results);
+        return new BatchAppointmentResponseDto(items.size(), accepted.size(), items.size() - accepted.size(), resultList);
+    }
+
+    private static void addInterval(Map<Long, Map<LocalDate, List<int[]>>> intervals, Long patientId, LocalDate date, int start, int end) {
+        intervals.computeIfAbsent(patientId, id -> new HashMap<>())
+                .computeIfAbsent(date, d -> new ArrayList<>())
+                .add(new int[]{start, end});
+    }
+
+    private static boolean overlaps(Map<Long, Map<LocalDate, List<int[]>>> intervals, Long patientId, LocalDate date, int start, int end) {
+        for (int[] interval : intervals.getOrDefault(patientId, Collections.emptyMap()).getOrDefault(date, Collections.emptyList())) {
+            if (interval[0] < end && interval[1] > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
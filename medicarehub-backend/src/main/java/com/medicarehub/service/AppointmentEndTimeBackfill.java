@@ -0,0 +1,74 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.Appointment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One-off migration for appointments created before {@code end_time} was stored: fills it in from
+ * appointment_time + duration_minutes, one chunk per scheduler run, so startup is not held up and the table
+ * is never locked for long. Today's and future appointments go first because the booking overlap checks read
+ * end_time; past rows follow. Once a run finds nothing left, later runs return immediately.
+ * Plain JDBC on purpose: no entity lifecycle/validation (past appointments would fail @FutureOrPresent),
+ * and no database-specific time arithmetic.
+ */
+@Component
+public class AppointmentEndTimeBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentEndTimeBackfill.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean done;
+    private int total; // Only touched by the scheduler thread
+
+    @Scheduled(fixedDelayString = "${appointment.end-time-backfill.delay-ms:1000}",
+            initialDelayString = "${appointment.end-time-backfill.initial-delay-ms:5000}")
+    public void backfillNextChunk() {
+        if (done) {
+            return;
+        }
+        int updated = backfillChunk();
+        total += updated;
+        if (updated == 0) {
+            done = true;
+            if (total > 0) {
+                logger.info("Backfilled end_time for {} appointments", total);
+            }
+        }
+    }
+
+    // Fills in up to CHUNK_SIZE rows, upcoming appointments first; returns how many were updated
+    public int backfillChunk() {
+        List<Object[]> updates = missingEndTimes("WHERE end_time IS NULL AND appointment_date >= ?", Date.valueOf(LocalDate.now()));
+        if (updates.isEmpty()) {
+            updates = missingEndTimes("WHERE end_time IS NULL");
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE appointments SET end_time = ? WHERE id = ?", updates);
+        }
+        return updates.size();
+    }
+
+    private List<Object[]> missingEndTimes(String where, Object... args) {
+        return jdbcTemplate.query(
+                "SELECT id, appointment_time, duration_minutes FROM appointments " + where + " LIMIT " + CHUNK_SIZE,
+                (rs, rowNum) -> new Object[]{
+                        Time.valueOf(Appointment.endTimeOf(rs.getTime("appointment_time").toLocalTime(), rs.getInt("duration_minutes"))),
+                        rs.getLong("id")
+                },
+                args);
+    }
+}
@@ -0,0 +1,36 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.Appointment;
+import com.medicarehub.repository.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes sure the appointment id sequence in {@code id_blocks} exists before the first booking. Hibernate's table
+ * generator would create a missing row starting at 1, which collides with the rows inserted while appointments
+ * still used IDENTITY ids, so the row is created here, after the highest existing id.
+ */
+@Component
+public class AppointmentIdSequence {
+
+    @Autowired
+    private IdBlockAllocator idBlockAllocator;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @PostConstruct
+    void continueAfterExistingAppointments() {
+        try {
+            // An empty block: creates the row if it is missing and leaves an existing one as it is
+            idBlockAllocator.reserve(Appointment.ID_SEQUENCE, 0, () -> appointmentRepository.findMaxId()
+                    .map(max -> max + 1)
+                    .orElse(1L));
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+            // Another node starting at the same time created the row first (see PatientIdGenerator)
+        }
+    }
+}
@@ -3,28 +3,35 @@ package com.medicarehub.service;
 import com.medicarehub.dto.AppointmentRequestDto;
 import com.medicarehub.dto.AppointmentResponseDto;
 import com.medicarehub.dto.AppointmentStatusUpdateDto;
-import com.medicarehub.dto.AvailabilitySlotDto; // <--- IMPORT THIS
+import com.medicarehub.dto.CursorPageDto;
+import com.medicarehub.dto.SlotHoldRequestDto;
+import com.medicarehub.dto.SlotHoldResponseDto;
 import com.medicarehub.entity.*;
 import com.medicarehub.exception.BadRequestException;
 import com.medicarehub.exception.ForbiddenAccessException;
+import com.medicarehub.exception.ResourceAlreadyExistsException;
 import com.medicarehub.exception.ResourceNotFoundException;
 import com.medicarehub.repository.AppointmentRepository;
+import com.medicarehub.repository.AppointmentRow;
 import com.medicarehub.repository.DoctorRepository;
 import com.medicarehub.repository.PatientRepository;
-import com.medicarehub.repository.DoctorScheduleRepository;
-import com.medicarehub.repository.UserRepository; // Import UserRepository
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 // import org.springframework.security.core.context.SecurityContextHolder; // Not directly used here for now
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -42,21 +49,32 @@ public class AppointmentService {
     private DoctorRepository doctorRepository;
 
     @Autowired
-    private UserRepository userRepository; // Added for direct user lookup
+    private ActorResolver actorResolver; // Role and ownership checks without user lookups
 
     @Autowired
     private DoctorScheduleService doctorScheduleService;
 
     @Autowired
-    private DoctorScheduleRepository doctorScheduleRepository;
+    private DoctorAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private DoctorScheduleCache scheduleCache;
+
+    @Autowired
+    private SlotHoldRegistry slotHoldRegistry;
 
 
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME; // Use consistent formatter
 
+    // Keyset cursor kinds, one per listing
+    private static final String CURSOR_PATIENT = "appointments-patient";
+    private static final String CURSOR_DOCTOR = "appointments-doctor";
+    private static final String CURSOR_ALL = "appointments-all";
+
 
-    private AppointmentResponseDto mapToAppointmentResponseDto(Appointment appointment) {
+    AppointmentResponseDto mapToAppointmentResponseDto(Appointment appointment) {
         if (appointment == null) return null;
 
         AppointmentResponseDto dto = new AppointmentResponseDto();
@@ -93,85 +111,134 @@ public class AppointmentService {
         return dto;
     }
 
+    // List endpoints: the projection already carries every field, no entity navigation
+    static AppointmentResponseDto mapToAppointmentResponseDto(AppointmentRow row) {
+        AppointmentResponseDto dto = new AppointmentResponseDto();
+        dto.setId(row.getId());
+        dto.setPatientId(row.getPatientId());
+        dto.setPatientFirstName(row.getPatientFirstName());
+        dto.setPatientLastName(row.getPatientLastName());
+        dto.setPatientUniqueId(row.getPatientUniqueId());
+        dto.setDoctorId(row.getDoctorId());
+        dto.setDoctorFirstName(row.getDoctorFirstName());
+        dto.setDoctorLastName(row.getDoctorLastName());
+        dto.setDoctorSpecialization(row.getDoctorSpecialization());
+        dto.setDoctorDepartmentName(row.getDoctorDepartmentName());
+        dto.setAppointmentDate(row.getAppointmentDate().format(DATE_FORMATTER));
+        dto.setAppointmentTime(row.getAppointmentTime().format(TIME_FORMATTER));
+        dto.setDurationMinutes(row.getDurationMinutes());
+        dto.setStatus(row.getStatus());
+        dto.setReasonForVisit(row.getReasonForVisit());
+        dto.setNotesByPatient(row.getNotesByPatient());
+        dto.setNotesByDoctorOrStaff(row.getNotesByDoctorOrStaff());
+        dto.setCreatedAt(row.getCreatedAt() != null ? row.getCreatedAt().format(DATETIME_FORMATTER) : null);
+        dto.setUpdatedAt(row.getUpdatedAt() != null ? row.getUpdatedAt().format(DATETIME_FORMATTER) : null);
+        return dto;
+    }
 
-    @Transactional
+
+    /**
+     * Books a slot with a fixed, small number of statements, each loaded entity reused by every later step:
+     * patient+user (1), doctor+user+department (1), doctor row lock (1), combined overlap check (1) and the insert (1).
+     * Slot duration and availability come from the compiled schedule cache and the availability index; only a cold
+     * index day adds one appointment query. Watch the X-Query-Count response header to keep it that way.
+     * <p>
+     * READ_COMMITTED so the overlap query run after taking the doctor lock sees bookings that committed while we waited
+     * (under MySQL's default REPEATABLE READ it would read the snapshot taken at the first query of the transaction).
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public AppointmentResponseDto bookAppointment(AppointmentRequestDto requestDto, Authentication authentication) {
-        Long patientIdToBookFor;
+        ResolvedActor actor = actorResolver.resolve(authentication);
         String loggedInUsername = authentication.getName();
 
-        // Find the User object for the logged-in principal
-        User loggedInUser = userRepository.findByUsername(loggedInUsername)
-                .orElseThrow(() -> new ResourceNotFoundException("Logged in user '" + loggedInUsername + "' not found in system."));
-
-        boolean isPatientBookingForSelf = authentication.getAuthorities().stream()
-                .anyMatch(ga -> ga.getAuthority().equals("ROLE_PATIENT"));
-        boolean isStaffBooking = authentication.getAuthorities().stream()
-                .anyMatch(ga -> ga.getAuthority().equals("ROLE_ADMIN") || ga.getAuthority().equals("ROLE_RECEPTIONIST"));
-
-        if (isPatientBookingForSelf) {
-            Patient patient = patientRepository.findByUserId(loggedInUser.getId()) // Use findByUserId
+        Patient patient;
+        if (actor.hasRole(ERole.ROLE_PATIENT)) {
+            // The patient id comes with the actor, so this is the only patient query
+            if (actor.getPatientId() == null) {
+                throw new ResourceNotFoundException("Patient profile not found for logged-in user: " + loggedInUsername);
+            }
+            patient = patientRepository.findWithUserById(actor.getPatientId())
                     .orElseThrow(() -> new ResourceNotFoundException("Patient profile not found for logged-in user: " + loggedInUsername));
-            patientIdToBookFor = patient.getId();
-            if (requestDto.getPatientId() != null && !requestDto.getPatientId().equals(patientIdToBookFor)) {
+            if (requestDto.getPatientId() != null && !requestDto.getPatientId().equals(patient.getId())) {
                 throw new ForbiddenAccessException("Patients can only book appointments for themselves.");
             }
-        } else if (isStaffBooking) {
+        } else if (actor.isStaff()) {
             if (requestDto.getPatientId() == null) {
                 throw new BadRequestException("Patient ID is required when staff is booking an appointment.");
             }
-            patientIdToBookFor = requestDto.getPatientId();
+            patient = patientRepository.findWithUserById(requestDto.getPatientId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + requestDto.getPatientId()));
         } else {
             throw new ForbiddenAccessException("User role not authorized to book appointments.");
         }
 
-        Patient patient = patientRepository.findById(patientIdToBookFor)
-                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + patientIdToBookFor));
-        Doctor doctor = doctorRepository.findById(requestDto.getDoctorId())
+        // User and department are fetched along, so validation messages and the response mapping need no further loads
+        Doctor doctor = doctorRepository.findWithUserById(requestDto.getDoctorId())
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + requestDto.getDoctorId()));
 
-        // Determine slot duration from doctor's schedule
-        // This is a simplification: assumes all slots for a doctor have same duration or picks the first one found.
-        // A more robust system would link appointment booking to a *specific* DoctorSchedule entry or pass duration.
-        Integer slotDuration = doctorScheduleRepository.findByDoctorId(doctor.getId())
-                .stream()
-                .filter(ds -> ds.getSpecificDate() == null || ds.getSpecificDate().equals(requestDto.getAppointmentDate())) // Prioritize specific date or general
-                .map(DoctorSchedule::getSlotDurationMinutes)
-                .findFirst()
-                .orElse(30); // Default to 30 minutes if no specific schedule found (this is a fallback)
-
-
-        // Check Doctor's Availability using DoctorScheduleService
-        List<AvailabilitySlotDto> availableSlots = doctorScheduleService.getDoctorAvailability(doctor.getId(), requestDto.getAppointmentDate());
-
-        final LocalTime requestedStartTime = requestDto.getAppointmentTime(); // final for use in lambda
-        boolean slotIsValidAndAvailable = availableSlots.stream().anyMatch(slot -> {
-            LocalTime slotStartTimeInList = LocalTime.parse(slot.getStartTime(), TIME_FORMATTER);
-            return requestedStartTime.equals(slotStartTimeInList);
-            // We could also check if requestedStartTime is within slotStartTimeInList and slotEndTimeInList
-            // but getDoctorAvailability should only return exact start times of available slots.
-        });
-
-        if (!slotIsValidAndAvailable) {
-            throw new BadRequestException("The selected time slot " + requestedStartTime.format(TIME_FORMATTER) +
-                    " is not available for Dr. " + doctor.getUser().getLastName() +
-                    " on " + requestDto.getAppointmentDate().format(DATE_FORMATTER) + ".");
+        final LocalTime requestedStartTime = requestDto.getAppointmentTime();
+        int requestedStartMinute = DoctorAvailabilityIndex.toMinute(requestedStartTime);
+
+        // A live hold from POST /api/appointments/holds was validated when it was taken. An expired or
+        // released token just falls back to the normal checks below.
+        SlotHoldRegistry.Hold hold = requestDto.getHoldToken() == null ? null : slotHoldRegistry.findValid(requestDto.getHoldToken());
+        if (hold != null) {
+            if (!hold.covers(doctor.getId(), requestDto.getAppointmentDate(), requestedStartMinute)) {
+                throw new BadRequestException("The slot hold does not match the requested doctor, date and time.");
+            }
+            if (!hold.getOwner().equals(loggedInUsername)) {
+                throw new ForbiddenAccessException("The slot hold belongs to another user.");
+            }
+        }
+
+        Integer slotDuration;
+        if (hold != null) {
+            slotDuration = hold.getDurationMinutes();
+        } else {
+            // Determine slot duration from the schedule window the requested slot belongs to (compiled schedule cache, no DB read)
+            slotDuration = scheduleCache.get(doctor.getId())
+                    .slotDurationAt(requestDto.getAppointmentDate(), requestedStartMinute);
+            if (slotDuration == null) {
+                slotDuration = 30; // Default to 30 minutes if no schedule window matches (the availability check below rejects it anyway)
+            }
+
+            // Check Doctor's Availability using DoctorScheduleService (answered from the availability index when warm)
+            boolean slotIsValidAndAvailable = doctorScheduleService.isSlotAvailable(
+                    doctor.getId(), requestDto.getAppointmentDate(), requestedStartTime);
+
+            if (!slotIsValidAndAvailable || slotHoldRegistry.isHeldByOther(
+                    doctor.getId(), requestDto.getAppointmentDate(), requestedStartMinute, requestDto.getHoldToken())) {
+                throw new BadRequestException("The selected time slot " + requestedStartTime.format(TIME_FORMATTER) +
+                        " is not available for Dr. " + doctor.getUser().getLastName() +
+                        " on " + requestDto.getAppointmentDate().format(DATE_FORMATTER) + ".");
+            }
         }
 
-        // Check for patient's overlapping appointments (excluding cancelled)
-        LocalTime requestedEndTime = requestDto.getAppointmentTime().plusMinutes(slotDuration);
-        List<Appointment> patientOverlaps = appointmentRepository.findOverlappingAppointmentsForPatient(
-                patient, requestDto.getAppointmentDate(), requestDto.getAppointmentTime(), requestedEndTime
+        // Concurrency guard, cheapest check first.
+        // 1. In-JVM fast-fail: when many requests race for the same slot, all but one are rejected here
+        //    without any further DB work. Undone automatically if this transaction rolls back.
+        int requestedEndMinute = DoctorAvailabilityIndex.endMinute(requestedStartTime, slotDuration);
+        if (Boolean.FALSE.equals(availabilityIndex.tryReserve(doctor.getId(), requestDto.getAppointmentDate(),
+                requestedStartMinute, requestedEndMinute))) {
+            throw new BadRequestException("The selected time slot " + requestedStartTime.format(TIME_FORMATTER) +
+                    " has just been booked by someone else. Please choose a different slot.");
+        }
+        // 2. Per-doctor serialization across all nodes: the doctor row stays locked until commit, so the doctor
+        //    overlap check below and the INSERT cannot interleave with another booking for this doctor.
+        doctorRepository.findByIdForUpdate(doctor.getId());
+
+        // Patient and doctor overlaps (excluding cancelled) in one query; the doctor part is authoritative
+        // because it runs under the doctor row lock, see above
+        LocalTime requestedEndTime = Appointment.endTimeOf(requestDto.getAppointmentTime(), slotDuration);
+        List<Appointment> overlaps = appointmentRepository.findOverlappingAppointmentsForDoctorOrPatient(
+                doctor.getId(), patient.getId(), requestDto.getAppointmentDate(), requestDto.getAppointmentTime(), requestedEndTime
         );
-        if (!patientOverlaps.isEmpty()) {
+        boolean patientOverlaps = overlaps.stream().anyMatch(a -> a.getPatient().getId().equals(patient.getId()));
+        if (patientOverlaps) {
             throw new BadRequestException("Patient " + patient.getUser().getFirstName() + " " + patient.getUser().getLastName() +
                     " already has an overlapping appointment at the selected time.");
         }
-
-        // Also check for doctor's overlapping appointments again (as a final safeguard, though getDoctorAvailability should prevent this)
-        List<Appointment> doctorOverlaps = appointmentRepository.findOverlappingAppointmentsForDoctor(
-                doctor, requestDto.getAppointmentDate(), requestDto.getAppointmentTime(), requestedEndTime
-        );
-        if (!doctorOverlaps.isEmpty()) {
+        if (!overlaps.isEmpty()) {
             throw new BadRequestException("Dr. " + doctor.getUser().getLastName() +
                     " already has an overlapping appointment at the selected time. Please try a different slot.");
         }
@@ -189,26 +256,71 @@ public class AppointmentService {
         // Status defaults to SCHEDULED via @PrePersist or constructor in Appointment entity
 
         Appointment savedAppointment = appointmentRepository.save(appointment);
+        availabilityIndex.markBookedAfterCommit(savedAppointment);
+        if (hold != null) {
+            // Kept on rollback so the user can retry within the hold's lifetime
+            SlotHoldRegistry.Hold consumedHold = hold;
+            TransactionCallbacks.afterCommit(() -> slotHoldRegistry.release(consumedHold));
+        }
         return mapToAppointmentResponseDto(savedAppointment);
     }
 
-    public AppointmentResponseDto getAppointmentById(Long appointmentId, Authentication authentication) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
 
-        User loggedInUser = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("Logged in user not found: " + authentication.getName()));
+    // --- Slot holds (reserve a slot while the booking form is being filled in) ---
 
-        boolean isAdminOrReceptionist = authentication.getAuthorities().stream()
-                .anyMatch(ga -> ga.getAuthority().equals("ROLE_ADMIN") || ga.getAuthority().equals("ROLE_RECEPTIONIST"));
+    public SlotHoldResponseDto holdSlot(SlotHoldRequestDto requestDto, Authentication authentication) {
+        Long doctorId = requestDto.getDoctorId();
+        LocalDate date = requestDto.getAppointmentDate();
+        LocalTime startTime = requestDto.getAppointmentTime();
+        int startMinute = DoctorAvailabilityIndex.toMinute(startTime);
 
-        boolean isDoctorViewingOwn = authentication.getAuthorities().stream().anyMatch(ga -> ga.getAuthority().equals("ROLE_DOCTOR")) &&
-                appointment.getDoctor().getUser().getId().equals(loggedInUser.getId());
+        // Compiled schedule cache + availability index: normally no DB access at all
+        Integer slotDuration = scheduleCache.get(doctorId).slotDurationAt(date, startMinute);
+        if (slotDuration == null || !doctorScheduleService.isSlotAvailable(doctorId, date, startTime)) {
+            throw new BadRequestException("The selected time slot " + startTime.format(TIME_FORMATTER) +
+                    " is not available on " + date.format(DATE_FORMATTER) + ".");
+        }
+
+        SlotHoldRegistry.Hold hold = slotHoldRegistry.tryHold(doctorId, date, startMinute, startMinute + slotDuration, authentication.getName());
+        if (hold == null) {
+            throw new ResourceAlreadyExistsException("The selected time slot " + startTime.format(TIME_FORMATTER) +
+                    " is currently held by another user. Please choose a different slot.");
+        }
+        return mapToSlotHoldResponseDto(hold);
+    }
 
-        boolean isPatientViewingOwn = authentication.getAuthorities().stream().anyMatch(ga -> ga.getAuthority().equals("ROLE_PATIENT")) &&
-                appointment.getPatient().getUser().getId().equals(loggedInUser.getId());
+    public void releaseSlotHold(String holdToken, Authentication authentication) {
+        SlotHoldRegistry.Hold hold = slotHoldRegistry.findValid(holdToken);
+        if (hold == null) {
+            throw new ResourceNotFoundException("Slot hold not found or already expired.");
+        }
+        if (!actorResolver.resolve(authentication).isStaff() && !hold.getOwner().equals(authentication.getName())) {
+            throw new ForbiddenAccessException("You are not authorized to release this slot hold.");
+        }
+        slotHoldRegistry.release(hold);
+    }
 
-        if (!isAdminOrReceptionist && !isDoctorViewingOwn && !isPatientViewingOwn) {
+    private static SlotHoldResponseDto mapToSlotHoldResponseDto(SlotHoldRegistry.Hold hold) {
+        return new SlotHoldResponseDto(
+                hold.getToken(),
+                hold.getKey().getDoctorId(),
+                hold.getKey().getDate(),
+                DoctorAvailabilityIndex.timeLabel(hold.getKey().getStartMinute()),
+                DoctorAvailabilityIndex.timeLabel(hold.getEndMinute()),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(hold.getExpiresAtMillis()), ZoneId.systemDefault()).format(DATETIME_FORMATTER)
+        );
+    }
+
+    public AppointmentResponseDto getAppointmentById(Long appointmentId, Authentication authentication) {
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
+
+        // Ids of the lazy doctor/patient references are known without loading them
+        ResolvedActor actor = actorResolver.resolve(authentication);
+        boolean isDoctorViewingOwn = actor.isDoctor(appointment.getDoctor().getId());
+        boolean isPatientViewingOwn = actor.isPatient(appointment.getPatient().getId());
+
+        if (!actor.isStaff() && !isDoctorViewingOwn && !isPatientViewingOwn) {
             throw new ForbiddenAccessException("You are not authorized to view this appointment.");
         }
 
@@ -216,35 +328,66 @@ public class AppointmentService {
     }
 
     public Page<AppointmentResponseDto> getAppointmentsForPatient(Long patientId, Pageable pageable, Authentication authentication) {
-        User loggedInUser = userRepository.findByUsername(authentication.getName()).orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Patient patientToView = patientRepository.findById(patientId).orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + patientId));
+        checkCanListPatientAppointments(patientId, authentication);
+        return appointmentRepository.findRowsByPatientId(patientId, pageable).map(AppointmentService::mapToAppointmentResponseDto);
+    }
+
+    // Keyset variant for long histories: ordered by date, time, id; no offset scan and no count
+    public CursorPageDto<AppointmentResponseDto> scrollAppointmentsForPatient(Long patientId, String cursor, Integer size,
+                                                                               Authentication authentication) {
+        checkCanListPatientAppointments(patientId, authentication);
+        String[] after = KeysetCursor.decode(cursor, CURSOR_PATIENT, 3);
+        int pageSize = KeysetCursor.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1); // One extra row tells whether there is a next page
+        List<AppointmentRow> rows = after == null
+                ? appointmentRepository.scrollRowsByPatientId(patientId, limit)
+                : appointmentRepository.scrollRowsByPatientIdAfter(patientId,
+                        parseCursorDate(after[0]), parseCursorTime(after[1]), parseCursorId(after[2]), limit);
+        return toCursorPage(rows, pageSize, CURSOR_PATIENT);
+    }
 
-        boolean isPatientSelf = authentication.getAuthorities().stream().anyMatch(ga -> ga.getAuthority().equals("ROLE_PATIENT")) &&
-                patientToView.getUser().getId().equals(loggedInUser.getId());
-        boolean isAllowedStaff = authentication.getAuthorities().stream()
-                .anyMatch(ga -> ga.getAuthority().equals("ROLE_ADMIN") || ga.getAuthority().equals("ROLE_RECEPTIONIST") ||
-                        ga.getAuthority().equals("ROLE_DOCTOR") || ga.getAuthority().equals("ROLE_NURSE")); // Doctor/Nurse might view patient's appts
+    private void checkCanListPatientAppointments(Long patientId, Authentication authentication) {
+        ResolvedActor actor = actorResolver.resolve(authentication);
+        boolean isPatientSelf = actor.isPatient(patientId);
+        boolean isAllowedStaff = actor.hasAnyRole(ERole.ROLE_ADMIN, ERole.ROLE_RECEPTIONIST,
+                ERole.ROLE_DOCTOR, ERole.ROLE_NURSE); // Doctor/Nurse might view patient's appts
 
         if (!isPatientSelf && !isAllowedStaff) {
             throw new ForbiddenAccessException("You are not authorized to view appointments for this patient.");
         }
-
-        return appointmentRepository.findByPatientId(patientId, pageable).map(this::mapToAppointmentResponseDto);
+        if (!isPatientSelf && !patientRepository.existsById(patientId)) {
+            throw new ResourceNotFoundException("Patient not found with ID: " + patientId);
+        }
     }
 
     public Page<AppointmentResponseDto> getAppointmentsForDoctor(Long doctorId, Pageable pageable, Authentication authentication) {
-        User loggedInUser = userRepository.findByUsername(authentication.getName()).orElseThrow(() -> new ResourceNotFoundException("User not found"));
-        Doctor doctorToView = doctorRepository.findById(doctorId).orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
+        checkCanListDoctorAppointments(doctorId, authentication);
+        return appointmentRepository.findRowsByDoctorId(doctorId, pageable).map(AppointmentService::mapToAppointmentResponseDto);
+    }
+
+    public CursorPageDto<AppointmentResponseDto> scrollAppointmentsForDoctor(Long doctorId, String cursor, Integer size,
+                                                                              Authentication authentication) {
+        checkCanListDoctorAppointments(doctorId, authentication);
+        String[] after = KeysetCursor.decode(cursor, CURSOR_DOCTOR, 3);
+        int pageSize = KeysetCursor.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<AppointmentRow> rows = after == null
+                ? appointmentRepository.scrollRowsByDoctorId(doctorId, limit)
+                : appointmentRepository.scrollRowsByDoctorIdAfter(doctorId,
+                        parseCursorDate(after[0]), parseCursorTime(after[1]), parseCursorId(after[2]), limit);
+        return toCursorPage(rows, pageSize, CURSOR_DOCTOR);
+    }
 
-        boolean isDoctorSelf = authentication.getAuthorities().stream().anyMatch(ga -> ga.getAuthority().equals("ROLE_DOCTOR")) &&
-                doctorToView.getUser().getId().equals(loggedInUser.getId());
-        boolean isAllowedStaff = authentication.getAuthorities().stream()
-                .anyMatch(ga -> ga.getAuthority().equals("ROLE_ADMIN") || ga.getAuthority().equals("ROLE_RECEPTIONIST"));
+    private void checkCanListDoctorAppointments(Long doctorId, Authentication authentication) {
+        ResolvedActor actor = actorResolver.resolve(authentication);
+        boolean isDoctorSelf = actor.isDoctor(doctorId);
 
-        if (!isDoctorSelf && !isAllowedStaff) {
+        if (!isDoctorSelf && !actor.isStaff()) {
             throw new ForbiddenAccessException("You are not authorized to view appointments for this doctor.");
         }
-        return appointmentRepository.findByDoctorId(doctorId, pageable).map(this::mapToAppointmentResponseDto);
+        if (!isDoctorSelf && !doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor not found with ID: " + doctorId);
+        }
     }
 
     public Page<AppointmentResponseDto> getAllAppointmentsFiltered(
@@ -253,8 +396,71 @@ public class AppointmentService {
             Optional<String> patientNameSearch,
             Optional<String> doctorNameSearch,
             Pageable pageable) {
-        return appointmentRepository.findAllFiltered(dateFilter, statusFilter, patientNameSearch, doctorNameSearch, pageable)
-                .map(this::mapToAppointmentResponseDto);
+        return appointmentRepository.findAllFilteredRows(dateFilter, statusFilter,
+                        namePrefixPattern(patientNameSearch), namePrefixPattern(doctorNameSearch), pageable)
+                .map(AppointmentService::mapToAppointmentResponseDto);
+    }
+
+    // The cursor only carries the sort key; the caller sends the same filters with every page
+    public CursorPageDto<AppointmentResponseDto> scrollAllAppointmentsFiltered(
+            Optional<LocalDate> dateFilter,
+            Optional<AppointmentStatus> statusFilter,
+            Optional<String> patientNameSearch,
+            Optional<String> doctorNameSearch,
+            String cursor,
+            Integer size) {
+        Optional<String> patientNamePattern = namePrefixPattern(patientNameSearch);
+        Optional<String> doctorNamePattern = namePrefixPattern(doctorNameSearch);
+        String[] after = KeysetCursor.decode(cursor, CURSOR_ALL, 3);
+        int pageSize = KeysetCursor.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        List<AppointmentRow> rows = after == null
+                ? appointmentRepository.scrollAllFilteredRows(dateFilter, statusFilter, patientNamePattern, doctorNamePattern, limit)
+                : appointmentRepository.scrollAllFilteredRowsAfter(dateFilter, statusFilter, patientNamePattern, doctorNamePattern,
+                        parseCursorDate(after[0]), parseCursorTime(after[1]), parseCursorId(after[2]), limit);
+        return toCursorPage(rows, pageSize, CURSOR_ALL);
+    }
+
+    // Search box text -> prefix pattern on User.searchFullName/searchLastName, normalized like the stored columns
+    static Optional<String> namePrefixPattern(Optional<String> nameSearch) {
+        return nameSearch.map(User::normalizeName).map(SearchPatterns::prefix);
+    }
+
+    private static CursorPageDto<AppointmentResponseDto> toCursorPage(List<AppointmentRow> rows, int pageSize, String kind) {
+        boolean hasNext = rows.size() > pageSize;
+        List<AppointmentRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            AppointmentRow last = page.get(page.size() - 1);
+            nextCursor = KeysetCursor.encode(kind, last.getAppointmentDate().toString(),
+                    last.getAppointmentTime().toString(), last.getId().toString());
+        }
+        List<AppointmentResponseDto> content = page.stream().map(AppointmentService::mapToAppointmentResponseDto).toList();
+        return new CursorPageDto<>(content, content.size(), nextCursor, hasNext);
+    }
+
+    private static LocalDate parseCursorDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw KeysetCursor.invalid();
+        }
+    }
+
+    private static LocalTime parseCursorTime(String value) {
+        try {
+            return LocalTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw KeysetCursor.invalid();
+        }
+    }
+
+    private static Long parseCursorId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw KeysetCursor.invalid();
+        }
     }
 
 
@@ -263,21 +469,18 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with ID: " + appointmentId));
 
-        User loggedInUser = userRepository.findByUsername(authentication.getName())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + authentication.getName()));
+        ResolvedActor actor = actorResolver.resolve(authentication);
         AppointmentStatus newStatus = statusUpdateDto.getNewStatus();
 
         boolean canUpdate = false;
         // Admin/Receptionist can change to most statuses (except perhaps re-opening a completed one without specific logic)
-        if (authentication.getAuthorities().stream().anyMatch(ga -> ga.getAuthority().equals("ROLE_ADMIN") || ga.getAuthority().equals("ROLE_RECEPTIONIST"))) {
+        if (actor.isStaff()) {
             canUpdate = true;
-        } else if (authentication.getAuthorities().stream().anyMatch(ga -> ga.getAuthority().equals("ROLE_DOCTOR")) &&
-                appointment.getDoctor().getUser().getId().equals(loggedInUser.getId())) {
+        } else if (actor.isDoctor(appointment.getDoctor().getId())) {
             if (newStatus == AppointmentStatus.COMPLETED || newStatus == AppointmentStatus.NO_SHOW || newStatus == AppointmentStatus.CANCELLED_BY_STAFF) {
                 canUpdate = true;
             }
-        } else if (authentication.getAuthorities().stream().anyMatch(ga -> ga.getAuthority().equals("ROLE_PATIENT")) &&
-                appointment.getPatient().getUser().getId().equals(loggedInUser.getId())) {
+        } else if (actor.isPatient(appointment.getPatient().getId())) {
             if (newStatus == AppointmentStatus.CANCELLED_BY_PATIENT && appointment.getStatus() == AppointmentStatus.SCHEDULED) {
                 canUpdate = true;
             }
@@ -299,9 +502,10 @@ public class AppointmentService {
         }
 
 
+        boolean releasesSlot = !isCancelled(appointment.getStatus()) && isCancelled(newStatus);
         appointment.setStatus(newStatus);
         if (statusUpdateDto.getNotes() != null && !statusUpdateDto.getNotes().isBlank()) {
-            String notePrefix = "[" + loggedInUser.getUsername() + " - " + newStatus + "]: ";
+            String notePrefix = "[" + actor.getUsername() + " - " + newStatus + "]: ";
             String existingNotes = appointment.getNotesByDoctorOrStaff() == null ? "" : appointment.getNotesByDoctorOrStaff() + "\n";
             appointment.setNotesByDoctorOrStaff(existingNotes + notePrefix + statusUpdateDto.getNotes());
         } else if (newStatus == AppointmentStatus.CANCELLED_BY_PATIENT && statusUpdateDto.getCancellationReason() != null) {
@@ -311,6 +515,13 @@ public class AppointmentService {
         }
 
         Appointment updatedAppointment = appointmentRepository.save(appointment);
+        if (releasesSlot) {
+            availabilityIndex.markReleasedAfterCommit(updatedAppointment);
+        }
         return mapToAppointmentResponseDto(updatedAppointment);
     }
+
+    private static boolean isCancelled(AppointmentStatus status) {
+        return status == AppointmentStatus.CANCELLED_BY_PATIENT || status == AppointmentStatus.CANCELLED_BY_STAFF;
+    }
 }
\ No newline at end of file
@@ -8,11 +8,16 @@ import com.medicarehub.entity.Role;
 import com.medicarehub.entity.User;
 import com.medicarehub.exception.RoleNotFoundException;
 import com.medicarehub.exception.UserAlreadyExistsException;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.PatientRepository;
 import com.medicarehub.repository.RoleRepository;
 import com.medicarehub.repository.UserRepository;
 import com.medicarehub.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -44,6 +49,15 @@ public class AuthService {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    DoctorRepository doctorRepository;
+
+    @Autowired
+    PatientRepository patientRepository;
+
+    @Autowired
+    TokenRevocationList revocationList;
+
     @Transactional
     public User registerUser(SignupRequestDto signUpRequest) {
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
@@ -107,18 +121,70 @@ public class AuthService {
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsernameOrEmail(), loginRequest.getPassword()));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
+        return issueTokens(authentication);
+    }
 
+    /**
+     * Exchanges a valid refresh token for a new access/refresh token pair. The presented refresh token is
+     * revoked (rotation), so it can be used only once. User status and roles are re-read here, which is what
+     * keeps the short-lived access tokens current.
+     */
+    @Transactional
+    public JwtResponseDto refreshTokens(String refreshToken) {
+        Claims claims = jwtUtils.parseClaims(refreshToken);
+        if (claims == null || !JwtUtils.isRefreshToken(claims) || claims.getId() == null
+                || revocationList.isRevoked(claims.getId())) {
+            throw new CredentialsExpiredException("Refresh token is invalid, expired or revoked. Please sign in again.");
+        }
+        User user = userRepository.findWithRolesById(JwtUtils.getUserId(claims))
+                .orElseThrow(() -> new CredentialsExpiredException("Refresh token is invalid, expired or revoked. Please sign in again."));
+        if (!user.isActive()) {
+            throw new DisabledException("User account is disabled.");
+        }
+        if (!revocationList.revoke(claims.getId(), claims.getExpiration().toInstant())) {
+            // Someone refreshed with this token a moment ago (replay or double submit)
+            throw new CredentialsExpiredException("Refresh token has already been used. Please sign in again.");
+        }
+
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        return issueTokens(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    // Revokes the caller's access token (if the request carried one) and the given refresh token (if any)
+    @Transactional
+    public void logout(Claims accessTokenClaims, String refreshToken) {
+        if (accessTokenClaims != null && accessTokenClaims.getId() != null) {
+            revocationList.revoke(accessTokenClaims.getId(), accessTokenClaims.getExpiration().toInstant());
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            Claims refreshClaims = jwtUtils.parseClaims(refreshToken);
+            if (refreshClaims != null && JwtUtils.isRefreshToken(refreshClaims) && refreshClaims.getId() != null) {
+                revocationList.revoke(refreshClaims.getId(), refreshClaims.getExpiration().toInstant());
+            }
+        }
+    }
+
+    private JwtResponseDto issueTokens(Authentication authentication) {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         List<String> roles = userDetails.getAuthorities().stream()
                 .map(item -> item.getAuthority())
                 .collect(Collectors.toList());
 
-        return new JwtResponseDto(jwt,
+        // Profile ids go into the token so later requests can check ownership without looking them up
+        Long doctorId = roles.contains(ERole.ROLE_DOCTOR.name())
+                ? doctorRepository.findIdByUserId(userDetails.getId()).orElse(null) : null;
+        Long patientId = roles.contains(ERole.ROLE_PATIENT.name())
+                ? patientRepository.findIdByUserId(userDetails.getId()).orElse(null) : null;
+        String jwt = jwtUtils.generateJwtToken(authentication, doctorId, patientId);
+
+        JwtResponseDto response = new JwtResponseDto(jwt,
                 userDetails.getId(),
                 userDetails.getUsername(),
                 userDetails.getEmail(),
                 roles);
+        response.setRefreshToken(jwtUtils.generateRefreshToken(userDetails));
+        response.setExpiresIn(jwtUtils.getAccessTokenExpirationMs());
+        return response;
     }
 
     // Helper to seed roles - call this on application startup
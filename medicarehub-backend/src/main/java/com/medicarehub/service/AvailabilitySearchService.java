@@ -0,0 +1,115 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.SlotSearchResultDto;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.exception.BadRequestException;
+import com.medicarehub.exception.ResourceNotFoundException;
+import com.medicarehub.repository.DepartmentRepository;
+import com.medicarehub.repository.DoctorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Answers "who in this department can see the patient soonest?" across all matching doctors.
+@Service
+public class AvailabilitySearchService {
+
+    public static final int MAX_HORIZON_DAYS = DoctorScheduleService.MAX_AVAILABILITY_RANGE_DAYS;
+    public static final int MAX_RESULTS = 50;
+
+    // Days loaded per batch; most searches are satisfied by the first chunk
+    private static final int CHUNK_DAYS = 7;
+
+    private static final Comparator<SlotSearchResultDto> EARLIEST_FIRST = Comparator
+            .comparing(SlotSearchResultDto::getDate)
+            .thenComparing(SlotSearchResultDto::getStartTime)
+            .thenComparing(SlotSearchResultDto::getDoctorLastName, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(SlotSearchResultDto::getDoctorId);
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private DoctorScheduleService doctorScheduleService;
+
+    @Autowired
+    private SlotHoldRegistry slotHoldRegistry;
+
+    public List<SlotSearchResultDto> findEarliestSlotsInDepartment(Long departmentId, String specialization,
+                                                                   int horizonDays, int limit) {
+        if (horizonDays < 1 || horizonDays > MAX_HORIZON_DAYS) {
+            throw new BadRequestException("Search horizon must be between 1 and " + MAX_HORIZON_DAYS + " days.");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new BadRequestException("Number of results must be between 1 and " + MAX_RESULTS + ".");
+        }
+        String specializationFilter = (specialization == null || specialization.isBlank()) ? null : specialization.trim();
+
+        List<Doctor> doctors = doctorRepository.findActiveByDepartmentWithUser(departmentId, specializationFilter);
+        if (doctors.isEmpty()) {
+            if (!departmentRepository.existsById(departmentId)) {
+                throw new ResourceNotFoundException("Department not found with ID: " + departmentId);
+            }
+            return new ArrayList<>();
+        }
+        List<Long> doctorIds = doctors.stream().map(Doctor::getId).collect(Collectors.toList());
+
+        LocalDate today = LocalDate.now();
+        LocalDate lastDay = today.plusDays(horizonDays - 1L);
+        List<SlotSearchResultDto> results = new ArrayList<>();
+
+        for (LocalDate chunkStart = today; !chunkStart.isAfter(lastDay); chunkStart = chunkStart.plusDays(CHUNK_DAYS)) {
+            LocalDate chunkEnd = chunkStart.plusDays(CHUNK_DAYS - 1L).isAfter(lastDay) ? lastDay : chunkStart.plusDays(CHUNK_DAYS - 1L);
+            // Index hits for warm doctors, one batched schedule + appointment query for the cold ones
+            Map<Long, DoctorAvailabilityIndex.DaySlots[]> window = doctorScheduleService.loadAvailabilityWindow(doctorIds, chunkStart, chunkEnd);
+
+            for (int dayOffset = 0; !chunkStart.plusDays(dayOffset).isAfter(chunkEnd); dayOffset++) {
+                LocalDate date = chunkStart.plusDays(dayOffset);
+                int fromMinute = DoctorAvailabilityIndex.firstBookableMinute(date);
+                final int offset = dayOffset;
+
+                // Each doctor contributes at most 'limit' slots for the day, scanned in parallel.
+                // Held slots are filtered inside the scan, so they do not use up that per-doctor limit.
+                List<SlotSearchResultDto> dayResults = doctors.parallelStream()
+                        .flatMap(doctor -> {
+                            List<SlotSearchResultDto> doctorSlots = new ArrayList<>();
+                            window.get(doctor.getId())[offset].forEachAvailable(fromMinute, limit,
+                                    slotHoldRegistry.notHeld(doctor.getId(), date),
+                                    (start, end) -> doctorSlots.add(toResult(doctor, date, start, end)));
+                            return doctorSlots.stream();
+                        })
+                        .collect(Collectors.toList());
+                results.addAll(dayResults);
+
+                // Days are visited in order, so once we have enough nothing later can be earlier
+                if (results.size() >= limit) {
+                    results.sort(EARLIEST_FIRST);
+                    return new ArrayList<>(results.subList(0, limit));
+                }
+            }
+        }
+        results.sort(EARLIEST_FIRST);
+        return results;
+    }
+
+    private static SlotSearchResultDto toResult(Doctor doctor, LocalDate date, int startMinute, int endMinute) {
+        return new SlotSearchResultDto(
+                doctor.getId(),
+                doctor.getUser().getFirstName(),
+                doctor.getUser().getLastName(),
+                doctor.getSpecialization(),
+                date,
+                DoctorAvailabilityIndex.timeLabel(startMinute),
+                DoctorAvailabilityIndex.timeLabel(endMinute)
+        );
+    }
+}
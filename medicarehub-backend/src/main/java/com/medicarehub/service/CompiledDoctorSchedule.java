@@ -0,0 +1,113 @@
+package com.medicarehub.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable, precompiled view of all schedule entries of one doctor: a weekly template plus a sorted
+ * map of specific-date overrides. Built once from the DoctorSchedule rows and cached by
+ * {@link DoctorScheduleCache}, so availability and booking never re-query schedules on the hot path.
+ */
+public final class CompiledDoctorSchedule {
+
+    private final Long doctorId;
+    private final Map<DayOfWeek, List<ScheduleWindow>> weeklyTemplate;        // available entries only, sorted
+    private final NavigableMap<LocalDate, List<ScheduleWindow>> overrides;   // all entries (incl. unavailable), sorted
+    private final Set<Long> scheduleIds;
+    private final List<ScheduleWindow> allWindows;
+    private final ScheduleIntervalIndex intervals;
+
+    private CompiledDoctorSchedule(Long doctorId, Map<DayOfWeek, List<ScheduleWindow>> weeklyTemplate,
+                                   NavigableMap<LocalDate, List<ScheduleWindow>> overrides, List<ScheduleWindow> allWindows) {
+        this.doctorId = doctorId;
+        this.weeklyTemplate = weeklyTemplate;
+        this.overrides = overrides;
+        this.allWindows = allWindows;
+        Set<Long> ids = new HashSet<>();
+        allWindows.forEach(window -> ids.add(window.getScheduleId()));
+        this.scheduleIds = Collections.unmodifiableSet(ids);
+        this.intervals = ScheduleIntervalIndex.of(allWindows);
+    }
+
+    public static CompiledDoctorSchedule compile(Long doctorId, List<ScheduleWindow> windows) {
+        Comparator<ScheduleWindow> byStart = Comparator.comparingInt(ScheduleWindow::getStartMinute);
+        Map<DayOfWeek, List<ScheduleWindow>> weekly = new EnumMap<>(DayOfWeek.class);
+        NavigableMap<LocalDate, List<ScheduleWindow>> overrides = new TreeMap<>();
+        for (ScheduleWindow window : windows) {
+            if (window.getSpecificDate() != null) {
+                overrides.computeIfAbsent(window.getSpecificDate(), d -> new ArrayList<>()).add(window);
+            } else if (window.getDayOfWeek() != null && window.isAvailable()) {
+                weekly.computeIfAbsent(window.getDayOfWeek(), d -> new ArrayList<>()).add(window);
+            }
+        }
+        weekly.replaceAll((day, list) -> {
+            list.sort(byStart);
+            return Collections.unmodifiableList(list);
+        });
+        overrides.replaceAll((date, list) -> {
+            list.sort(byStart);
+            return Collections.unmodifiableList(list);
+        });
+        return new CompiledDoctorSchedule(doctorId,
+                Collections.unmodifiableMap(weekly),
+                Collections.unmodifiableNavigableMap(overrides),
+                Collections.unmodifiableList(new ArrayList<>(windows)));
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    /**
+     * Available windows in effect on a date, sorted by start time. If the date has any specific-date
+     * entries they define the whole day (unavailable ones just contribute nothing); otherwise the
+     * weekly template for that day of week applies.
+     */
+    public List<ScheduleWindow> windowsFor(LocalDate date) {
+        List<ScheduleWindow> dateOverrides = overrides.get(date);
+        if (dateOverrides == null) {
+            return weeklyTemplate.getOrDefault(date.getDayOfWeek(), Collections.emptyList());
+        }
+        List<ScheduleWindow> available = new ArrayList<>(dateOverrides.size());
+        for (ScheduleWindow window : dateOverrides) {
+            if (window.isAvailable()) {
+                available.add(window);
+            }
+        }
+        return available;
+    }
+
+    // Slot length of the slot starting at the given minute on that date, or null if no slot starts there
+    public Integer slotDurationAt(LocalDate date, int startMinute) {
+        for (ScheduleWindow window : windowsFor(date)) {
+            int offset = startMinute - window.getStartMinute();
+            if (offset >= 0 && startMinute + window.getSlotDurationMinutes() <= window.getEndMinute()
+                    && offset % window.getSlotDurationMinutes() == 0) {
+                return window.getSlotDurationMinutes();
+            }
+        }
+        return null;
+    }
+
+    public boolean containsSchedule(Long scheduleId) {
+        return scheduleIds.contains(scheduleId);
+    }
+
+    public List<ScheduleWindow> getAllWindows() {
+        return allWindows;
+    }
+
+    public ScheduleIntervalIndex getIntervals() {
+        return intervals;
+    }
+}
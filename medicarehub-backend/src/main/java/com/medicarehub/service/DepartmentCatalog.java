@@ -0,0 +1,77 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.DepartmentDto;
+import com.medicarehub.exception.ResourceNotFoundException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of all departments as served by {@link DepartmentService}, with strong ETags for the list
+ * and for every department. ETags are hashes of the content, so every node computes the same tag for the same
+ * data and a client's If-None-Match keeps working across nodes and cache reloads.
+ * {@link DepartmentDto} is mutable (it doubles as the request body), so callers get copies: a caller changing
+ * what it was given can neither alter the cached snapshot nor make it disagree with its ETags.
+ */
+public final class DepartmentCatalog {
+
+    private final List<DepartmentDto> departments;
+    private final Map<Long, DepartmentDto> byId = new HashMap<>();
+    private final Map<Long, String> etags = new HashMap<>();
+    private final String listEtag;
+
+    DepartmentCatalog(List<DepartmentDto> departments) {
+        this.departments = departments.stream().map(DepartmentCatalog::copyOf).toList();
+        StringBuilder all = new StringBuilder();
+        for (DepartmentDto department : this.departments) {
+            String content = contentOf(department);
+            byId.put(department.getId(), department);
+            etags.put(department.getId(), hash(content));
+            all.append(content);
+        }
+        this.listEtag = hash(all.toString());
+    }
+
+    public List<DepartmentDto> getDepartments() {
+        return departments.stream().map(DepartmentCatalog::copyOf).toList();
+    }
+
+    public String getListEtag() {
+        return listEtag;
+    }
+
+    public DepartmentDto require(Long departmentId) {
+        DepartmentDto department = byId.get(departmentId);
+        if (department == null) {
+            throw new ResourceNotFoundException("Department not found with ID: " + departmentId);
+        }
+        return copyOf(department);
+    }
+
+    public String etagOf(Long departmentId) {
+        return etags.get(departmentId);
+    }
+
+    private static DepartmentDto copyOf(DepartmentDto department) {
+        return new DepartmentDto(department.getId(), department.getName(), department.getDescription());
+    }
+
+    // Unambiguous serialization of the fields in the response (NUL/SOH never occur in them)
+    private static String contentOf(DepartmentDto department) {
+        return department.getId() + "\u0000" + department.getName() + "\u0000" + department.getDescription() + "\u0001";
+    }
+
+    private static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22); // 128 bits
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.medicarehub.exception.ResourceAlreadyExistsException; // New Exceptio
 import com.medicarehub.exception.ResourceNotFoundException;
 import com.medicarehub.repository.DepartmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,18 @@ public class DepartmentService {
     @Autowired
     private DepartmentRepository departmentRepository;
 
+    @Autowired
+    private DoctorDirectoryIndex doctorDirectoryIndex;
+
+    // Read-through cache of all departments: a few rows that almost never change but are loaded by every screen.
+    // Create/update/delete evict it after commit; the TTL only bounds staleness for changes made on other nodes.
+    @Value("${department.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    private static final String CATALOG = "all"; // The only key: the whole list is loaded and evicted at once
+
+    private final ExpiringCache<String, DepartmentCatalog> cache = new ExpiringCache<>(() -> cacheTtlSeconds);
+
     // --- Mapper Methods ---
     private DepartmentDto mapToDto(Department department) {
         if (department == null) {
@@ -42,6 +56,24 @@ public class DepartmentService {
         return department;
     }
 
+    // --- Cache ---
+
+    public DepartmentCatalog getCatalog() {
+        DepartmentCatalog cached = cache.get(CATALOG);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = cache.stamp(CATALOG);
+        List<DepartmentDto> departments = departmentRepository.findAll(Sort.by("id")).stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+        return cache.put(CATALOG, new DepartmentCatalog(departments), stamp);
+    }
+
+    private void evictCatalog() {
+        cache.evict(CATALOG);
+    }
+
     // --- CRUD Methods ---
 
     @Transactional
@@ -53,20 +85,16 @@ public class DepartmentService {
 
         Department department = mapToEntity(departmentDto);
         Department savedDepartment = departmentRepository.save(department);
+        TransactionCallbacks.afterCommit(this::evictCatalog);
         return mapToDto(savedDepartment);
     }
 
     public DepartmentDto getDepartmentById(Long departmentId) {
-        Department department = departmentRepository.findById(departmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Department not found with ID: " + departmentId));
-        return mapToDto(department);
+        return getCatalog().require(departmentId);
     }
 
     public List<DepartmentDto> getAllDepartments() {
-        List<Department> departments = departmentRepository.findAll();
-        return departments.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return getCatalog().getDepartments();
     }
 
     @Transactional
@@ -91,6 +119,9 @@ public class DepartmentService {
         // Add any other updatable fields
 
         Department updatedDepartment = departmentRepository.save(existingDepartment);
+        // Doctor directory entries carry the department name; rebuilt on the next search
+        TransactionCallbacks.afterCommit(doctorDirectoryIndex::invalidate);
+        TransactionCallbacks.afterCommit(this::evictCatalog);
         return mapToDto(updatedDepartment);
     }
 
@@ -107,5 +138,6 @@ public class DepartmentService {
         // deleting department might cascade to doctors if not handled carefully.
         // Here, assuming uni-directional from Doctor to Department, or bi-directional without problematic cascades.
         departmentRepository.deleteById(departmentId);
+        TransactionCallbacks.afterCommit(this::evictCatalog);
     }
 }
\ No newline at end of file
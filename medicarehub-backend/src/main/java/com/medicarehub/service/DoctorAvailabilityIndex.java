@@ -0,0 +1,406 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.Appointment;
+import com.medicarehub.entity.AppointmentStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory availability index: one compact minute-granularity bitmap per doctor and day.
+ * <p>
+ * Each indexed day keeps the candidate slots generated from the doctor's schedule (as parallel
+ * start/end minute arrays) plus a 1440-bit bitmap of booked minutes. Checking a slot is a handful of
+ * word-masked bit tests, with no DB round trip and no object allocation.
+ * <p>
+ * Days are loaded lazily by {@link DoctorScheduleService} from the DB (cold path) and then kept up to
+ * date incrementally on booking and cancellation. Entries expire after a short TTL so that changes made
+ * by other nodes are picked up; the DB overlap checks in the booking path stay authoritative.
+ * <p>
+ * Memory is bounded: only days from today up to {@code max-days-ahead} are kept (days further out are built
+ * for the caller but not stored), and a periodic sweep drops expired and past days.
+ */
+@Component
+public class DoctorAvailabilityIndex {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS_PER_DAY = (MINUTES_PER_DAY + 63) >>> 6;
+
+    // Receives available slots as plain minute-of-day values, so scans stay allocation-free
+    @FunctionalInterface
+    public interface SlotConsumer {
+        void accept(int startMinute, int endMinute);
+    }
+
+    // "HH:mm" label for every minute of the day, so building slot DTOs does not format times over and over
+    private static final String[] TIME_LABELS = new String[MINUTES_PER_DAY + 1];
+
+    static {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
+        for (int minute = 0; minute <= MINUTES_PER_DAY; minute++) {
+            TIME_LABELS[minute] = toTime(minute).format(formatter);
+        }
+    }
+
+    private final ConcurrentMap<Long, DoctorDays> doctors = new ConcurrentHashMap<>();
+
+    @Value("${availability.index.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${availability.index.ttl-seconds:30}")
+    private long ttlSeconds = 30;
+
+    @Value("${availability.index.max-days-ahead:90}")
+    private int maxDaysAhead = 90;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Version stamp used to detect bookings/cancellations that raced with a cold load (see load()).
+    public long stamp(Long doctorId) {
+        return doctors.computeIfAbsent(doctorId, id -> new DoctorDays()).version.get();
+    }
+
+    // The indexed day itself, or null when cold
+    public DaySlots getDay(Long doctorId, LocalDate date) {
+        return findDay(doctorId, date);
+    }
+
+    public boolean isWarm(Long doctorId, LocalDate from, LocalDate to) {
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (findDay(doctorId, date) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Streams the free slots of an indexed day (in schedule order) to the consumer.
+     * Slots starting before {@code fromMinute} are skipped.
+     *
+     * @return false if the day is not indexed (cold), in which case nothing is emitted
+     */
+    public boolean forEachAvailableSlot(Long doctorId, LocalDate date, int fromMinute, SlotConsumer consumer) {
+        DaySlots day = findDay(doctorId, date);
+        if (day == null) {
+            return false;
+        }
+        day.forEachAvailable(fromMinute, consumer);
+        return true;
+    }
+
+    /**
+     * @return TRUE/FALSE if the day is indexed, null if it is cold and the caller must ask the DB
+     */
+    public Boolean isSlotAvailable(Long doctorId, LocalDate date, int startMinute) {
+        DaySlots day = findDay(doctorId, date);
+        if (day == null) {
+            return null;
+        }
+        return day.isSlotAvailable(startMinute);
+    }
+
+    /**
+     * Indexes a day built from the DB. {@code effectiveWindows} must already be the available entries
+     * in effect for the date (specific-date overrides applied), sorted by start time.
+     * The load is discarded if a booking/cancellation/schedule change hit this doctor after {@code stamp}
+     * was taken, because the DB snapshot may not include it.
+     */
+    public DaySlots load(Long doctorId, LocalDate date, long stamp,
+                         List<ScheduleWindow> effectiveWindows, List<Appointment> appointments) {
+        DaySlots day = DaySlots.build(effectiveWindows, appointments, expiryFromNow());
+        LocalDate today = LocalDate.now();
+        if (!enabled || date.isBefore(today) || date.isAfter(today.plusDays(maxDaysAhead))) {
+            return day;
+        }
+        DoctorDays doctorDays = doctors.computeIfAbsent(doctorId, id -> new DoctorDays());
+        synchronized (doctorDays) {
+            if (doctorDays.version.get() == stamp) {
+                doctorDays.prune(today, System.currentTimeMillis());
+                doctorDays.days.put(date, day);
+            }
+        }
+        return day;
+    }
+
+    // Called after a booking commits. Cold days only get their stamp bumped.
+    public void markBooked(Long doctorId, LocalDate date, LocalTime start, int durationMinutes) {
+        DoctorDays doctorDays = doctors.computeIfAbsent(doctorId, id -> new DoctorDays());
+        doctorDays.version.incrementAndGet();
+        DaySlots day = doctorDays.days.get(date);
+        if (day != null) {
+            day.setBooked(toMinute(start), endMinute(start, durationMinutes), true);
+        }
+    }
+
+    // Called after a cancellation commits.
+    public void markReleased(Long doctorId, LocalDate date, LocalTime start, int durationMinutes) {
+        DoctorDays doctorDays = doctors.computeIfAbsent(doctorId, id -> new DoctorDays());
+        doctorDays.version.incrementAndGet();
+        DaySlots day = doctorDays.days.get(date);
+        if (day != null) {
+            day.setBooked(toMinute(start), endMinute(start, durationMinutes), false);
+        }
+    }
+
+    /**
+     * In-JVM fast-fail for concurrent bookings of the same slot: atomically checks that [startMinute, endMinute)
+     * is free in the indexed day and marks it taken for the rest of the current transaction. Returns TRUE if
+     * reserved, FALSE if the minutes are already taken (or reserved by an in-flight booking), and null if the
+     * day is not indexed. The reservation is undone if the transaction rolls back; on commit markBooked takes over.
+     * This only spares losing requests the DB round trips; the database check under the doctor row lock decides.
+     */
+    public Boolean tryReserve(Long doctorId, LocalDate date, int startMinute, int endMinute) {
+        DaySlots day = findDay(doctorId, date);
+        if (day == null) {
+            return null;
+        }
+        if (!day.tryReserve(startMinute, endMinute)) {
+            return false;
+        }
+        TransactionCallbacks.afterRollback(() -> day.setBooked(startMinute, endMinute, false));
+        return true;
+    }
+
+    public void markBookedAfterCommit(Appointment appointment) {
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDate date = appointment.getAppointmentDate();
+        LocalTime start = appointment.getAppointmentTime();
+        int duration = appointment.getDurationMinutes();
+        TransactionCallbacks.afterCommit(() -> markBooked(doctorId, date, start, duration));
+    }
+
+    public void markReleasedAfterCommit(Appointment appointment) {
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDate date = appointment.getAppointmentDate();
+        LocalTime start = appointment.getAppointmentTime();
+        int duration = appointment.getDurationMinutes();
+        TransactionCallbacks.afterCommit(() -> markReleased(doctorId, date, start, duration));
+    }
+
+    // Schedule changes alter the slot grid itself, so the doctor's days are simply dropped and rebuilt lazily.
+    public void evictDoctor(Long doctorId) {
+        DoctorDays doctorDays = doctors.computeIfAbsent(doctorId, id -> new DoctorDays());
+        synchronized (doctorDays) {
+            doctorDays.version.incrementAndGet();
+            doctorDays.days.clear();
+        }
+    }
+
+    // Drops expired and past days of every doctor, so days that are never looked at again do not pile up
+    @Scheduled(fixedDelayString = "${availability.index.sweep-ms:60000}",
+            initialDelayString = "${availability.index.sweep-ms:60000}")
+    public void evictStale() {
+        LocalDate today = LocalDate.now();
+        long now = System.currentTimeMillis();
+        for (DoctorDays doctorDays : doctors.values()) {
+            synchronized (doctorDays) {
+                doctorDays.prune(today, now);
+            }
+        }
+    }
+
+    // Number of indexed days over all doctors
+    public int size() {
+        int size = 0;
+        for (DoctorDays doctorDays : doctors.values()) {
+            size += doctorDays.days.size();
+        }
+        return size;
+    }
+
+    public static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public static int endMinute(LocalTime start, int durationMinutes) {
+        return Math.min(toMinute(start) + durationMinutes, MINUTES_PER_DAY);
+    }
+
+    public static LocalTime toTime(int minute) {
+        return minute >= MINUTES_PER_DAY ? LocalTime.MAX : LocalTime.of(minute / 60, minute % 60);
+    }
+
+    public static String timeLabel(int minute) {
+        return TIME_LABELS[minute];
+    }
+
+    // First minute whose slots are offered on the given date (mirrors "slotStart.isAfter(now)" for today).
+    public static int firstBookableMinute(LocalDate date) {
+        if (!date.isEqual(LocalDate.now())) {
+            return 0;
+        }
+        return LocalTime.now().toSecondOfDay() / 60 + 1;
+    }
+
+    private DaySlots findDay(Long doctorId, LocalDate date) {
+        if (!enabled) {
+            return null;
+        }
+        DoctorDays doctorDays = doctors.get(doctorId);
+        if (doctorDays == null) {
+            return null;
+        }
+        DaySlots day = doctorDays.days.get(date);
+        if (day == null) {
+            return null;
+        }
+        if (day.expiresAtMillis < System.currentTimeMillis()) {
+            doctorDays.days.remove(date, day);
+            return null;
+        }
+        return day;
+    }
+
+    private long expiryFromNow() {
+        return System.currentTimeMillis() + ttlSeconds * 1000L;
+    }
+
+    private static final class DoctorDays {
+        private final AtomicLong version = new AtomicLong();
+        private final ConcurrentMap<LocalDate, DaySlots> days = new ConcurrentHashMap<>();
+
+        // Only the days map is pruned; the entry itself stays so its version keeps guarding against stale loads
+        private void prune(LocalDate today, long nowMillis) {
+            days.entrySet().removeIf(e -> e.getKey().isBefore(today) || e.getValue().expiresAtMillis < nowMillis);
+        }
+    }
+
+    /**
+     * Slot grid and booked-minute bitmap for a single doctor/day.
+     * Slot boundaries never change after construction; only the booked bitmap is mutated.
+     */
+    public static final class DaySlots {
+        private final short[] slotStarts;
+        private final short[] slotEnds;
+        private final long[] booked = new long[WORDS_PER_DAY];
+        private final long expiresAtMillis;
+
+        private DaySlots(short[] slotStarts, short[] slotEnds, long expiresAtMillis) {
+            this.slotStarts = slotStarts;
+            this.slotEnds = slotEnds;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        static DaySlots build(List<ScheduleWindow> effectiveWindows, List<Appointment> appointments, long expiresAtMillis) {
+            int count = 0;
+            for (ScheduleWindow window : effectiveWindows) {
+                int length = window.getEndMinute() - window.getStartMinute();
+                if (length > 0 && window.getSlotDurationMinutes() > 0) {
+                    count += length / window.getSlotDurationMinutes();
+                }
+            }
+            short[] starts = new short[count];
+            short[] ends = new short[count];
+            int i = 0;
+            for (ScheduleWindow window : effectiveWindows) {
+                int duration = window.getSlotDurationMinutes();
+                if (duration <= 0) {
+                    continue;
+                }
+                int windowEnd = window.getEndMinute();
+                for (int start = window.getStartMinute(); start + duration <= windowEnd; start += duration) {
+                    starts[i] = (short) start;
+                    ends[i] = (short) (start + duration);
+                    i++;
+                }
+            }
+            DaySlots day = new DaySlots(starts, ends, expiresAtMillis);
+            for (Appointment appointment : appointments) {
+                if (appointment.getStatus() == AppointmentStatus.CANCELLED_BY_PATIENT ||
+                        appointment.getStatus() == AppointmentStatus.CANCELLED_BY_STAFF) {
+                    continue;
+                }
+                day.setBooked(toMinute(appointment.getAppointmentTime()),
+                        endMinute(appointment.getAppointmentTime(), appointment.getDurationMinutes()), true);
+            }
+            return day;
+        }
+
+        public void forEachAvailable(int fromMinute, SlotConsumer consumer) {
+            forEachAvailable(fromMinute, Integer.MAX_VALUE, consumer);
+        }
+
+        // Stops after 'limit' free slots; returns how many were emitted
+        public int forEachAvailable(int fromMinute, int limit, SlotConsumer consumer) {
+            return forEachAvailable(fromMinute, limit, start -> true, consumer);
+        }
+
+        // Free slots whose start minute passes 'include' (e.g. not held); only those count towards 'limit'
+        public synchronized int forEachAvailable(int fromMinute, int limit, IntPredicate include, SlotConsumer consumer) {
+            int emitted = 0;
+            for (int i = 0; i < slotStarts.length && emitted < limit; i++) {
+                int start = slotStarts[i];
+                int end = slotEnds[i];
+                if (start >= fromMinute && !anyBooked(start, end) && include.test(start)) {
+                    consumer.accept(start, end);
+                    emitted++;
+                }
+            }
+            return emitted;
+        }
+
+        public synchronized boolean isSlotAvailable(int startMinute) {
+            for (int i = 0; i < slotStarts.length; i++) {
+                if (slotStarts[i] == startMinute && !anyBooked(startMinute, slotEnds[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Atomic check-and-set: marks [fromMinute, toMinute) booked only if none of it is booked yet
+        synchronized boolean tryReserve(int fromMinute, int toMinute) {
+            if (anyBooked(fromMinute, toMinute)) {
+                return false;
+            }
+            setBooked(fromMinute, toMinute, true);
+            return true;
+        }
+
+        synchronized void setBooked(int fromMinute, int toMinute, boolean value) {
+            for (int minute = fromMinute; minute < toMinute; ) {
+                int word = minute >>> 6;
+                int bitFrom = minute & 63;
+                int bitTo = Math.min(64, bitFrom + (toMinute - minute));
+                long mask = rangeMask(bitFrom, bitTo);
+                if (value) {
+                    booked[word] |= mask;
+                } else {
+                    booked[word] &= ~mask;
+                }
+                minute += bitTo - bitFrom;
+            }
+        }
+
+        // True if any minute in [fromMinute, toMinute) is booked
+        private boolean anyBooked(int fromMinute, int toMinute) {
+            for (int minute = fromMinute; minute < toMinute; ) {
+                int word = minute >>> 6;
+                int bitFrom = minute & 63;
+                int bitTo = Math.min(64, bitFrom + (toMinute - minute));
+                if ((booked[word] & rangeMask(bitFrom, bitTo)) != 0) {
+                    return true;
+                }
+                minute += bitTo - bitFrom;
+            }
+            return false;
+        }
+
+        private static long rangeMask(int bitFrom, int bitTo) {
+            long upper = bitTo == 64 ? -1L : (1L << bitTo) - 1;
+            return upper & (-1L << bitFrom);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.DoctorResponseDto;
+import com.medicarehub.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory search index for the public doctor directory ({@code GET /api/doctors?searchTerm=...}).
+ * <p>
+ * Every active doctor is kept as its response DTO plus the normalized tokens of five fields (last name, first name,
+ * specialization, department, qualifications). Two inverted indexes point from text to doctors: a sorted term
+ * dictionary for prefix lookups of short query words, and a trigram index that narrows longer words (including
+ * infix matches such as "cardio" in "neurocardiology") to a few candidates, which are then verified.
+ * Every query word has to match some field; results are ranked by field weight and match quality
+ * (whole word > word prefix > infix), ties by last name, first name, id.
+ * <p>
+ * {@link DoctorService} fills the index lazily from the DB, keeps it current on create/update/delete (after commit)
+ * and refreshes it periodically so changes made by other nodes are picked up. While it is cold, searches go to the DB.
+ */
+@Component
+public class DoctorDirectoryIndex {
+
+    // Field order in Entry.fields; weights by position
+    private static final double[] FIELD_WEIGHTS = {3.0, 2.5, 2.0, 1.5, 1.0};
+    private static final double WHOLE_WORD = 3.0;
+    private static final double WORD_PREFIX = 2.0;
+    private static final double INFIX = 1.0;
+    private static final int GRAM = 3;
+
+    private static final Comparator<Entry> DIRECTORY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.sortKey)
+            .thenComparing(entry -> entry.id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> terms = new TreeMap<>();
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+    private volatile boolean loaded;
+
+    // Bumped by every incremental change, so a full load that raced with one is discarded (see loadIfCold)
+    private final AtomicLong version = new AtomicLong();
+    private final Object loadLock = new Object();
+
+    @Value("${doctor-directory.index.enabled:true}")
+    private boolean enabled = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Builds the index from {@code loader} unless it is already loaded. Returns whether the index is usable;
+     * false if a create/update/delete committed while loading (the snapshot may miss it; the next call retries).
+     */
+    public boolean loadIfCold(Supplier<Collection<DoctorResponseDto>> loader) {
+        if (loaded) {
+            return true;
+        }
+        if (!enabled) {
+            return false;
+        }
+        synchronized (loadLock) {
+            if (loaded) {
+                return true;
+            }
+            long stamp = version.get();
+            Collection<DoctorResponseDto> doctors = loader.get();
+            lock.writeLock().lock();
+            try {
+                if (version.get() != stamp) {
+                    return false;
+                }
+                clearIndex();
+                for (DoctorResponseDto doctor : doctors) {
+                    add(new Entry(doctor));
+                }
+                loaded = true;
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Periodic full reload, for doctors changed through other nodes
+    @Scheduled(fixedDelayString = "${doctor-directory.index.refresh-ms:300000}",
+            initialDelayString = "${doctor-directory.index.refresh-ms:300000}")
+    public void expire() {
+        if (loaded) {
+            invalidate();
+        }
+    }
+
+    // Drops everything; the next search reloads from the DB (periodic refresh, department renames)
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            loaded = false;
+            clearIndex();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Adds or replaces a doctor (create/update); an inactive one is only removed, the directory lists active doctors.
+    // Ignored while cold: the next load reads the committed row anyway.
+    public void put(DoctorResponseDto doctor) {
+        lock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            if (!loaded) {
+                return;
+            }
+            Entry previous = entries.get(doctor.getId());
+            if (previous != null) {
+                remove(previous);
+            }
+            if (doctor.isActive()) {
+                add(new Entry(doctor));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long doctorId) {
+        lock.writeLock().lock();
+        try {
+            version.incrementAndGet();
+            Entry previous = entries.get(doctorId);
+            if (previous != null) {
+                remove(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Relevance-ranked page of doctors matching every word of {@code searchTerm}. The pageable's sort is ignored
+     * (relevance decides the order). Returns null if the index was dropped in the meantime (caller asks the DB).
+     */
+    public Page<DoctorResponseDto> search(String searchTerm, Pageable pageable) {
+        String[] words = tokenize(searchTerm);
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (!loaded) {
+                return null;
+            }
+            if (words.length > 0) {
+                Set<Long> candidates = null;
+                for (String word : words) {
+                    Set<Long> wordCandidates = candidatesFor(word);
+                    candidates = candidates == null ? wordCandidates : intersect(candidates, wordCandidates);
+                    if (candidates.isEmpty()) {
+                        break;
+                    }
+                }
+                for (Long id : candidates) {
+                    Entry entry = entries.get(id);
+                    double score = entry.score(words);
+                    if (score > 0) {
+                        hits.add(new Hit(entry, score));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hits.sort(Comparator.comparingDouble((Hit hit) -> -hit.score)
+                .thenComparing(hit -> hit.entry, DIRECTORY_ORDER));
+        List<DoctorResponseDto> content = new ArrayList<>();
+        if (pageable.isPaged()) {
+            long offset = pageable.getOffset();
+            for (long i = offset; i < hits.size() && i < offset + pageable.getPageSize(); i++) {
+                content.add(hits.get((int) i).entry.doctor);
+            }
+        } else {
+            hits.forEach(hit -> content.add(hit.entry.doctor));
+        }
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Index maintenance (write lock held) ---
+
+    private void add(Entry entry) {
+        entries.put(entry.id, entry);
+        for (String token : entry.distinctTokens()) {
+            terms.computeIfAbsent(token, t -> new HashSet<>()).add(entry.id);
+            for (String gram : gramsOf(token)) {
+                grams.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.id);
+            }
+        }
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.id);
+        for (String token : entry.distinctTokens()) {
+            removePosting(terms, token, entry.id);
+            for (String gram : gramsOf(token)) {
+                removePosting(grams, gram, entry.id);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> index, String key, Long id) {
+        Set<Long> postings = index.get(key);
+        if (postings != null) {
+            postings.remove(id);
+            if (postings.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void clearIndex() {
+        entries.clear();
+        terms.clear();
+        grams.clear();
+    }
+
+    // --- Lookup (read lock held) ---
+
+    // Short words: every term starting with the word. Longer words: doctors having all of its trigrams
+    // (a superset of the infix matches; Entry.score verifies).
+    private Set<Long> candidatesFor(String word) {
+        Set<Long> result = new HashSet<>();
+        if (word.length() < GRAM) {
+            for (Set<Long> postings : terms.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+                result.addAll(postings);
+            }
+            return result;
+        }
+        Set<Long> smallest = null;
+        List<Set<Long>> postingLists = new ArrayList<>();
+        for (String gram : gramsOf(word)) {
+            Set<Long> postings = grams.get(gram);
+            if (postings == null) {
+                return result;
+            }
+            postingLists.add(postings);
+            if (smallest == null || postings.size() < smallest.size()) {
+                smallest = postings;
+            }
+        }
+        outer:
+        for (Long id : smallest) {
+            for (Set<Long> postings : postingLists) {
+                if (!postings.contains(id)) {
+                    continue outer;
+                }
+            }
+            result.add(id);
+        }
+        return result;
+    }
+
+    private static Set<Long> intersect(Set<Long> a, Set<Long> b) {
+        Set<Long> smaller = a.size() <= b.size() ? a : b;
+        Set<Long> larger = smaller == a ? b : a;
+        Set<Long> result = new HashSet<>();
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    // Same normalization as the name search columns, split into letter/digit runs
+    static String[] tokenize(String text) {
+        String normalized = User.normalizeName(text);
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(normalized.split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static List<String> gramsOf(String token) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            result.add(token.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    private record Hit(Entry entry, double score) {
+    }
+
+    private static final class Entry {
+        private final Long id;
+        private final DoctorResponseDto doctor;
+        private final String[][] fields;
+        private final String sortKey;
+
+        private Entry(DoctorResponseDto doctor) {
+            this.id = doctor.getId();
+            this.doctor = doctor;
+            this.fields = new String[][]{
+                    tokenize(doctor.getLastName()),
+                    tokenize(doctor.getFirstName()),
+                    tokenize(doctor.getSpecialization()),
+                    tokenize(doctor.getDepartmentName()),
+                    tokenize(doctor.getQualifications())
+            };
+            this.sortKey = User.normalizeName(doctor.getLastName()) + '\u0000' + User.normalizeName(doctor.getFirstName());
+        }
+
+        private Set<String> distinctTokens() {
+            Set<String> tokens = new HashSet<>();
+            for (String[] field : fields) {
+                tokens.addAll(List.of(field));
+            }
+            return tokens;
+        }
+
+        // Sum over query words of the best (field weight x match quality); 0 if any word matches nowhere
+        private double score(String[] words) {
+            double total = 0;
+            for (String word : words) {
+                double best = 0;
+                for (int f = 0; f < fields.length; f++) {
+                    for (String token : fields[f]) {
+                        double quality = token.equals(word) ? WHOLE_WORD
+                                : token.startsWith(word) ? WORD_PREFIX
+                                : word.length() >= GRAM && token.contains(word) ? INFIX
+                                : 0;
+                        best = Math.max(best, FIELD_WEIGHTS[f] * quality);
+                    }
+                }
+                if (best == 0) {
+                    return 0;
+                }
+                total += best;
+            }
+            return total;
+        }
+    }
+}
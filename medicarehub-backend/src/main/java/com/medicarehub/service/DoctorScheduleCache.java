@@ -0,0 +1,104 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.DoctorSchedule;
+import com.medicarehub.exception.ResourceNotFoundException;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.DoctorScheduleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory cache of {@link CompiledDoctorSchedule}s, one per doctor.
+ * <p>
+ * Schedule rows change rarely, so they are read and compiled once and then served from memory.
+ * addSchedule/updateSchedule/deleteSchedule evict the doctor's entry after commit; the TTL only
+ * bounds staleness for changes made on other nodes. Only doctors that exist are cached (including
+ * doctors without any schedule rows), so a hit also answers "does this doctor exist?".
+ */
+@Component
+public class DoctorScheduleCache {
+
+    @Autowired
+    private DoctorScheduleRepository doctorScheduleRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Value("${schedule.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Evicted per doctor: a schedule change of one doctor does not discard loads of the others
+    private final ExpiringCache<Long, CompiledDoctorSchedule> cache = new ExpiringCache<>(() -> ttlSeconds);
+
+    public CompiledDoctorSchedule get(Long doctorId) {
+        CompiledDoctorSchedule cached = cache.get(doctorId);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = cache.stamp(doctorId);
+        List<DoctorSchedule> schedules = doctorScheduleRepository.findByDoctorId(doctorId);
+        if (schedules.isEmpty() && !doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor not found with ID: " + doctorId);
+        }
+        return cache.put(doctorId, compile(doctorId, schedules), stamp);
+    }
+
+    /**
+     * Batch variant: all missing doctors are loaded with a single query (plus one existence query for those
+     * without schedule rows). Unknown doctor IDs simply get an empty schedule, which is not cached.
+     */
+    public Map<Long, CompiledDoctorSchedule> getAll(Collection<Long> doctorIds) {
+        Map<Long, CompiledDoctorSchedule> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long doctorId : doctorIds) {
+            CompiledDoctorSchedule cached = cache.get(doctorId);
+            if (cached != null) {
+                result.put(doctorId, cached);
+            } else {
+                missing.add(doctorId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, Long> stamps = new HashMap<>();
+        missing.forEach(doctorId -> stamps.put(doctorId, cache.stamp(doctorId)));
+        Map<Long, List<DoctorSchedule>> schedulesByDoctor = doctorScheduleRepository.findByDoctorIdIn(missing)
+                .stream()
+                .collect(Collectors.groupingBy(schedule -> schedule.getDoctor().getId()));
+        // Doctors without rows: cache the empty schedule only for those that exist
+        List<Long> withoutRows = missing.stream().filter(doctorId -> !schedulesByDoctor.containsKey(doctorId)).toList();
+        Set<Long> existingWithoutRows = withoutRows.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(doctorRepository.findExistingIds(withoutRows));
+        for (Long doctorId : missing) {
+            List<DoctorSchedule> schedules = schedulesByDoctor.getOrDefault(doctorId, Collections.emptyList());
+            CompiledDoctorSchedule compiled = compile(doctorId, schedules);
+            boolean exists = !schedules.isEmpty() || existingWithoutRows.contains(doctorId);
+            result.put(doctorId, exists ? cache.put(doctorId, compiled, stamps.get(doctorId)) : compiled);
+        }
+        return result;
+    }
+
+    public void evict(Long doctorId) {
+        cache.evict(doctorId);
+    }
+
+    // Compiles straight from the given rows, bypassing the cache (write-path validation)
+    public static CompiledDoctorSchedule compile(Long doctorId, List<DoctorSchedule> schedules) {
+        return CompiledDoctorSchedule.compile(doctorId,
+                schedules.stream().map(ScheduleWindow::of).collect(Collectors.toList()));
+    }
+}
@@ -1,11 +1,14 @@
 package com.medicarehub.service;
 
 import com.medicarehub.dto.AvailabilitySlotDto;
+import com.medicarehub.dto.DailyAvailabilityDto;
 import com.medicarehub.dto.DoctorScheduleRequestDto;
 import com.medicarehub.dto.DoctorScheduleResponseDto;
+import com.medicarehub.dto.ScheduleConflictDto;
 import com.medicarehub.entity.Appointment;
 import com.medicarehub.entity.Doctor;
 import com.medicarehub.entity.DoctorSchedule;
+import com.medicarehub.exception.BadRequestException;
 import com.medicarehub.exception.ResourceNotFoundException;
 import com.medicarehub.repository.AppointmentRepository;
 import com.medicarehub.repository.DoctorRepository;
@@ -14,13 +17,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +41,17 @@ public class DoctorScheduleService {
     @Autowired
     private AppointmentRepository appointmentRepository; // To check for booked slots
 
+    @Autowired
+    private DoctorAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private DoctorScheduleCache scheduleCache;
+
+    @Autowired
+    private SlotHoldRegistry slotHoldRegistry;
+
+    public static final int MAX_AVAILABILITY_RANGE_DAYS = 60;
+
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
     // --- Mapper ---
@@ -58,7 +75,8 @@ public class DoctorScheduleService {
 
     @Transactional
     public DoctorScheduleResponseDto addSchedule(Long doctorId, DoctorScheduleRequestDto requestDto) {
-        Doctor doctor = doctorRepository.findById(doctorId)
+        // Locks the doctor row: concurrent schedule changes for the same doctor are validated one after the other
+        Doctor doctor = doctorRepository.findByIdForUpdate(doctorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
 
         // Basic validation: startTime must be before endTime
@@ -87,11 +105,11 @@ public class DoctorScheduleService {
         schedule.setAvailable(requestDto.isAvailable());
         schedule.setNotes(requestDto.getNotes());
 
-        // TODO: Add logic to check for overlapping schedule entries for the same doctor
-        // This is crucial to avoid defining conflicting schedules (e.g., Mon 9-5 and Mon 10-6)
-        // For now, we'll save directly.
+        // Reject entries overlapping an existing one for the same day of week / specific date (e.g., Mon 9-5 and Mon 10-6)
+        validateNoOverlap(doctorScheduleRepository.findCurrentByDoctorId(doctorId), requestDto, null);
 
         DoctorSchedule savedSchedule = doctorScheduleRepository.save(schedule);
+        TransactionCallbacks.afterCommit(() -> evictDoctor(doctorId));
         return mapToDto(savedSchedule);
     }
 
@@ -117,6 +135,8 @@ public class DoctorScheduleService {
         if (requestDto.getDayOfWeek() != null && requestDto.getSpecificDate() != null) {
             requestDto.setDayOfWeek(null);
         }
+        doctorRepository.findByIdForUpdate(schedule.getDoctor().getId());
+        validateNoOverlap(doctorScheduleRepository.findCurrentByDoctorId(schedule.getDoctor().getId()), requestDto, scheduleId);
 
         schedule.setDayOfWeek(requestDto.getDayOfWeek());
         schedule.setSpecificDate(requestDto.getSpecificDate());
@@ -125,99 +145,193 @@ public class DoctorScheduleService {
         schedule.setSlotDurationMinutes(requestDto.getSlotDurationMinutes());
         schedule.setAvailable(requestDto.isAvailable());
         schedule.setNotes(requestDto.getNotes());
-        // TODO: Add overlap check for update as well
 
         DoctorSchedule updatedSchedule = doctorScheduleRepository.save(schedule);
+        Long doctorId = updatedSchedule.getDoctor().getId();
+        TransactionCallbacks.afterCommit(() -> evictDoctor(doctorId));
         return mapToDto(updatedSchedule);
     }
 
     @Transactional
     public void deleteSchedule(Long scheduleId) {
-        if (!doctorScheduleRepository.existsById(scheduleId)) {
-            throw new ResourceNotFoundException("Doctor schedule not found with ID: " + scheduleId);
-        }
-        doctorScheduleRepository.deleteById(scheduleId);
+        DoctorSchedule schedule = doctorScheduleRepository.findById(scheduleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor schedule not found with ID: " + scheduleId));
+        Long doctorId = schedule.getDoctor().getId();
+        doctorScheduleRepository.delete(schedule);
+        TransactionCallbacks.afterCommit(() -> evictDoctor(doctorId));
     }
 
 
-    // --- Logic for Getting Doctor Availability ---
+    // Compiled schedules and indexed slot grids are both derived from the schedule rows
+    private void evictDoctor(Long doctorId) {
+        scheduleCache.evict(doctorId);
+        availabilityIndex.evictDoctor(doctorId);
+    }
 
-    public List<AvailabilitySlotDto> getDoctorAvailability(Long doctorId, LocalDate date) {
-        Doctor doctor = doctorRepository.findById(doctorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with ID: " + doctorId));
 
-        DayOfWeek dayOfWeek = date.getDayOfWeek();
-        List<AvailabilitySlotDto> availableSlots = new ArrayList<>();
+    // --- Schedule overlap validation ---
+
+    // Write path: validated against the doctor's current rows, read while holding the doctor row lock (so two
+    // concurrent inserts cannot both pass), rather than against the cached compiled schedule. Building the
+    // interval index is O(n log n) in the doctor's entries; for a single check that dominates the lookup.
+    private void validateNoOverlap(List<DoctorSchedule> existingSchedules, DoctorScheduleRequestDto requestDto, Long scheduleIdBeingUpdated) {
+        ScheduleWindow conflict = DoctorScheduleCache.compile(null, existingSchedules).getIntervals().findOverlap(
+                requestDto.getDayOfWeek(), requestDto.getSpecificDate(),
+                DoctorAvailabilityIndex.toMinute(requestDto.getStartTime()),
+                DoctorAvailabilityIndex.toMinute(requestDto.getEndTime()),
+                scheduleIdBeingUpdated);
+        if (conflict != null) {
+            throw new BadRequestException("Schedule " + requestDto.getStartTime().format(TIME_FORMATTER) + "-" +
+                    requestDto.getEndTime().format(TIME_FORMATTER) + " overlaps existing schedule entry " + conflict.getScheduleId() +
+                    " (" + conflict.describeTimes() + ") for the same " +
+                    (requestDto.getSpecificDate() != null ? "date." : "day of week."));
+        }
+    }
+
+    // Bulk audit: every overlapping pair of schedule entries across all doctors, computed in a single pass
+    @Transactional(readOnly = true)
+    public List<ScheduleConflictDto> auditScheduleConflicts() {
+        Map<Long, List<DoctorSchedule>> schedulesByDoctor = doctorScheduleRepository.findAll()
+                .stream()
+                .collect(Collectors.groupingBy(schedule -> schedule.getDoctor().getId()));
+        List<ScheduleConflictDto> conflicts = new ArrayList<>();
+        schedulesByDoctor.forEach((doctorId, schedules) ->
+                DoctorScheduleCache.compile(doctorId, schedules).getIntervals().forEachOverlap((first, second) -> conflicts.add(new ScheduleConflictDto(
+                        doctorId,
+                        first.getDayOfWeek(),
+                        first.getSpecificDate(),
+                        first.getScheduleId(),
+                        first.describeTimes(),
+                        second.getScheduleId(),
+                        second.describeTimes()
+                ))));
+        return conflicts;
+    }
 
-        // 1. Get all relevant schedule entries for the doctor (general for the day, specific for the date)
-        // Specific date entries take precedence.
-        List<DoctorSchedule> specificDateSchedules = doctorScheduleRepository.findByDoctorAndSpecificDate(doctor, date);
-        List<DoctorSchedule> generalDaySchedules;
-
-        if (!specificDateSchedules.isEmpty()) {
-            // If specific date schedules exist, these define the entire availability for that day.
-            // We only consider the ones marked as available.
-            generalDaySchedules = specificDateSchedules.stream()
-                    .filter(DoctorSchedule::isAvailable)
-                    .collect(Collectors.toList());
-        } else {
-            // No specific overrides, use general weekly schedule for that day of the week
-            generalDaySchedules = doctorScheduleRepository.findByDoctorAndDayOfWeek(doctor, dayOfWeek)
-                    .stream()
-                    .filter(DoctorSchedule::isAvailable) // Should always be true for general, but good check
-                    .collect(Collectors.toList());
-        }
-
-        // Sort by start time to process them in order
-        generalDaySchedules.sort(Comparator.comparing(DoctorSchedule::getStartTime));
-
-        // 2. Get already booked appointments for the doctor on that date
-        List<Appointment> bookedAppointments = appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, date);
 
-        // 3. Generate available slots
-        for (DoctorSchedule schedule : generalDaySchedules) {
-            LocalTime slotStartTime = schedule.getStartTime();
-            LocalTime scheduleEndTime = schedule.getEndTime();
-            int slotDuration = schedule.getSlotDurationMinutes();
+    // --- Logic for Getting Doctor Availability ---
 
-            while (slotStartTime.plusMinutes(slotDuration).isBefore(scheduleEndTime) ||
-                    slotStartTime.plusMinutes(slotDuration).equals(scheduleEndTime)) {
+    public List<AvailabilitySlotDto> getDoctorAvailability(Long doctorId, LocalDate date) {
+        List<AvailabilitySlotDto> availableSlots = new ArrayList<>();
+        // Only slots in the future are offered (matters when the date is today); slots held by someone in the booking flow are hidden
+        int fromMinute = DoctorAvailabilityIndex.firstBookableMinute(date);
+        DoctorAvailabilityIndex.SlotConsumer collector = slotHoldRegistry.excludingHeld(doctorId, date,
+                (start, end) -> availableSlots.add(toSlotDto(start, end)));
+
+        // Fast path: the day is already indexed, answer from the bitmap without touching the DB
+        if (availabilityIndex.forEachAvailableSlot(doctorId, date, fromMinute, collector)) {
+            return availableSlots;
+        }
 
-                LocalTime slotEndTime = slotStartTime.plusMinutes(slotDuration);
+        // Cold path: compute from schedules and booked appointments, and warm the index on the way
+        DoctorAvailabilityIndex.DaySlots day = loadDayFromDatabase(doctorId, date);
+        day.forEachAvailable(fromMinute, collector);
+        return availableSlots;
+    }
 
-                // Check if this potential slot overlaps with any booked appointments
-                // Also check if it's in the future (if the date is today)
-                boolean isSlotBooked = isSlotOverlappingWithBooked(slotStartTime, slotEndTime, bookedAppointments);
-                boolean isSlotInFuture = !date.isEqual(LocalDate.now()) || slotStartTime.isAfter(LocalTime.now());
+    public List<DailyAvailabilityDto> getDoctorAvailabilityRange(Long doctorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("The 'to' date must not be before the 'from' date.");
+        }
+        long dayCount = ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount > MAX_AVAILABILITY_RANGE_DAYS) {
+            throw new BadRequestException("Availability can be requested for at most " + MAX_AVAILABILITY_RANGE_DAYS + " days at a time.");
+        }
 
+        if (!availabilityIndex.isWarm(doctorId, from, to)) {
+            scheduleCache.get(doctorId); // 404 for unknown doctors, and warms the compiled schedule for the load below
+        }
+        DoctorAvailabilityIndex.DaySlots[] days = loadAvailabilityWindow(List.of(doctorId), from, to).get(doctorId);
+
+        List<DailyAvailabilityDto> result = new ArrayList<>((int) dayCount);
+        for (int i = 0; i < days.length; i++) {
+            LocalDate date = from.plusDays(i);
+            List<AvailabilitySlotDto> slots = new ArrayList<>();
+            days[i].forEachAvailable(DoctorAvailabilityIndex.firstBookableMinute(date),
+                    slotHoldRegistry.excludingHeld(doctorId, date, (start, end) -> slots.add(toSlotDto(start, end))));
+            result.add(new DailyAvailabilityDto(date, slots));
+        }
+        return result;
+    }
 
-                if (!isSlotBooked && isSlotInFuture) {
-                    availableSlots.add(new AvailabilitySlotDto(
-                            slotStartTime.format(TIME_FORMATTER),
-                            slotEndTime.format(TIME_FORMATTER)
-                    ));
+    /**
+     * Returns the slot grid of every given doctor for every day in [from, to] (array index = day offset).
+     * Days already in the availability index are taken from it; all cold doctors are loaded together
+     * with one appointment query (plus one schedule query for doctors not in the schedule cache),
+     * regardless of how many doctors/days are missing.
+     */
+    public Map<Long, DoctorAvailabilityIndex.DaySlots[]> loadAvailabilityWindow(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        int dayCount = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        Map<Long, DoctorAvailabilityIndex.DaySlots[]> window = new HashMap<>();
+        Map<Long, Long> coldDoctorStamps = new HashMap<>();
+        for (Long doctorId : doctorIds) {
+            // Taken before reading, so a booking committed mid-load invalidates this snapshot
+            long stamp = availabilityIndex.stamp(doctorId);
+            DoctorAvailabilityIndex.DaySlots[] days = new DoctorAvailabilityIndex.DaySlots[dayCount];
+            for (int i = 0; i < dayCount; i++) {
+                days[i] = availabilityIndex.getDay(doctorId, from.plusDays(i));
+                if (days[i] == null) {
+                    coldDoctorStamps.put(doctorId, stamp);
                 }
-                slotStartTime = slotEndTime; // Move to the next potential slot
             }
+            window.put(doctorId, days);
+        }
+        if (coldDoctorStamps.isEmpty()) {
+            return window;
         }
-        return availableSlots;
-    }
 
-    private boolean isSlotOverlappingWithBooked(LocalTime slotStart, LocalTime slotEnd, List<Appointment> bookedAppointments) {
-        for (Appointment booked : bookedAppointments) {
-            // Skip cancelled appointments
-            if (booked.getStatus() == com.medicarehub.entity.AppointmentStatus.CANCELLED_BY_PATIENT ||
-                    booked.getStatus() == com.medicarehub.entity.AppointmentStatus.CANCELLED_BY_STAFF) {
-                continue;
+        Map<Long, CompiledDoctorSchedule> schedulesByDoctor = scheduleCache.getAll(coldDoctorStamps.keySet());
+        Map<Long, Map<LocalDate, List<Appointment>>> appointmentsByDoctor = appointmentRepository
+                .findByDoctorIdInAndAppointmentDateBetween(coldDoctorStamps.keySet(), from, to)
+                .stream()
+                .collect(Collectors.groupingBy(appointment -> appointment.getDoctor().getId(),
+                        Collectors.groupingBy(Appointment::getAppointmentDate)));
+
+        coldDoctorStamps.forEach((doctorId, stamp) -> {
+            CompiledDoctorSchedule schedule = schedulesByDoctor.get(doctorId);
+            Map<LocalDate, List<Appointment>> appointmentsByDate = appointmentsByDoctor.getOrDefault(doctorId, Collections.emptyMap());
+            DoctorAvailabilityIndex.DaySlots[] days = window.get(doctorId);
+            for (int i = 0; i < dayCount; i++) {
+                if (days[i] == null) {
+                    LocalDate date = from.plusDays(i);
+                    days[i] = availabilityIndex.load(doctorId, date, stamp,
+                            schedule.windowsFor(date),
+                            appointmentsByDate.getOrDefault(date, Collections.emptyList()));
+                }
             }
+        });
+        return window;
+    }
 
-            LocalTime bookedStart = booked.getAppointmentTime();
-            LocalTime bookedEnd = bookedStart.plusMinutes(booked.getDurationMinutes());
-            // Check for overlap: (StartA < EndB) and (EndA > StartB)
-            if (slotStart.isBefore(bookedEnd) && slotEnd.isAfter(bookedStart)) {
-                return true; // Slot overlaps with a booked appointment
-            }
+    // Used by booking: checks a single start time against the slot grid without building the whole slot list
+    public boolean isSlotAvailable(Long doctorId, LocalDate date, LocalTime startTime) {
+        int startMinute = DoctorAvailabilityIndex.toMinute(startTime);
+        if (startMinute < DoctorAvailabilityIndex.firstBookableMinute(date)) {
+            return false;
+        }
+        Boolean indexed = availabilityIndex.isSlotAvailable(doctorId, date, startMinute);
+        if (indexed != null) {
+            return indexed;
         }
-        return false; // Slot is not booked
+        return loadDayFromDatabase(doctorId, date).isSlotAvailable(startMinute);
+    }
+
+    private DoctorAvailabilityIndex.DaySlots loadDayFromDatabase(Long doctorId, LocalDate date) {
+        // Taken before reading, so a booking committed mid-load invalidates this snapshot
+        long stamp = availabilityIndex.stamp(doctorId);
+
+        // 1. Available windows in effect on that date (specific-date overrides already applied), from the
+        // compiled schedule cache; throws 404 for unknown doctors
+        List<ScheduleWindow> effectiveWindows = scheduleCache.get(doctorId).windowsFor(date);
+
+        // 2. Get already booked appointments for the doctor on that date (cancelled ones are skipped by the index)
+        List<Appointment> bookedAppointments = appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, date);
+
+        // 3. Build the slot grid + booked bitmap
+        return availabilityIndex.load(doctorId, date, stamp, effectiveWindows, bookedAppointments);
+    }
+
+    private static AvailabilitySlotDto toSlotDto(int startMinute, int endMinute) {
+        return new AvailabilitySlotDto(DoctorAvailabilityIndex.timeLabel(startMinute), DoctorAvailabilityIndex.timeLabel(endMinute));
     }
-}
\ No newline at end of file
+}
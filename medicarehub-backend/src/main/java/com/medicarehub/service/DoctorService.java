@@ -43,6 +43,12 @@ public class DoctorService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private DoctorDirectoryIndex directoryIndex;
+
     // --- Mapper Method ---
     private DoctorResponseDto mapToDoctorResponseDto(Doctor doctor) {
         if (doctor == null) {
@@ -83,6 +89,10 @@ public class DoctorService {
         return dto;
     }
 
+    private List<DoctorResponseDto> loadDirectory() {
+        return doctorRepository.findAllForDirectory().stream().map(this::mapToDoctorResponseDto).toList();
+    }
+
     // --- CRUD Methods ---
 
     @Transactional
@@ -140,7 +150,9 @@ public class DoctorService {
         doctor.setQualifications(doctorRequestDto.getQualifications());
 
         Doctor savedDoctor = doctorRepository.save(doctor);
-        return mapToDoctorResponseDto(savedDoctor);
+        DoctorResponseDto response = mapToDoctorResponseDto(savedDoctor);
+        TransactionCallbacks.afterCommit(() -> directoryIndex.put(response));
+        return response;
     }
 
     public DoctorResponseDto getDoctorById(Long doctorId) {
@@ -154,11 +166,17 @@ public class DoctorService {
         return doctors.map(this::mapToDoctorResponseDto);
     }
 
-    // Example: Search doctors
+    // Search doctors: relevance-ranked from the in-memory directory index, the DB only while it is cold
     public Page<DoctorResponseDto> searchDoctors(String searchTerm, Pageable pageable) {
         if (searchTerm == null || searchTerm.isBlank()) {
             return getAllDoctors(pageable);
         }
+        if (directoryIndex.loadIfCold(this::loadDirectory)) {
+            Page<DoctorResponseDto> ranked = directoryIndex.search(searchTerm, pageable);
+            if (ranked != null) {
+                return ranked;
+            }
+        }
         Page<Doctor> doctors = doctorRepository.searchDoctors(searchTerm.toLowerCase(), pageable);
         return doctors.map(this::mapToDoctorResponseDto);
     }
@@ -207,7 +225,9 @@ public class DoctorService {
         // User entity is part of Doctor, changes to User object will be cascaded if Doctor is saved.
         // userRepository.save(user); // May not be needed due to cascading from Doctor save
         Doctor updatedDoctor = doctorRepository.save(existingDoctor);
-        return mapToDoctorResponseDto(updatedDoctor);
+        DoctorResponseDto response = mapToDoctorResponseDto(updatedDoctor);
+        TransactionCallbacks.afterCommit(() -> directoryIndex.put(response));
+        return response;
     }
 
     @Transactional
@@ -222,6 +242,9 @@ public class DoctorService {
         User user = doctor.getUser();
         user.setActive(false);
         userRepository.save(user);
+        Long userId = user.getId();
+        TransactionCallbacks.afterCommit(() -> principalCache.invalidate(userId)); // Outstanding tokens stop working
+        TransactionCallbacks.afterCommit(() -> directoryIndex.remove(doctorId));
         // If Doctor entity also has an 'active' flag, set it here:
         // doctor.setActive(false);
         // doctorRepository.save(doctor);
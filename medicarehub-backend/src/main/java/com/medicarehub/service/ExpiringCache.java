@@ -0,0 +1,76 @@
+package com.medicarehub.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.Comparator;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through map for the in-memory caches of rarely changing data. Entries expire after a TTL; evictions
+ * after commit are what keep this node current, the TTL only bounds staleness for changes made on other nodes.
+ * <p>
+ * A load must not put back state that an eviction has just dropped, so it is stored against the key's stamp
+ * taken before reading: {@code stamp = cache.stamp(key)}, read from the database, {@code cache.put(key, value, stamp)}.
+ * Each key has its own stamp, so evicting one key does not discard loads of the others.
+ * TTL and size limit are read on every store, so they may come from fields injected after construction.
+ */
+final class ExpiringCache<K, V> {
+
+    private final LongSupplier ttlSeconds;
+    private final IntSupplier maxEntries;
+
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    // Per key, bumped on every eviction of that key. One counter per key ever evicted.
+    private final ConcurrentMap<K, Long> generations = new ConcurrentHashMap<>();
+
+    ExpiringCache(LongSupplier ttlSeconds) {
+        this(ttlSeconds, () -> Integer.MAX_VALUE);
+    }
+
+    ExpiringCache(LongSupplier ttlSeconds, IntSupplier maxEntries) {
+        this.ttlSeconds = ttlSeconds;
+        this.maxEntries = maxEntries;
+    }
+
+    // The cached value, or null if there is none or it has expired
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null || entry.isExpired() ? null : entry.value;
+    }
+
+    long stamp(K key) {
+        return generations.getOrDefault(key, 0L);
+    }
+
+    // Stores the value unless the key was evicted since the stamp was taken; returns the value either way
+    synchronized V put(K key, V value, long stamp) {
+        if (stamp(key) != stamp) {
+            return value; // Evicted while loading; the next read loads it again
+        }
+        if (entries.size() >= maxEntries.getAsInt() && !entries.containsKey(key)) {
+            entries.values().removeIf(Entry::isExpired);
+            if (entries.size() >= maxEntries.getAsInt()) {
+                // Still full of live entries: make room by dropping the one closest to expiring anyway
+                entries.entrySet().stream()
+                        .min(Comparator.comparingLong(entry -> entry.getValue().expiresAtMillis()))
+                        .ifPresent(oldest -> entries.remove(oldest.getKey()));
+            }
+        }
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlSeconds.getAsLong() * 1000));
+        return value;
+    }
+
+    synchronized void evict(K key) {
+        generations.merge(key, 1L, Long::sum);
+        entries.remove(key);
+    }
+
+    private record Entry<V>(V value, long expiresAtMillis) {
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.IdBlock;
+import com.medicarehub.repository.IdBlockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Reserves blocks of a named sequence in the {@code id_blocks} table. The reservation runs in its own short
+ * transaction so the row lock is released right away, not when the caller's (e.g. registration) transaction ends.
+ */
+@Service
+public class IdBlockAllocator {
+
+    @Autowired
+    private IdBlockRepository idBlockRepository;
+
+    /**
+     * Returns the first value of a block of {@code size} values that no other caller, on any node, will get.
+     * The first reservation of a sequence creates its row starting at {@code initialValue}; if two nodes race
+     * to create it, the loser gets a DataIntegrityViolationException (duplicate key) or, on MySQL, a
+     * PessimisticLockingFailureException (deadlock or lock wait timeout) and should call again.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserve(String name, int size, LongSupplier initialValue) {
+        IdBlock block = idBlockRepository.findByNameForUpdate(name).orElse(null);
+        if (block == null) {
+            long first = initialValue.getAsLong();
+            idBlockRepository.saveAndFlush(new IdBlock(name, first + size));
+            return first;
+        }
+        long first = block.getNextValue();
+        block.setNextValue(first + size); // Flushed on commit, while we still hold the lock
+        return first;
+    }
+}
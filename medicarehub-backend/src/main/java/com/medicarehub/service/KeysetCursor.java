@@ -0,0 +1,65 @@
+package com.medicarehub.service;
+
+import com.medicarehub.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset ("scroll") listings: the sort key of the last row returned,
+ * prefixed with the listing kind so a token from one list can't be replayed against another.
+ * Each part is Base64url encoded on its own and the parts are joined with '.', so values may contain any character.
+ */
+final class KeysetCursor {
+
+    static final int DEFAULT_SIZE = 20;
+    static final int MAX_SIZE = 100;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetCursor() {
+    }
+
+    static String encode(String kind, String... keys) {
+        StringBuilder token = new StringBuilder(ENCODER.encodeToString(kind.getBytes(StandardCharsets.UTF_8)));
+        for (String key : keys) {
+            token.append('.').append(ENCODER.encodeToString(key.getBytes(StandardCharsets.UTF_8)));
+        }
+        return token.toString();
+    }
+
+    // Returns the keys, or null for the first page (no cursor). Anything malformed is a 400.
+    static String[] decode(String token, String kind, int keyCount) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != keyCount + 1) {
+            throw invalid();
+        }
+        try {
+            if (!kind.equals(new String(DECODER.decode(parts[0]), StandardCharsets.UTF_8))) {
+                throw invalid();
+            }
+            String[] keys = new String[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = new String(DECODER.decode(parts[i + 1]), StandardCharsets.UTF_8);
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    static int clampSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    static BadRequestException invalid() {
+        return new BadRequestException("Invalid cursor. Start again without a cursor.");
+    }
+}
@@ -0,0 +1,49 @@
+package com.medicarehub.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off migration for patients registered before blocking keys were stored: derives their keys in id order,
+ * one chunk (one short transaction) per scheduler run, so neither startup nor the duplicate scan has to do it.
+ * Patients registered since get their keys from {@link PatientService}. Once a run comes back short, later runs
+ * return immediately.
+ */
+@Component
+public class PatientBlockingKeyBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientBlockingKeyBackfill.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private PatientDuplicateService duplicateService;
+
+    private volatile boolean done;
+    private long afterId; // Patients whose fields yield no key keep having none; the cursor moves past them
+    private int total; // Only touched by the scheduler thread
+
+    @Scheduled(fixedDelayString = "${patient.duplicates.key-backfill.delay-ms:1000}",
+            initialDelayString = "${patient.duplicates.key-backfill.initial-delay-ms:5000}")
+    public void backfillNextChunk() {
+        if (done) {
+            return;
+        }
+        List<Long> ids = duplicateService.backfillKeys(afterId, CHUNK_SIZE);
+        total += ids.size();
+        if (!ids.isEmpty()) {
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (ids.size() < CHUNK_SIZE) {
+            done = true;
+            if (total > 0) {
+                logger.info("Derived blocking keys for {} patients", total);
+            }
+        }
+    }
+}
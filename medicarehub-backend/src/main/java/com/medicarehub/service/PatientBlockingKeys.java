@@ -0,0 +1,188 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.PatientLookupDto;
+import com.medicarehub.entity.User;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Blocking keys and pairwise scoring for duplicate patient detection.
+ * <p>
+ * A key is deliberately coarse, so that spelling variants of the same person share at least one key:
+ * each phonetic (Soundex) name + date of birth, whichever field it was entered in (surname changed or badly
+ * misspelled, first and last name swapped), the last 9 phone digits (country code variants), and the two
+ * phonetic names as an unordered pair (no usable date of birth). Patients sharing a key are only candidates;
+ * {@link #score} decides.
+ */
+final class PatientBlockingKeys {
+
+    private static final int PHONE_DIGITS = 9;
+    private static final int MIN_PHONE_DIGITS = 7;
+
+    private PatientBlockingKeys() {
+    }
+
+    static Set<String> keysOf(String firstName, String lastName, LocalDate dateOfBirth, String phoneNumber) {
+        Set<String> keys = new LinkedHashSet<>();
+        String last = phonetic(lastName);
+        String first = phonetic(firstName);
+        if (dateOfBirth != null) {
+            if (last != null) {
+                keys.add("ND:" + last + "|" + dateOfBirth);
+            }
+            if (first != null) {
+                keys.add("ND:" + first + "|" + dateOfBirth);
+            }
+        }
+        String phone = phoneKey(phoneNumber);
+        if (phone != null) {
+            keys.add("PH:" + phone);
+        }
+        if (last != null && first != null) {
+            keys.add(last.compareTo(first) <= 0 ? "NN:" + last + "|" + first : "NN:" + first + "|" + last);
+        }
+        return keys;
+    }
+
+    /**
+     * Likelihood (0..1) that two records describe the same person: 60% name similarity (Jaro-Winkler, also
+     * trying first/last swapped), 25% date of birth, 15% phone. A missing value counts half; a conflicting
+     * one counts nothing, so family members sharing a surname and phone stay below the threshold.
+     */
+    static double score(PatientLookupDto a, PatientLookupDto b) {
+        String firstA = fold(a.getFirstName());
+        String lastA = fold(a.getLastName());
+        String firstB = fold(b.getFirstName());
+        String lastB = fold(b.getLastName());
+        double straight = (jaroWinkler(firstA, firstB) + jaroWinkler(lastA, lastB)) / 2;
+        double swapped = (jaroWinkler(firstA, lastB) + jaroWinkler(lastA, firstB)) / 2;
+        double name = Math.max(straight, swapped);
+
+        double dateOfBirth = a.getDateOfBirth() == null || b.getDateOfBirth() == null ? 0.5
+                : a.getDateOfBirth().equals(b.getDateOfBirth()) ? 1.0 : 0.0;
+        String phoneA = phoneKey(a.getPhoneNumber());
+        String phoneB = phoneKey(b.getPhoneNumber());
+        double phone = phoneA == null || phoneB == null ? 0.5 : phoneA.equals(phoneB) ? 1.0 : 0.0;
+
+        return 0.60 * name + 0.25 * dateOfBirth + 0.15 * phone;
+    }
+
+    // American Soundex of the folded name ("Robert"/"Rupert" -> R163); names without Latin letters
+    // fall back to their first four characters. Null if nothing is left.
+    static String phonetic(String name) {
+        String folded = fold(name);
+        StringBuilder code = new StringBuilder(4);
+        char previous = 0;
+        for (int i = 0; i < folded.length() && code.length() < 4; i++) {
+            char c = folded.charAt(i);
+            if (c < 'a' || c > 'z') {
+                continue;
+            }
+            char digit = soundexDigit(c);
+            if (code.length() == 0) {
+                code.append(Character.toUpperCase(c));
+            } else if (digit != '0' && digit != previous) {
+                code.append(digit);
+            }
+            if (c != 'h' && c != 'w') { // h/w do not separate equal codes, vowels do
+                previous = digit;
+            }
+        }
+        if (code.length() == 0) {
+            String letters = folded.replaceAll("[^\\p{L}]", "");
+            return letters.isEmpty() ? null : letters.substring(0, Math.min(4, letters.length()));
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    private static char soundexDigit(char c) {
+        switch (c) {
+            case 'b', 'f', 'p', 'v':
+                return '1';
+            case 'c', 'g', 'j', 'k', 'q', 's', 'x', 'z':
+                return '2';
+            case 'd', 't':
+                return '3';
+            case 'l':
+                return '4';
+            case 'm', 'n':
+                return '5';
+            case 'r':
+                return '6';
+            default:
+                return '0'; // Vowels, h, w, y
+        }
+    }
+
+    // Last 9 digits, or null if the number has fewer than 7
+    static String phoneKey(String phoneNumber) {
+        if (phoneNumber == null) {
+            return null;
+        }
+        String digits = phoneNumber.replaceAll("\\D", "");
+        if (digits.length() < MIN_PHONE_DIGITS) {
+            return null;
+        }
+        return digits.length() > PHONE_DIGITS ? digits.substring(digits.length() - PHONE_DIGITS) : digits;
+    }
+
+    // Normalized like the search columns, with accents removed (NFD, combining marks dropped)
+    private static String fold(String name) {
+        String normalized = Normalizer.normalize(User.normalizeName(name), Normalizer.Form.NFD);
+        return normalized.replaceAll("\\p{M}", "").toLowerCase(Locale.ROOT);
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return a.equals(b) ? 1.0 : 0.0;
+        }
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] matchedA = new boolean[a.length()];
+        boolean[] matchedB = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window);
+            int to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!matchedB[j] && a.charAt(i) == b.charAt(j)) {
+                    matchedA[i] = true;
+                    matchedB[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (matchedA[i]) {
+                while (!matchedB[j]) {
+                    j++;
+                }
+                if (a.charAt(i) != b.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+}
@@ -0,0 +1,179 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.DuplicateCandidateDto;
+import com.medicarehub.dto.DuplicateClusterDto;
+import com.medicarehub.dto.PatientLookupDto;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.PatientBlockingKey;
+import com.medicarehub.entity.User;
+import com.medicarehub.repository.PatientBlockingKeyRepository;
+import com.medicarehub.repository.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Fuzzy duplicate patient detection (see {@link PatientBlockingKeys}).
+ * <p>
+ * Every patient's blocking keys are stored in {@code patient_blocking_keys}, so finding candidates for a new
+ * registration is one indexed lookup per key plus one query for the candidates' names; only those few
+ * candidates are scored. The batch mode compares patients within each shared key (block) and links pairs
+ * scoring at or above the threshold into clusters. Patients registered before keys existed get them from
+ * {@link PatientBlockingKeyBackfill}.
+ */
+@Service
+public class PatientDuplicateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientDuplicateService.class);
+
+    private static final int MAX_CANDIDATES = 200;
+    private static final int MAX_BLOCK_SIZE = 100; // Larger blocks (very common name, shared phone) are skipped
+
+    @Autowired
+    private PatientBlockingKeyRepository blockingKeyRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Value("${patient.duplicates.threshold:0.85}")
+    private double threshold;
+
+    // Existing patients that probably are the person described, best match first
+    @Transactional(readOnly = true)
+    public List<DuplicateCandidateDto> findCandidates(String firstName, String lastName, LocalDate dateOfBirth,
+                                                      String phoneNumber, Long excludePatientId) {
+        Set<String> keys = PatientBlockingKeys.keysOf(firstName, lastName, dateOfBirth, phoneNumber);
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = blockingKeyRepository.findPatientIdsByKeyValueIn(keys, Limit.of(MAX_CANDIDATES)).stream()
+                .filter(id -> !id.equals(excludePatientId))
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        PatientLookupDto probe = new PatientLookupDto(null, null, firstName, lastName, dateOfBirth, phoneNumber);
+        return patientRepository.findLookupByIdIn(ids).stream()
+                .map(candidate -> new DuplicateCandidateDto(candidate, round(PatientBlockingKeys.score(probe, candidate))))
+                .filter(candidate -> candidate.getScore() >= threshold)
+                .sorted(Comparator.comparingDouble(DuplicateCandidateDto::getScore).reversed())
+                .toList();
+    }
+
+    // Rewrites the patient's keys; called in the transaction that creates/updates the patient
+    @Transactional
+    public void updateKeys(Patient patient) {
+        blockingKeyRepository.deleteByPatientId(patient.getId());
+        User user = patient.getUser();
+        Set<String> keys = PatientBlockingKeys.keysOf(user.getFirstName(), user.getLastName(),
+                user.getDateOfBirth(), user.getPhoneNumber());
+        blockingKeyRepository.saveAll(keys.stream().map(key -> new PatientBlockingKey(patient.getId(), key)).toList());
+    }
+
+    @Transactional
+    public void deleteKeys(Long patientId) {
+        blockingKeyRepository.deleteByPatientId(patientId);
+    }
+
+    // Derives keys for up to 'limit' patients with an id above afterId that have none; returns their ids in order
+    @Transactional
+    public List<Long> backfillKeys(long afterId, int limit) {
+        List<Long> ids = blockingKeyRepository.findPatientIdsWithoutKeys(afterId, Limit.of(limit));
+        if (!ids.isEmpty()) {
+            patientRepository.findAllWithUserByIdIn(ids).forEach(this::updateKeys);
+        }
+        return ids;
+    }
+
+    /**
+     * Batch mode: duplicate clusters across all registered patients, most certain first. Reads every shared
+     * block once, so run it off-peak. Read-only and deliberately not one transaction: each block is its own
+     * short read, so the scan holds no snapshot or locks for its whole duration. Patients still waiting for
+     * the key backfill are not compared yet.
+     */
+    public List<DuplicateClusterDto> findDuplicateClusters() {
+        Map<Long, PatientLookupDto> patients = new HashMap<>();
+        Map<Long, Long> parent = new HashMap<>();
+        Map<Long, Double> linkScores = new HashMap<>(); // Best linking score per patient
+        int skippedBlocks = 0;
+
+        for (String key : blockingKeyRepository.findSharedKeyValues()) {
+            List<Long> ids = blockingKeyRepository.findPatientIdsByKeyValue(key, Limit.of(MAX_BLOCK_SIZE + 1));
+            if (ids.size() > MAX_BLOCK_SIZE) {
+                skippedBlocks++;
+                continue;
+            }
+            List<Long> missing = ids.stream().filter(id -> !patients.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                patientRepository.findLookupByIdIn(missing).forEach(row -> patients.put(row.getId(), row));
+            }
+            List<PatientLookupDto> block = ids.stream().map(patients::get).filter(Objects::nonNull).toList();
+            for (int i = 0; i < block.size(); i++) {
+                for (int j = i + 1; j < block.size(); j++) {
+                    double score = round(PatientBlockingKeys.score(block.get(i), block.get(j)));
+                    if (score >= threshold) {
+                        Long a = block.get(i).getId();
+                        Long b = block.get(j).getId();
+                        union(parent, a, b);
+                        linkScores.merge(a, score, Math::max);
+                        linkScores.merge(b, score, Math::max);
+                    }
+                }
+            }
+        }
+        if (skippedBlocks > 0) {
+            logger.warn("Duplicate scan skipped {} blocking keys shared by more than {} patients", skippedBlocks, MAX_BLOCK_SIZE);
+        }
+
+        Map<Long, List<PatientLookupDto>> members = new HashMap<>();
+        for (Long id : parent.keySet()) {
+            members.computeIfAbsent(find(parent, id), root -> new ArrayList<>()).add(patients.get(id));
+        }
+        return members.values().stream()
+                .filter(cluster -> cluster.size() > 1)
+                .map(cluster -> {
+                    cluster.sort(Comparator.comparing(PatientLookupDto::getId));
+                    double maxScore = cluster.stream().mapToDouble(p -> linkScores.getOrDefault(p.getId(), 0.0)).max().orElse(0);
+                    return new DuplicateClusterDto(cluster, maxScore);
+                })
+                .sorted(Comparator.comparingDouble(DuplicateClusterDto::getMaxScore).reversed())
+                .toList();
+    }
+
+    // Union-find with path halving
+    private static Long find(Map<Long, Long> parent, Long id) {
+        parent.putIfAbsent(id, id);
+        Long current = id;
+        while (!parent.get(current).equals(current)) {
+            Long grandParent = parent.get(parent.get(current));
+            parent.put(current, grandParent);
+            current = grandParent;
+        }
+        return current;
+    }
+
+    private static void union(Map<Long, Long> parent, Long a, Long b) {
+        Long rootA = find(parent, a);
+        Long rootB = find(parent, b);
+        if (!rootA.equals(rootB)) {
+            parent.put(rootB, rootA);
+        }
+    }
+
+    private static double round(double score) {
+        return Math.round(score * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.medicarehub.service;
+
+import com.medicarehub.repository.PatientRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues patient unique IDs ({@code P0000001}, ...) from blocks reserved through {@link IdBlockAllocator}
+ * (hi/lo): one database round trip per {@code patient.id-block-size} registrations instead of one per
+ * registration, and no two nodes ever get the same block. Values of a block that is not used up before a
+ * restart are skipped, so IDs are unique and increasing per node but not gap-free.
+ */
+@Component
+public class PatientIdGenerator {
+
+    static final String SEQUENCE_NAME = "patient_unique_id";
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    @Autowired
+    private IdBlockAllocator idBlockAllocator;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Value("${patient.id-block-size:50}")
+    private int blockSize;
+
+    private long next; // Next value to hand out
+    private long end;  // End of the current block (exclusive)
+
+    public String nextPatientUniqueId() {
+        return format(nextValue());
+    }
+
+    synchronized long nextValue() {
+        if (next >= end) {
+            next = reserveBlock();
+            end = next + blockSize;
+        }
+        return next++;
+    }
+
+    private long reserveBlock() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return idBlockAllocator.reserve(SEQUENCE_NAME, blockSize, this::firstValueForNewSequence);
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                // Another node created the sequence row first. That shows up as a duplicate key, or on MySQL,
+                // where both SELECT ... FOR UPDATE took gap locks before inserting, as a deadlock or lock wait
+                // timeout. Either way the row exists (or will) and the next attempt locks it normally.
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // The sequence row is created on first use; continue after the IDs handed out by the old in-memory counter
+    private long firstValueForNewSequence() {
+        return patientRepository.findMaxPatientNumber()
+                .map(max -> max + 1)
+                .orElse(1L);
+    }
+
+    static String format(long value) {
+        return "P" + String.format("%07d", value);
+    }
+}
@@ -1,17 +1,23 @@
 package com.medicarehub.service;
 
+import com.medicarehub.dto.CursorPageDto;
+import com.medicarehub.dto.DuplicateCandidateDto;
+import com.medicarehub.dto.PatientLookupDto;
 import com.medicarehub.dto.PatientRequestDto;
 import com.medicarehub.dto.PatientResponseDto;
 import com.medicarehub.entity.ERole;
 import com.medicarehub.entity.Patient;
 import com.medicarehub.entity.Role;
 import com.medicarehub.entity.User;
+import com.medicarehub.exception.BadRequestException;
+import com.medicarehub.exception.ResourceAlreadyExistsException;
 import com.medicarehub.exception.ResourceNotFoundException;
 import com.medicarehub.exception.UserAlreadyExistsException;
 import com.medicarehub.repository.PatientRepository;
 import com.medicarehub.repository.RoleRepository;
 import com.medicarehub.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,13 +27,22 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.concurrent.atomic.AtomicLong; // For a slightly better (but still not robust) ID generator
 
 @Service
 public class PatientService {
 
+    private static final String CURSOR_PATIENTS = "patients"; // Keyset cursor kind
+
+    private static final int LOOKUP_DEFAULT_LIMIT = 20;
+    private static final int LOOKUP_MAX_LIMIT = 50;
+    private static final int MIN_PHONE_SUFFIX_DIGITS = 3;
+
     @Autowired
     private PatientRepository patientRepository;
 
@@ -40,9 +55,14 @@ public class PatientService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    // In-memory counter for unique ID - NOT SUITABLE FOR PRODUCTION.
-    // Replace with database sequence or UUID.
-    private final AtomicLong patientIdCounter = new AtomicLong(0);
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PatientDuplicateService duplicateService;
+
+    @Autowired
+    private PatientIdGenerator patientIdGenerator; // Block-allocated, safe across restarts and nodes
 
     @Transactional
     public PatientResponseDto createPatient(PatientRequestDto patientRequestDto) {
@@ -52,6 +72,18 @@ public class PatientService {
         if (userRepository.existsByEmail(patientRequestDto.getEmail())) {
             throw new UserAlreadyExistsException("Email '" + patientRequestDto.getEmail() + "' is already in use.");
         }
+        if (!Boolean.TRUE.equals(patientRequestDto.getAllowPossibleDuplicate())) {
+            List<DuplicateCandidateDto> candidates = duplicateService.findCandidates(patientRequestDto.getFirstName(),
+                    patientRequestDto.getLastName(), patientRequestDto.getDateOfBirth(), patientRequestDto.getPhoneNumber(), null);
+            if (!candidates.isEmpty()) {
+                String matches = candidates.stream().limit(3)
+                        .map(candidate -> candidate.getPatient().getPatientUniqueId() + " (" + candidate.getPatient().getFirstName()
+                                + " " + candidate.getPatient().getLastName() + ", " + candidate.getPatient().getDateOfBirth() + ")")
+                        .collect(Collectors.joining(", "));
+                throw new ResourceAlreadyExistsException("Possible duplicate of existing patient(s): " + matches
+                        + ". Set allowPossibleDuplicate to register anyway.");
+            }
+        }
 
         // Create User part
         User user = new User();
@@ -75,7 +107,7 @@ public class PatientService {
         // Create Patient part
         Patient patient = new Patient();
         patient.setUser(savedUser);
-        patient.setPatientUniqueId(generatePatientUniqueId());
+        patient.setPatientUniqueId(patientIdGenerator.nextPatientUniqueId());
         patient.setBloodGroup(patientRequestDto.getBloodGroup());
         patient.setMedicalHistorySummary(patientRequestDto.getMedicalHistorySummary());
         patient.setEmergencyContactName(patientRequestDto.getEmergencyContactName());
@@ -83,14 +115,8 @@ public class PatientService {
         patient.setEmergencyContactRelationship(patientRequestDto.getEmergencyContactRelationship());
         patient.setRegistrationDate(patientRequestDto.getRegistrationDate() != null ? patientRequestDto.getRegistrationDate() : LocalDate.now());
 
-        // Initialize counter if it's the first patient (very basic)
-        if (patientIdCounter.get() == 0) {
-            long currentMax = patientRepository.count(); // Simplified
-            patientIdCounter.set(currentMax);
-        }
-
-
         Patient savedPatient = patientRepository.save(patient);
+        duplicateService.updateKeys(savedPatient);
         return mapToPatientResponseDto(savedPatient);
     }
 
@@ -111,6 +137,62 @@ public class PatientService {
         return patients.map(this::mapToPatientResponseDto);
     }
 
+    // Reception type-ahead: partial name, phone number suffix, date of birth and/or unique ID prefix (all combined with AND).
+    // At most the limit, the first matches by last name: a broad search shows the start of the alphabet and the
+    // user narrows it by typing more.
+    public List<PatientLookupDto> lookupPatients(String name, String phoneSuffix, LocalDate dateOfBirth,
+                                                 String uniqueIdPrefix, Integer limit) {
+        String namePattern = SearchPatterns.prefix(User.normalizeName(name));
+        String phonePattern = null;
+        if (phoneSuffix != null && !phoneSuffix.isBlank()) {
+            String reversed = User.reversedPhoneDigits(phoneSuffix);
+            if (reversed.length() < MIN_PHONE_SUFFIX_DIGITS) {
+                throw new BadRequestException("Enter at least " + MIN_PHONE_SUFFIX_DIGITS + " digits of the phone number.");
+            }
+            phonePattern = reversed + "%"; // Digits only, nothing to escape
+        }
+        String uniqueIdPattern = uniqueIdPrefix == null ? null : SearchPatterns.prefix(uniqueIdPrefix.strip().toUpperCase(Locale.ROOT));
+        if (namePattern == null && phonePattern == null && dateOfBirth == null && uniqueIdPattern == null) {
+            throw new BadRequestException("Provide at least one of: name, phone, dateOfBirth, uniqueId.");
+        }
+        int maxResults = limit == null ? LOOKUP_DEFAULT_LIMIT : Math.max(1, Math.min(limit, LOOKUP_MAX_LIMIT));
+        return patientRepository.lookup(namePattern, phonePattern, dateOfBirth, uniqueIdPattern, Limit.of(maxResults));
+    }
+
+    // Keyset listing ordered by last name (then user id): two queries per page, no offset scan and no count
+    public CursorPageDto<PatientResponseDto> scrollPatients(String cursor, Integer size) {
+        String[] after = KeysetCursor.decode(cursor, CURSOR_PATIENTS, 2);
+        int pageSize = KeysetCursor.clampSize(size);
+        Limit limit = Limit.of(pageSize + 1); // One extra row tells whether there is a next page
+        List<Long> ids;
+        if (after == null) {
+            ids = patientRepository.scrollIds(limit);
+        } else {
+            Long afterUserId;
+            try {
+                afterUserId = Long.valueOf(after[1]);
+            } catch (NumberFormatException e) {
+                throw KeysetCursor.invalid();
+            }
+            ids = patientRepository.scrollIdsAfter(after[0], afterUserId, limit);
+        }
+
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+        Map<Long, Patient> byId = patientRepository.findAllWithUserByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(Patient::getId, Function.identity()));
+        List<Patient> patients = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        String nextCursor = null;
+        if (hasNext && !patients.isEmpty()) {
+            User last = patients.get(patients.size() - 1).getUser();
+            String lastName = last.getLastName() == null ? "" : last.getLastName(); // Same key as the query's COALESCE
+            nextCursor = KeysetCursor.encode(CURSOR_PATIENTS, lastName, last.getId().toString());
+        }
+        List<PatientResponseDto> content = patients.stream().map(this::mapToPatientResponseDto).toList();
+        return new CursorPageDto<>(content, content.size(), nextCursor, nextCursor != null);
+    }
+
     @Transactional
     public PatientResponseDto updatePatient(Long patientId, PatientRequestDto patientRequestDto) {
         Patient patient = patientRepository.findById(patientId)
@@ -138,6 +220,7 @@ public class PatientService {
         // userRepository.save(user); // May not be needed depending on cascade settings
 
         Patient updatedPatient = patientRepository.save(patient);
+        duplicateService.updateKeys(updatedPatient); // Name, phone or date of birth may have changed
         return mapToPatientResponseDto(updatedPatient);
     }
 
@@ -150,20 +233,15 @@ public class PatientService {
         // User user = patient.getUser();
         // user.setActive(false);
         // userRepository.save(user);
+        Long userId = patient.getUser().getId();
+        duplicateService.deleteKeys(patientId);
         patientRepository.delete(patient);
+        TransactionCallbacks.afterCommit(() -> principalCache.invalidate(userId)); // Outstanding tokens stop working
     }
 
 
     // --- Helper Methods ---
 
-    private String generatePatientUniqueId() {
-        // THIS IS STILL A VERY SIMPLISTIC AND NOT PRODUCTION-READY ID GENERATOR.
-        // It's prone to race conditions and issues if records are deleted.
-        // For a real system, use a database sequence, UUID, or a more robust strategy.
-        long nextVal = patientIdCounter.incrementAndGet(); // Atomically increment
-        return "P" + String.format("%07d", nextVal);
-    }
-
     private PatientResponseDto mapToPatientResponseDto(Patient patient) {
         PatientResponseDto dto = new PatientResponseDto(); // Using the no-argument constructor
 
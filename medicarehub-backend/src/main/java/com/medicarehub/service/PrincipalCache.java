@@ -0,0 +1,77 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.User;
+import com.medicarehub.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+/**
+ * Resolves the {@link UserDetailsImpl} for an already validated JWT without going to the database
+ * on every request.
+ * <p>
+ * The token's claims are never trusted on their own: the principal (active flag and roles) always comes
+ * from a database read of the user, found by the token's {@code userId} claim, and that read is cached per
+ * user id for {@code security.principal-cache.ttl-seconds}. A node that has not read the user yet (cold
+ * start, another node) therefore sees its current state. Deactivating, deleting or changing the roles of a
+ * user drops the entry on the node that made the change; other nodes pick the change up within the TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Value("${security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${security.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final ExpiringCache<Long, UserDetailsImpl> cache = new ExpiringCache<>(() -> ttlSeconds, () -> maxEntries);
+
+    /**
+     * Returns the principal for a validated token, or null if the user no longer exists. The caller must
+     * still check {@link UserDetailsImpl#isEnabled()}.
+     * Tokens without a {@code userId} claim (issued before the claim was added) fall back to a lookup by username.
+     */
+    public UserDetailsImpl resolve(String username, Long userId) {
+        if (userId == null) {
+            return (UserDetailsImpl) userDetailsService.loadUserByUsername(username);
+        }
+
+        UserDetailsImpl principal = cache.get(userId);
+        if (principal != null) {
+            return principal.getUsername().equals(username) ? principal : null;
+        }
+
+        long stamp = cache.stamp(userId);
+        principal = userRepository.findWithRolesById(userId)
+                .map(PrincipalCache::withoutPassword)
+                .orElse(null);
+        if (principal != null) {
+            cache.put(userId, principal, stamp);
+        }
+        return principal == null || principal.getUsername().equals(username) ? principal : null;
+    }
+
+    /**
+     * Forgets everything cached about a user, so the next request with one of their tokens reads the user again.
+     * Call after commit whenever a user is deactivated, deleted or their roles change.
+     */
+    public void invalidate(Long userId) {
+        cache.evict(userId);
+    }
+
+    // Only valid credentials are needed for login, so the password hash is not kept in memory
+    private static UserDetailsImpl withoutPassword(User user) {
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        return new UserDetailsImpl(principal.getId(), principal.getUsername(), principal.getEmail(), null,
+                principal.isEnabled(), new ArrayList<>(principal.getAuthorities()));
+    }
+}
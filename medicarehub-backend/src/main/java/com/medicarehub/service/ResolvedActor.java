@@ -0,0 +1,75 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.ERole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * The authenticated caller as authorization checks need it: user id, the linked doctor/patient id (if any)
+ * and the roles as a bitmask. Built once per request by {@link ActorResolver}; role checks are bit tests
+ * and ownership checks compare ids, so neither touches the database.
+ */
+@Getter
+@AllArgsConstructor
+public final class ResolvedActor {
+
+    private static final int STAFF = bit(ERole.ROLE_ADMIN) | bit(ERole.ROLE_RECEPTIONIST);
+
+    private final Long userId;
+    private final String username;
+    private final Long doctorId;   // Null unless the user has a doctor profile
+    private final Long patientId;  // Null unless the user has a patient profile
+    private final int roleMask;
+
+    public boolean hasRole(ERole role) {
+        return hasRole(roleMask, role);
+    }
+
+    public boolean hasAnyRole(ERole... roles) {
+        for (ERole role : roles) {
+            if (hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Admin or receptionist
+    public boolean isStaff() {
+        return (roleMask & STAFF) != 0;
+    }
+
+    // Logged in as the given doctor
+    public boolean isDoctor(Long doctorId) {
+        return hasRole(ERole.ROLE_DOCTOR) && this.doctorId != null && this.doctorId.equals(doctorId);
+    }
+
+    // Logged in as the given patient
+    public boolean isPatient(Long patientId) {
+        return hasRole(ERole.ROLE_PATIENT) && this.patientId != null && this.patientId.equals(patientId);
+    }
+
+    public static int roleMask(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            for (ERole role : ERole.values()) {
+                if (role.name().equals(authority.getAuthority())) {
+                    mask |= bit(role);
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static boolean hasRole(int roleMask, ERole role) {
+        return (roleMask & bit(role)) != 0;
+    }
+
+    private static int bit(ERole role) {
+        return 1 << role.ordinal();
+    }
+}
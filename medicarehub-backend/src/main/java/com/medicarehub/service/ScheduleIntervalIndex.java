@@ -0,0 +1,127 @@
+package com.medicarehub.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable per-doctor interval index over schedule entries, used to reject overlapping entries.
+ * <p>
+ * Entries are bucketed by what they apply to: recurring entries by {@code dayOfWeek}, overrides by
+ * {@code specificDate}. A recurring entry and a specific-date override never conflict with each other,
+ * since the override replaces the weekly schedule for that date. Inside a bucket the intervals are
+ * sorted by start time with a running maximum of end times, so once built, "does [start, end) overlap
+ * anything?" is a binary search plus a short backward walk, even if legacy data already contains overlaps.
+ * <p>
+ * Building costs O(n log n) in the doctor's entries. The index is built once per compiled schedule (see
+ * {@link DoctorScheduleCache}) and reused by reads and the audit; the write path builds a fresh one from the
+ * rows it read under the doctor row lock, so a single check there is O(n log n), not O(log n).
+ */
+public final class ScheduleIntervalIndex {
+
+    private final Map<DayOfWeek, Bucket> weekly = new EnumMap<>(DayOfWeek.class);
+    private final Map<LocalDate, Bucket> overrides = new HashMap<>();
+
+    private ScheduleIntervalIndex() {
+    }
+
+    public static ScheduleIntervalIndex of(List<ScheduleWindow> schedules) {
+        Map<DayOfWeek, List<ScheduleWindow>> weeklyEntries = new EnumMap<>(DayOfWeek.class);
+        Map<LocalDate, List<ScheduleWindow>> overrideEntries = new HashMap<>();
+        for (ScheduleWindow schedule : schedules) {
+            if (schedule.getSpecificDate() != null) {
+                overrideEntries.computeIfAbsent(schedule.getSpecificDate(), d -> new ArrayList<>()).add(schedule);
+            } else if (schedule.getDayOfWeek() != null) {
+                weeklyEntries.computeIfAbsent(schedule.getDayOfWeek(), d -> new ArrayList<>()).add(schedule);
+            }
+        }
+        ScheduleIntervalIndex index = new ScheduleIntervalIndex();
+        weeklyEntries.forEach((day, entries) -> index.weekly.put(day, new Bucket(entries)));
+        overrideEntries.forEach((date, entries) -> index.overrides.put(date, new Bucket(entries)));
+        return index;
+    }
+
+    /**
+     * Returns an entry overlapping [startMinute, endMinute) in the same bucket (same specific date if given,
+     * otherwise same day of week), or null if there is none. {@code excludedScheduleId} (the entry being
+     * updated) is never reported.
+     */
+    public ScheduleWindow findOverlap(DayOfWeek dayOfWeek, LocalDate specificDate, int startMinute, int endMinute,
+                                      Long excludedScheduleId) {
+        Bucket bucket = specificDate != null ? overrides.get(specificDate) : weekly.get(dayOfWeek);
+        return bucket == null ? null : bucket.findOverlap(startMinute, endMinute, excludedScheduleId);
+    }
+
+    // Reports every overlapping pair once (bulk audit mode)
+    public void forEachOverlap(BiConsumer<ScheduleWindow, ScheduleWindow> consumer) {
+        weekly.values().forEach(bucket -> bucket.forEachOverlap(consumer));
+        overrides.values().forEach(bucket -> bucket.forEachOverlap(consumer));
+    }
+
+    private static final class Bucket {
+        private final ScheduleWindow[] entries; // sorted by start time
+        private final int[] starts;
+        private final int[] ends;
+        private final int[] maxEndSoFar;        // max(ends[0..i])
+
+        private Bucket(List<ScheduleWindow> schedules) {
+            entries = schedules.toArray(new ScheduleWindow[0]);
+            Arrays.sort(entries, Comparator.comparingInt(ScheduleWindow::getStartMinute));
+            starts = new int[entries.length];
+            ends = new int[entries.length];
+            maxEndSoFar = new int[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                starts[i] = entries[i].getStartMinute();
+                ends[i] = entries[i].getEndMinute();
+                maxEndSoFar[i] = i == 0 ? ends[i] : Math.max(maxEndSoFar[i - 1], ends[i]);
+            }
+        }
+
+        private ScheduleWindow findOverlap(int start, int end, Long excludedScheduleId) {
+            // Last entry starting before 'end'; any overlap must be at or before it.
+            // Walking back stops as soon as no earlier entry can reach past 'start'.
+            for (int i = lastStartingBefore(end); i >= 0 && maxEndSoFar[i] > start; i--) {
+                if (ends[i] > start && !entries[i].getScheduleId().equals(excludedScheduleId)) {
+                    return entries[i];
+                }
+            }
+            return null;
+        }
+
+        private void forEachOverlap(BiConsumer<ScheduleWindow, ScheduleWindow> consumer) {
+            for (int i = 1; i < entries.length; i++) {
+                if (maxEndSoFar[i - 1] <= starts[i]) {
+                    continue;
+                }
+                for (int j = i - 1; j >= 0; j--) {
+                    if (ends[j] > starts[i]) {
+                        consumer.accept(entries[j], entries[i]);
+                    }
+                }
+            }
+        }
+
+        private int lastStartingBefore(int minute) {
+            int low = 0;
+            int high = starts.length - 1;
+            int result = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < minute) {
+                    result = mid;
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return result;
+        }
+    }
+}
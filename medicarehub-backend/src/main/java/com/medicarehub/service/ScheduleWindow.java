@@ -0,0 +1,38 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.DoctorSchedule;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+// Immutable, detached copy of a DoctorSchedule row, safe to keep in in-memory caches.
+// Times are stored as minute-of-day values.
+@Getter
+@AllArgsConstructor
+public final class ScheduleWindow {
+    private final Long scheduleId;
+    private final DayOfWeek dayOfWeek;     // null for specific-date entries
+    private final LocalDate specificDate;  // null for recurring entries
+    private final int startMinute;
+    private final int endMinute;
+    private final int slotDurationMinutes;
+    private final boolean available;
+
+    public static ScheduleWindow of(DoctorSchedule schedule) {
+        return new ScheduleWindow(
+                schedule.getId(),
+                schedule.getSpecificDate() == null ? schedule.getDayOfWeek() : null,
+                schedule.getSpecificDate(),
+                DoctorAvailabilityIndex.toMinute(schedule.getStartTime()),
+                DoctorAvailabilityIndex.toMinute(schedule.getEndTime()),
+                schedule.getSlotDurationMinutes(),
+                schedule.isAvailable()
+        );
+    }
+
+    public String describeTimes() {
+        return DoctorAvailabilityIndex.timeLabel(startMinute) + "-" + DoctorAvailabilityIndex.timeLabel(endMinute);
+    }
+}
@@ -0,0 +1,19 @@
+package com.medicarehub.service;
+
+/**
+ * LIKE patterns for the indexed search columns. Only a trailing '%' is ever added, so the database can
+ * range-scan the index; wildcards typed by the user are escaped with '!' (queries declare {@code ESCAPE '!'}).
+ */
+final class SearchPatterns {
+
+    private SearchPatterns() {
+    }
+
+    // "o'br" -> "o'br%", "50%" -> "50!%%"; null for null/empty input (criterion not used)
+    static String prefix(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
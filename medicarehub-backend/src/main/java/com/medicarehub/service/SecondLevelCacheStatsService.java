@@ -0,0 +1,62 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.CacheRegionStatsDto;
+import com.medicarehub.dto.SecondLevelCacheStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Hit/miss counters of the Hibernate second-level and query caches (this node only)
+@Service
+public class SecondLevelCacheStatsService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheStatsDto getStats() {
+        Statistics statistics = statistics();
+        List<CacheRegionStatsDto> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.add(new CacheRegionStatsDto(regionName, region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), hitRatio(region.getHitCount(), region.getMissCount())));
+            }
+        }
+        return new SecondLevelCacheStatsDto(
+                statistics.isStatisticsEnabled(),
+                statistics.getStart(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount(),
+                statistics.getPrepareStatementCount(),
+                regions);
+    }
+
+    // Starts a new counting period (the cached entries stay)
+    public void reset() {
+        statistics().clear();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : Math.round(hits * 1000.0 / total) / 1000.0;
+    }
+}
@@ -0,0 +1,152 @@
+package com.medicarehub.service;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory table of short-lived slot holds taken while a user fills in the booking form.
+ * <p>
+ * A hold reserves one slot (doctor, date, start minute) for {@code appointment.slot-hold.ttl-seconds}.
+ * The table is lock-free: a slot is claimed with {@code putIfAbsent}, and an expired hold is taken over
+ * with a compare-and-replace, so two users can never both hold the same slot. Expired holds are ignored
+ * on read and swept out lazily. Holds are per node and never persisted; the booking itself remains the
+ * source of truth.
+ */
+@Component
+public class SlotHoldRegistry {
+
+    // How often expired holds are swept out of the maps
+    private static final long PURGE_INTERVAL_MILLIS = 30_000;
+
+    @Value("${appointment.slot-hold.ttl-seconds:180}")
+    private long ttlSeconds;
+
+    private final ConcurrentMap<SlotKey, Hold> holdsBySlot = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Hold> holdsByToken = new ConcurrentHashMap<>();
+    private final AtomicLong nextPurgeAtMillis = new AtomicLong();
+
+    /**
+     * Claims the slot for {@code owner}. Returns the new hold, the owner's existing hold if they already
+     * hold this slot, or null if somebody else holds it.
+     */
+    public Hold tryHold(Long doctorId, LocalDate date, int startMinute, int endMinute, String owner) {
+        long now = System.currentTimeMillis();
+        purgeExpiredIfDue(now);
+
+        SlotKey key = new SlotKey(doctorId, date, startMinute);
+        Hold hold = new Hold(UUID.randomUUID().toString(), key, endMinute, owner, now + ttlSeconds * 1000);
+        while (true) {
+            Hold existing = holdsBySlot.putIfAbsent(key, hold);
+            if (existing == null) {
+                holdsByToken.put(hold.getToken(), hold);
+                return hold;
+            }
+            if (existing.isExpired(now)) {
+                if (holdsBySlot.replace(key, existing, hold)) {
+                    holdsByToken.remove(existing.getToken(), existing);
+                    holdsByToken.put(hold.getToken(), hold);
+                    return hold;
+                }
+                continue; // Lost the race for the expired hold, look again
+            }
+            return existing.getOwner().equals(owner) ? existing : null;
+        }
+    }
+
+    // The live hold for a token, or null if it is unknown, released or expired
+    public Hold findValid(String token) {
+        Hold hold = holdsByToken.get(token);
+        if (hold == null || hold.isExpired(System.currentTimeMillis()) || holdsBySlot.get(hold.getKey()) != hold) {
+            return null;
+        }
+        return hold;
+    }
+
+    // True if a live hold with a different token covers the slot
+    public boolean isHeldByOther(Long doctorId, LocalDate date, int startMinute, String token) {
+        Hold hold = holdsBySlot.get(new SlotKey(doctorId, date, startMinute));
+        return hold != null && !hold.isExpired(System.currentTimeMillis()) && !hold.getToken().equals(token);
+    }
+
+    public boolean isHeld(Long doctorId, LocalDate date, int startMinute) {
+        return isHeldByOther(doctorId, date, startMinute, null);
+    }
+
+    public void release(Hold hold) {
+        holdsBySlot.remove(hold.getKey(), hold);
+        holdsByToken.remove(hold.getToken(), hold);
+    }
+
+    // Wraps an availability consumer so held slots are skipped (no-op wrapper when nothing is held)
+    public DoctorAvailabilityIndex.SlotConsumer excludingHeld(Long doctorId, LocalDate date, DoctorAvailabilityIndex.SlotConsumer consumer) {
+        if (holdsBySlot.isEmpty()) {
+            return consumer;
+        }
+        return (start, end) -> {
+            if (!isHeld(doctorId, date, start)) {
+                consumer.accept(start, end);
+            }
+        };
+    }
+
+    // Start minutes of the doctor's day that nobody holds, for scans that stop after a number of free slots
+    public IntPredicate notHeld(Long doctorId, LocalDate date) {
+        if (holdsBySlot.isEmpty()) {
+            return start -> true;
+        }
+        return start -> !isHeld(doctorId, date, start);
+    }
+
+    private void purgeExpiredIfDue(long now) {
+        long due = nextPurgeAtMillis.get();
+        if (now < due || !nextPurgeAtMillis.compareAndSet(due, now + PURGE_INTERVAL_MILLIS)) {
+            return;
+        }
+        holdsByToken.values().forEach(hold -> {
+            if (hold.isExpired(now)) {
+                release(hold);
+            }
+        });
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static final class SlotKey {
+        private final Long doctorId;
+        private final LocalDate date;
+        private final int startMinute;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Hold {
+        private final String token;
+        private final SlotKey key;
+        private final int endMinute;
+        private final String owner;       // username of the user who took the hold
+        private final long expiresAtMillis;
+
+        public boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+
+        public boolean covers(Long doctorId, LocalDate date, int startMinute) {
+            return key.getDoctorId().equals(doctorId) && key.getDate().equals(date) && key.getStartMinute() == startMinute;
+        }
+
+        public int getDurationMinutes() {
+            return endMinute - key.getStartMinute();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.RevokedToken;
+import com.medicarehub.repository.RevokedTokenRepository;
+import com.medicarehub.security.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Revoked JWT ids (logout, refresh token rotation), checked by AuthTokenFilter on every request without
+ * touching the database.
+ * <p>
+ * A Bloom filter answers the common "not revoked" case with a few bit tests; only on a filter hit is the exact
+ * set consulted, so a false positive never rejects a valid token. The {@code revoked_tokens} table is the
+ * source of truth: it is loaded at startup and polled every {@code jwt.revocation.sync-interval-ms} for
+ * revocations made on other nodes. Entries are dropped once the token would have expired anyway, and the
+ * filter is rebuilt then (Bloom filters cannot forget).
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    // Re-read a little before the last sync so a revocation committed during the previous poll is not missed
+    private static final long SYNC_OVERLAP_MILLIS = 5_000;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final ConcurrentMap<String, Long> expiresAtByJti = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private volatile Instant lastSync = Instant.EPOCH;
+
+    @PostConstruct
+    void load() {
+        Instant now = Instant.now();
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::addLocal);
+        lastSync = now;
+        logger.info("Loaded {} revoked token ids", expiresAtByJti.size());
+    }
+
+    // Constant time; tokens without an id (issued before ids were added) are never considered revoked
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && expiresAtByJti.containsKey(jti);
+    }
+
+    /**
+     * Revokes a token id until {@code expiresAt}. Returns false if it was already revoked, which refresh token
+     * rotation uses to let only one of two concurrent refreshes with the same token win (per node; the table
+     * catches the rest at the next sync).
+     */
+    @Transactional
+    public boolean revoke(String jti, Instant expiresAt) {
+        if (expiresAtByJti.putIfAbsent(jti, expiresAt.toEpochMilli()) != null) {
+            return false;
+        }
+        filter.put(jti);
+        if (!revokedTokenRepository.existsById(jti)) {
+            revokedTokenRepository.save(new RevokedToken(jti, expiresAt, Instant.now()));
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}",
+            initialDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    @Transactional
+    public void sync() {
+        Instant now = Instant.now();
+        List<RevokedToken> recent = revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                lastSync.minusMillis(SYNC_OVERLAP_MILLIS), now);
+        recent.forEach(this::addLocal);
+        lastSync = now;
+
+        long nowMillis = now.toEpochMilli();
+        if (expiresAtByJti.values().removeIf(expiresAt -> expiresAt <= nowMillis) || expiresAtByJti.size() > expectedEntries) {
+            rebuildFilter();
+        }
+        revokedTokenRepository.deleteExpired(now);
+    }
+
+    private void addLocal(RevokedToken token) {
+        expiresAtByJti.put(token.getJti(), token.getExpiresAt().toEpochMilli());
+        filter.put(token.getJti());
+    }
+
+    private synchronized void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, expiresAtByJti.size() * 2), falsePositiveRate);
+        expiresAtByJti.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        // An id revoked while rebuilding may have missed the new filter; add it again
+        expiresAtByJti.keySet().forEach(rebuilt::put);
+    }
+}
@@ -0,0 +1,42 @@
+package com.medicarehub.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Small helper for keeping in-memory structures in step with the database.
+// Updates are only applied once the surrounding transaction has actually committed,
+// so a rolled-back booking never leaves a phantom entry behind.
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            // No transaction in progress (e.g. called from a non-transactional method), apply immediately
+            action.run();
+        }
+    }
+
+    // Undo hook for optimistic in-memory changes made inside a transaction; runs unless it commits
+    public static void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        action.run();
+                    }
+                }
+            });
+        }
+        // Without a transaction there is nothing to roll back; the caller owns the change
+    }
+}
@@ -0,0 +1,69 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One-off migration for users created before the normalized search columns existed: fills them in using
+ * {@link User#normalizeName(String)} and {@link User#reversedPhoneDigits(String)}, so stored values match the
+ * search terms exactly. One chunk per scheduler run, so startup is not held up and the users table is never
+ * locked for long. Users saved since fill the columns themselves. Once a run finds nothing left, later runs
+ * return immediately.
+ */
+@Component
+public class UserSearchNameBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchNameBackfill.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile boolean done;
+    private int total; // Only touched by the scheduler thread
+
+    @Scheduled(fixedDelayString = "${user.search-name-backfill.delay-ms:1000}",
+            initialDelayString = "${user.search-name-backfill.initial-delay-ms:5000}")
+    public void backfillNextChunk() {
+        if (done) {
+            return;
+        }
+        int updated = backfillChunk();
+        total += updated;
+        if (updated == 0) {
+            done = true;
+            if (total > 0) {
+                logger.info("Backfilled search fields for {} users", total);
+            }
+        }
+    }
+
+    // Fills in up to CHUNK_SIZE users; returns how many were updated
+    public int backfillChunk() {
+        List<Object[]> updates = jdbcTemplate.query(
+                "SELECT id, first_name, last_name, phone_number FROM users WHERE search_full_name IS NULL " +
+                        "OR (phone_number IS NOT NULL AND search_phone_reversed IS NULL) LIMIT " + CHUNK_SIZE,
+                (rs, rowNum) -> {
+                    String firstName = rs.getString("first_name");
+                    String lastName = rs.getString("last_name");
+                    return new Object[]{
+                            User.normalizeName((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName)),
+                            User.normalizeName(lastName),
+                            User.reversedPhoneDigits(rs.getString("phone_number")),
+                            rs.getLong("id")
+                    };
+                });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE users SET search_full_name = ?, search_last_name = ?, search_phone_reversed = ? WHERE id = ?", updates);
+        }
+        return updates.size();
+    }
+}
@@ -0,0 +1,171 @@
+package com.medicarehub.controller;
+
+import com.medicarehub.entity.Department;
+import com.medicarehub.repository.DepartmentRepository;
+import com.medicarehub.service.DepartmentService;
+import com.medicarehub.service.DoctorDirectoryIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Conditional GETs against the department cache, with the real service over a mocked repository.
+// Security filters are left out: access rules are not what is tested here. A fresh context per test starts
+// every test with an empty cache.
+@WebMvcTest(DepartmentController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class DepartmentControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private DepartmentService departmentService;
+
+	@MockitoBean
+	private DepartmentRepository departmentRepository;
+
+	@MockitoBean
+	private DoctorDirectoryIndex doctorDirectoryIndex;
+
+	private final List<Department> rows = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		rows.add(department(1L, "Cardiology", "Heart care"));
+		rows.add(department(2L, "Neurology", "Brain care"));
+		when(departmentRepository.findAll(any(Sort.class))).thenAnswer(invocation -> List.copyOf(rows));
+		when(departmentRepository.save(any(Department.class))).thenAnswer(invocation -> {
+			Department saved = invocation.getArgument(0);
+			if (saved.getId() == null) {
+				saved.setId(3L);
+			}
+			return saved;
+		});
+	}
+
+	private static Department department(Long id, String name, String description) {
+		Department department = new Department(name, description);
+		department.setId(id);
+		return department;
+	}
+
+	private String etagOf(String url) throws Exception {
+		return mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	@Test
+	void matchingIfNoneMatchGets304WithoutBody() throws Exception {
+		String listEtag = etagOf("/api/departments");
+		String departmentEtag = etagOf("/api/departments/1");
+
+		mockMvc.perform(get("/api/departments").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+		mockMvc.perform(get("/api/departments/1").header(HttpHeaders.IF_NONE_MATCH, departmentEtag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+		mockMvc.perform(get("/api/departments").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[1].name").value("Neurology"));
+		verify(departmentRepository, times(1)).findAll(any(Sort.class)); // All served from one load
+	}
+
+	@Test
+	void changedDepartmentGetsANewTag() throws Exception {
+		String cardiology = etagOf("/api/departments/1");
+		String neurology = etagOf("/api/departments/2");
+		String list = etagOf("/api/departments");
+		when(departmentRepository.findById(1L)).thenReturn(Optional.of(rows.get(0)));
+
+		mockMvc.perform(put("/api/departments/1").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Cardiology\",\"description\":\"Heart and vessels\"}"))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/departments/1").header(HttpHeaders.IF_NONE_MATCH, cardiology))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.description").value("Heart and vessels"));
+		assertNotEquals(cardiology, etagOf("/api/departments/1"));
+		assertNotEquals(list, etagOf("/api/departments"));
+		assertEquals(neurology, etagOf("/api/departments/2")); // Unchanged department, unchanged tag
+	}
+
+	@Test
+	void createUpdateAndDeleteEvictTheCache() throws Exception {
+		etagOf("/api/departments");
+		etagOf("/api/departments");
+		verify(departmentRepository, times(1)).findAll(any(Sort.class));
+
+		mockMvc.perform(post("/api/departments").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Oncology\",\"description\":\"Cancer care\"}"))
+				.andExpect(status().isCreated());
+		rows.add(department(3L, "Oncology", "Cancer care"));
+		mockMvc.perform(get("/api/departments")).andExpect(jsonPath("$.length()").value(3));
+		verify(departmentRepository, times(2)).findAll(any(Sort.class));
+
+		when(departmentRepository.findById(3L)).thenReturn(Optional.of(rows.get(2)));
+		mockMvc.perform(put("/api/departments/3").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Oncology\",\"description\":\"Tumour care\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/departments/3")).andExpect(jsonPath("$.description").value("Tumour care"));
+		verify(departmentRepository, times(3)).findAll(any(Sort.class));
+
+		when(departmentRepository.existsById(3L)).thenReturn(true);
+		mockMvc.perform(delete("/api/departments/3")).andExpect(status().isNoContent());
+		rows.remove(2);
+		mockMvc.perform(get("/api/departments")).andExpect(jsonPath("$.length()").value(2));
+		verify(departmentRepository, times(4)).findAll(any(Sort.class));
+	}
+
+	@Test
+	void callersCannotChangeTheCachedSnapshot() throws Exception {
+		String list = etagOf("/api/departments");
+
+		departmentService.getAllDepartments().get(0).setName("Changed by a caller");
+		departmentService.getDepartmentById(1L).setDescription("Changed by a caller");
+
+		mockMvc.perform(get("/api/departments").header(HttpHeaders.IF_NONE_MATCH, list))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/departments/1"))
+				.andExpect(jsonPath("$.name").value("Cardiology"))
+				.andExpect(jsonPath("$.description").value("Heart care"));
+	}
+
+	// Only the controller and the real service: the application class would also start the data seeding runner
+	@SpringBootConfiguration
+	@Import({DepartmentController.class, DepartmentService.class})
+	static class WebSlice {
+	}
+}
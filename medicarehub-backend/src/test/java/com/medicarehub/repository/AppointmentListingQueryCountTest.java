@@ -0,0 +1,162 @@
+package com.medicarehub.repository;
+
+import com.medicarehub.config.PersistenceConfig;
+import com.medicarehub.config.QueryCountInspector;
+import com.medicarehub.entity.Appointment;
+import com.medicarehub.entity.AppointmentStatus;
+import com.medicarehub.entity.Department;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Listing a page of appointments must cost one row query plus one count, however many rows the page holds.
+// Runs against in-memory H2 (MySQL mode) with the application's statement inspector registered.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=listing"
+})
+class AppointmentListingQueryCountTest {
+
+	private static final int PAGE_SIZE = 20;
+	private static final int DOCTORS = 3;
+	private static final int APPOINTMENTS = 45;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	private Long patientId;
+	private Long doctorId;
+
+	@BeforeEach
+	void seed() {
+		Department department = entityManager.persist(new Department("Cardiology", "Heart care"));
+		Patient patient = entityManager.persist(new Patient(
+				new User("patient1", "patient1@example.com", "x", "Jane", "Doe"), "P0000001", LocalDate.now()));
+		patientId = patient.getId();
+
+		Doctor[] doctors = new Doctor[DOCTORS];
+		for (int d = 0; d < DOCTORS; d++) {
+			doctors[d] = entityManager.persist(new Doctor(
+					new User("doctor" + d, "doctor" + d + "@example.com", "x", "Greg", "House" + d),
+					department, "Cardiology", "LIC-" + d));
+		}
+		doctorId = doctors[0].getId();
+
+		LocalDate firstDay = LocalDate.now().plusDays(1);
+		for (int i = 0; i < APPOINTMENTS; i++) {
+			entityManager.persist(new Appointment(patient, doctors[i % DOCTORS],
+					firstDay.plusDays(i / 8), LocalTime.of(9, 0).plusMinutes(30L * (i % 8)), 30, "Routine check-up"));
+		}
+		entityManager.flush();
+		entityManager.clear(); // Nothing may be served from the persistence context
+	}
+
+	@Test
+	void patientPageIsOneQueryPlusCount() {
+		QueryCountInspector.reset();
+		Page<AppointmentRow> page = appointmentRepository.findRowsByPatientId(patientId, firstPage());
+		page.getContent().forEach(AppointmentListingQueryCountTest::assertFullyPopulated);
+
+		assertEquals(PAGE_SIZE, page.getNumberOfElements());
+		assertEquals(APPOINTMENTS, page.getTotalElements());
+		assertEquals(2, QueryCountInspector.current(), "rows + count");
+	}
+
+	@Test
+	void doctorPageIsOneQueryPlusCount() {
+		QueryCountInspector.reset();
+		Page<AppointmentRow> page = appointmentRepository.findRowsByDoctorId(doctorId, firstPage());
+		page.getContent().forEach(AppointmentListingQueryCountTest::assertFullyPopulated);
+
+		assertEquals(APPOINTMENTS / DOCTORS, page.getTotalElements());
+		assertEquals(2, QueryCountInspector.current(), "rows + count");
+	}
+
+	@Test
+	void filteredPageIsOneQueryPlusCount() {
+		QueryCountInspector.reset();
+		Page<AppointmentRow> page = appointmentRepository.findAllFilteredRows(Optional.empty(),
+				Optional.of(AppointmentStatus.SCHEDULED), Optional.of("jan%"), Optional.of("house%"), firstPage());
+		page.getContent().forEach(AppointmentListingQueryCountTest::assertFullyPopulated);
+
+		assertEquals(PAGE_SIZE, page.getNumberOfElements());
+		assertEquals(APPOINTMENTS, page.getTotalElements());
+		assertEquals(2, QueryCountInspector.current(), "rows + count");
+	}
+
+	@Test
+	void keysetWalkIsOneQueryPerPageWithoutCount() {
+		List<AppointmentRow> seen = new ArrayList<>();
+		List<AppointmentRow> page = appointmentRepository.scrollRowsByPatientId(patientId, Limit.of(PAGE_SIZE));
+		while (!page.isEmpty()) {
+			seen.addAll(page);
+			AppointmentRow last = page.get(page.size() - 1);
+			QueryCountInspector.reset();
+			page = appointmentRepository.scrollRowsByPatientIdAfter(patientId,
+					last.getAppointmentDate(), last.getAppointmentTime(), last.getId(), Limit.of(PAGE_SIZE));
+			assertEquals(1, QueryCountInspector.current(), "rows only, no count");
+		}
+
+		assertEquals(APPOINTMENTS, seen.size());
+		assertEquals(APPOINTMENTS, seen.stream().map(AppointmentRow::getId).distinct().count());
+		Comparator<AppointmentRow> keyOrder = Comparator.comparing(AppointmentRow::getAppointmentDate)
+				.thenComparing(AppointmentRow::getAppointmentTime)
+				.thenComparing(AppointmentRow::getId);
+		for (int i = 1; i < seen.size(); i++) {
+			assertTrue(keyOrder.compare(seen.get(i - 1), seen.get(i)) < 0, "strictly ordered by (date, time, id)");
+		}
+	}
+
+	private static PageRequest firstPage() {
+		return PageRequest.of(0, PAGE_SIZE, Sort.by("appointmentDate", "appointmentTime"));
+	}
+
+	private static void assertFullyPopulated(AppointmentRow row) {
+		assertEquals("Jane", row.getPatientFirstName());
+		assertEquals("P0000001", row.getPatientUniqueId());
+		assertNotNull(row.getDoctorLastName());
+		assertEquals("Cardiology", row.getDoctorDepartmentName());
+		assertEquals(AppointmentStatus.SCHEDULED, row.getStatus());
+		assertNotNull(row.getCreatedAt());
+	}
+
+	// Only the persistence layer: the application class would also start the data seeding runner
+	@SpringBootConfiguration
+	@EntityScan("com.medicarehub.entity")
+	@EnableJpaRepositories("com.medicarehub.repository")
+	@Import(PersistenceConfig.class)
+	static class JpaSlice {
+	}
+}
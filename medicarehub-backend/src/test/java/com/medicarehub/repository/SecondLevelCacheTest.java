@@ -0,0 +1,174 @@
+package com.medicarehub.repository;
+
+import com.medicarehub.config.PersistenceConfig;
+import com.medicarehub.config.QueryCountInspector;
+import com.medicarehub.entity.Department;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.entity.DoctorSchedule;
+import com.medicarehub.entity.ERole;
+import com.medicarehub.entity.Role;
+import com.medicarehub.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Once warm, department, role and schedule lookups must not reach the database, and a doctor load must
+// only read the user row. Every lookup runs in its own transaction (new session), as requests do, so
+// nothing can come from the persistence context. Regions get a prefix because the JCache manager is
+// shared by all application contexts in the JVM (the other repository tests use the same entity ids).
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=l2cache",
+		"spring.jpa.properties.hibernate.cache.region_prefix=l2test"
+})
+class SecondLevelCacheTest {
+
+	private static final int LOOKUPS = 50;
+	private static int seeded; // Data survives between tests (one context), so names get a suffix
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private RoleRepository roleRepository;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private DoctorScheduleRepository scheduleRepository;
+
+	private TransactionTemplate tx;
+	private Long departmentId;
+	private Long doctorId;
+
+	@BeforeEach
+	void seed() {
+		tx = new TransactionTemplate(transactionManager);
+		int n = ++seeded;
+		tx.executeWithoutResult(status -> {
+			Role doctorRole = roleRepository.findByName(ERole.ROLE_DOCTOR)
+					.orElseGet(() -> roleRepository.save(new Role(ERole.ROLE_DOCTOR)));
+			Department department = departmentRepository.save(new Department("Cardiology " + n, "Heart care"));
+			User user = new User("doctor" + n, "doctor" + n + "@example.com", "x", "Greg", "House");
+			user.setRoles(Set.of(doctorRole));
+			Doctor doctor = doctorRepository.save(new Doctor(user, department, "Cardiology", "LIC-" + n));
+			scheduleRepository.save(new DoctorSchedule(doctor, DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(13, 0), 30, null));
+			scheduleRepository.save(new DoctorSchedule(doctor, DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(17, 0), 30, null));
+			departmentId = department.getId();
+			doctorId = doctor.getId();
+		});
+		statistics().clear();
+	}
+
+	@Test
+	void referenceLookupsAreServedFromTheCache() {
+		Runnable lookups = () -> {
+			roleRepository.findByName(ERole.ROLE_DOCTOR).orElseThrow();
+			departmentRepository.findById(departmentId).orElseThrow();
+			assertEquals(2, scheduleRepository.findByDoctorId(doctorId).size());
+		};
+		int cold = statementsFor(lookups);
+		int warm = 0;
+		for (int i = 0; i < LOOKUPS; i++) {
+			warm += statementsFor(lookups);
+		}
+
+		assertTrue(cold >= 1, "the first round reads the schedules from the database");
+		assertEquals(0, warm);
+		assertTrue(statistics().getQueryCacheHitCount() >= 2L * LOOKUPS);
+	}
+
+	@Test
+	void doctorLoadOnlyReadsTheUserRow() {
+		Runnable load = () -> {
+			Doctor doctor = doctorRepository.findById(doctorId).orElseThrow();
+			assertEquals(1, doctor.getUser().getRoles().size());
+			doctor.getDepartment().getName();
+		};
+		int cold = statementsFor(load);
+		int warm = 0;
+		for (int i = 0; i < LOOKUPS; i++) {
+			warm += statementsFor(load);
+		}
+
+		assertTrue(cold >= 1);
+		assertTrue(warm <= LOOKUPS, "at most the (uncached) user row per load");
+		assertTrue(statistics().getSecondLevelCacheHitCount() >= 2L * LOOKUPS, "doctor and department come from the cache");
+	}
+
+	@Test
+	void writesAreVisibleThroughTheCache() {
+		statementsFor(() -> {
+			departmentRepository.findById(departmentId).orElseThrow();
+			scheduleRepository.findByDoctorId(doctorId);
+		});
+
+		tx.executeWithoutResult(status -> {
+			departmentRepository.findById(departmentId).orElseThrow().setName("Cardiology (renamed) " + departmentId);
+			Doctor doctor = doctorRepository.findById(doctorId).orElseThrow();
+			scheduleRepository.save(new DoctorSchedule(doctor, DayOfWeek.FRIDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), 20, null));
+		});
+
+		String[] name = new String[1];
+		int[] schedules = new int[1];
+		int statements = statementsFor(() -> {
+			name[0] = departmentRepository.findById(departmentId).orElseThrow().getName();
+			schedules[0] = scheduleRepository.findByDoctorId(doctorId).size();
+		});
+
+		assertEquals("Cardiology (renamed) " + departmentId, name[0]);
+		assertEquals(3, schedules[0]);
+		assertEquals(1, statements, "the schedule query result was invalidated by the insert; the department was updated in place");
+	}
+
+	// Statements issued by one lookup round in its own transaction
+	private int statementsFor(Runnable lookups) {
+		QueryCountInspector.reset();
+		tx.executeWithoutResult(status -> lookups.run());
+		return QueryCountInspector.current();
+	}
+
+	private Statistics statistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	// Only the persistence layer: the application class would also start the data seeding runner
+	@SpringBootConfiguration
+	@EntityScan("com.medicarehub.entity")
+	@EnableJpaRepositories("com.medicarehub.repository")
+	@Import(PersistenceConfig.class)
+	static class JpaSlice {
+	}
+}
@@ -0,0 +1,87 @@
+package com.medicarehub.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+	private static final int ENTRIES = 10_000;
+
+	@Test
+	void neverForgetsAnInsertedValue() {
+		BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < ENTRIES; i++) {
+			String id = UUID.randomUUID().toString();
+			ids.add(id);
+			filter.put(id);
+		}
+
+		for (String id : ids) {
+			assertTrue(filter.mightContain(id), id);
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheConfiguredRate() {
+		BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+		for (int i = 0; i < ENTRIES; i++) {
+			filter.put("revoked-" + i);
+		}
+
+		int falsePositives = 0;
+		int probes = 100_000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain("valid-" + i)) {
+				falsePositives++;
+			}
+		}
+		// 1% configured; allow for the spread of the hash, not for a broken one
+		assertTrue(falsePositives < probes * 0.02, falsePositives + " false positives in " + probes);
+	}
+
+	@Test
+	void emptyFilterContainsNothing() {
+		BloomFilter filter = new BloomFilter(0, 0.01);
+
+		assertFalse(filter.mightContain(""));
+		assertFalse(filter.mightContain("jti"));
+		assertTrue(filter.getBitCount() >= 64);
+	}
+
+	@Test
+	void concurrentPutsSetEveryBit() throws Exception {
+		// Values sharing bitmap words must not overwrite each other's bits
+		BloomFilter filter = new BloomFilter(ENTRIES, 0.01);
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<?>> writers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			writers.add(executor.submit(() -> {
+				for (int i = 0; i < ENTRIES / threads; i++) {
+					filter.put(thread + "-" + i);
+				}
+			}));
+		}
+		for (Future<?> writer : writers) {
+			writer.get();
+		}
+		executor.shutdown();
+
+		for (int t = 0; t < threads; t++) {
+			for (int i = 0; i < ENTRIES / threads; i++) {
+				assertTrue(filter.mightContain(t + "-" + i));
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.medicarehub.security;
+
+import com.medicarehub.exception.ServiceBusyException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Sign-in throughput of the bounded hashing pool for increasing BCrypt cost factors,
+// with many more concurrent "logins" than hashing threads (as at shift change). The timing run is tagged
+// "benchmark" and only runs with -Pbenchmark; the queue and timeout behaviour is tested in every build.
+class PasswordHashingBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordHashingBenchmarkTest.class);
+
+	private static final int CALLERS = 64;
+	private static final int LOGINS = 256;
+	private static final String PASSWORD = "correct horse battery staple";
+
+	@Test
+	@Tag("benchmark")
+	void loginThroughputByCostFactor() throws Exception {
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		for (int strength : new int[]{4, 6, 8, 10}) {
+			BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+			String hash = bcrypt.encode(PASSWORD);
+
+			try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(bcrypt, threads, LOGINS, 60_000)) {
+				ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+				AtomicInteger verified = new AtomicInteger();
+				long startedAt = System.nanoTime();
+				List<Future<?>> logins = new ArrayList<>();
+				for (int i = 0; i < LOGINS; i++) {
+					logins.add(callers.submit(() -> {
+						if (encoder.matches(PASSWORD, hash)) {
+							verified.incrementAndGet();
+						}
+					}));
+				}
+				for (Future<?> login : logins) {
+					login.get();
+				}
+				double seconds = (System.nanoTime() - startedAt) / 1e9;
+				callers.shutdown();
+
+				assertEquals(LOGINS, verified.get());
+				logger.info("BCrypt strength {}: {} logins on {} hashing threads, {} logins/s, avg hash {} us, avg queue wait {} us",
+						strength, LOGINS, threads, Math.round(LOGINS / seconds),
+						encoder.getStats().getAvgHashMicros(), encoder.getStats().getAvgQueueWaitMicros());
+			}
+		}
+	}
+
+	@Test
+	void rejectsWhenTheQueueIsFull() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		PasswordEncoder blocking = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return true;
+			}
+		};
+
+		try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 10_000)) {
+			ExecutorService callers = Executors.newFixedThreadPool(2);
+			Future<Boolean> running = callers.submit(() -> encoder.matches("a", "a"));
+			awaitActive(encoder);
+			Future<Boolean> queued = callers.submit(() -> encoder.matches("b", "b"));
+			awaitQueued(encoder);
+
+			// One hashing, one waiting: the next caller is turned away immediately
+			assertThrows(ServiceBusyException.class, () -> encoder.matches("c", "c"));
+			assertEquals(1, encoder.getStats().getRejected());
+
+			release.countDown();
+			assertTrue(running.get(5, TimeUnit.SECONDS));
+			assertTrue(queued.get(5, TimeUnit.SECONDS));
+			callers.shutdown();
+		}
+	}
+
+	@Test
+	void timedOutRequestWaitingInTheQueueNeverRuns() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger hashed = new AtomicInteger();
+		PasswordEncoder blocking = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				return rawPassword.toString();
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				hashed.incrementAndGet();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return true;
+			}
+		};
+
+		try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 200)) {
+			ExecutorService callers = Executors.newFixedThreadPool(1);
+			Future<Boolean> running = callers.submit(() -> encoder.matches("a", "a"));
+			awaitActive(encoder);
+
+			// Waits in the queue behind the running hash until the timeout
+			assertThrows(ServiceBusyException.class, () -> encoder.matches("b", "b"));
+			assertThrows(Exception.class, () -> running.get(5, TimeUnit.SECONDS)); // Timed out as well
+
+			release.countDown();
+			while (encoder.getStats().getActiveHashes() > 0 || encoder.getStats().getQueueDepth() > 0) {
+				Thread.sleep(5);
+			}
+			assertEquals(1, hashed.get(), "the cancelled request must not be hashed after the running one finished");
+			assertEquals(2, encoder.getStats().getTimedOut());
+			callers.shutdown();
+		}
+	}
+
+	private static void awaitActive(BoundedPasswordEncoder encoder) throws InterruptedException {
+		while (encoder.getStats().getActiveHashes() < 1) {
+			Thread.sleep(5);
+		}
+	}
+
+	private static void awaitQueued(BoundedPasswordEncoder encoder) throws InterruptedException {
+		while (encoder.getStats().getQueueDepth() < 1) {
+			Thread.sleep(5);
+		}
+	}
+}
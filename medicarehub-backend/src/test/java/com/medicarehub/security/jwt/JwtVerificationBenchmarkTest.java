@@ -0,0 +1,94 @@
+package com.medicarehub.security.jwt;
+
+import com.medicarehub.service.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Token verification cost per authenticated request: the old path (decode the secret and build a parser
+// twice, verify the signature twice) against the shared parser verifying once. The timing run is tagged
+// "benchmark" and only runs with -Pbenchmark.
+class JwtVerificationBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(JwtVerificationBenchmarkTest.class);
+
+	private static final String SECRET = "bWVkaWNhcmVodWItc2VjcmV0LWtleS1tdXN0LWJlLXZlcnktbG9uZy1hbmQtc2VjdXJlLXRvLW1lZXQtNTEyLWJpdC1yZXF1aXJlbWVudHM=";
+	private static final int WARMUP = 20_000;
+	private static final int ITERATIONS = 100_000;
+
+	private JwtUtils jwtUtils;
+	private String token;
+
+	@BeforeEach
+	void setUp() {
+		jwtUtils = new JwtUtils();
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+		jwtUtils.init();
+
+		UserDetailsImpl principal = new UserDetailsImpl(42L, "jane", "jane@example.com", null, true,
+				List.of(new SimpleGrantedAuthority("ROLE_PATIENT")));
+		token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+
+	@Test
+	void parsesClaimsOnceWithTheSharedParser() {
+		Claims claims = jwtUtils.parseClaims(token);
+
+		assertNotNull(claims);
+		assertEquals("jane", claims.getSubject());
+		assertEquals(42L, JwtUtils.getUserId(claims));
+		assertEquals(List.of("ROLE_PATIENT"), claims.get("roles"));
+		assertNull(jwtUtils.parseClaims(token.substring(0, token.length() - 2) + "xx"));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void verificationCostPerRequest() {
+		long legacyNanos = measure(() -> legacyVerify(token));
+		long currentNanos = measure(() -> jwtUtils.parseClaims(token).getSubject());
+
+		logger.info("JWT verification per request: before {} ns, after {} ns", legacyNanos, currentNanos);
+		// Half the signature checks and no per-call key decoding: must be clearly cheaper
+		assertTrue(currentNanos < legacyNanos, "shared parser: " + currentNanos + " ns, old path: " + legacyNanos + " ns");
+	}
+
+	// What AuthTokenFilter used to do: validateJwtToken followed by getUserNameFromJwtToken
+	private static String legacyVerify(String jwt) {
+		Jwts.parserBuilder().setSigningKey(legacyKey()).build().parseClaimsJws(jwt);
+		return Jwts.parserBuilder().setSigningKey(legacyKey()).build().parseClaimsJws(jwt).getBody().getSubject();
+	}
+
+	private static Key legacyKey() {
+		return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+	}
+
+	// Average nanoseconds per call after a warm-up
+	private static long measure(Runnable verification) {
+		for (int i = 0; i < WARMUP; i++) {
+			verification.run();
+		}
+		long startedAt = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			verification.run();
+		}
+		return (System.nanoTime() - startedAt) / ITERATIONS;
+	}
+}
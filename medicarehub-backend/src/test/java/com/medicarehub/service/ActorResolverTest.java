@@ -0,0 +1,62 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.ERole;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActorResolverTest {
+
+	@Mock
+	private DoctorRepository doctorRepository;
+
+	@Mock
+	private PatientRepository patientRepository;
+
+	@InjectMocks
+	private ActorResolver actorResolver;
+
+	private final Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+			List.of(new SimpleGrantedAuthority("ROLE_ANONYMOUS")));
+
+	@Test
+	void unauthenticatedCallersAreDeniedInsteadOfResolvingToNull() {
+		assertThrows(AccessDeniedException.class, () -> actorResolver.resolve(null));
+		assertThrows(AccessDeniedException.class, () -> actorResolver.resolve(anonymous));
+		assertFalse(actorResolver.find(anonymous).isPresent());
+	}
+
+	@Test
+	void patientWithoutIdClaimIsLookedUpOnce() {
+		// No request (and so no claims) bound to the thread: the id comes from the repository
+		UserDetailsImpl principal = new UserDetailsImpl(7L, "jdoe", "jdoe@example.com", null, true,
+				List.of(new SimpleGrantedAuthority("ROLE_PATIENT")));
+		when(patientRepository.findIdByUserId(7L)).thenReturn(Optional.of(70L));
+
+		ResolvedActor actor = actorResolver.resolve(
+				new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+		assertTrue(actor.hasRole(ERole.ROLE_PATIENT));
+		assertEquals(70L, actor.getPatientId());
+		assertTrue(actor.isPatient(70L));
+	}
+}
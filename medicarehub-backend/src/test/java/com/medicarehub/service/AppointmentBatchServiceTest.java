@@ -0,0 +1,214 @@
+package com.medicarehub.service;
+
+import com.medicarehub.config.QueryCountInspector;
+import com.medicarehub.dto.AppointmentRequestDto;
+import com.medicarehub.dto.BatchAppointmentItemResultDto;
+import com.medicarehub.dto.BatchAppointmentRequestDto;
+import com.medicarehub.dto.BatchAppointmentResponseDto;
+import com.medicarehub.entity.Appointment;
+import com.medicarehub.entity.Department;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.entity.DoctorSchedule;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.User;
+import com.medicarehub.exception.BadRequestException;
+import com.medicarehub.repository.AppointmentRepository;
+import com.medicarehub.repository.DepartmentRepository;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.DoctorScheduleRepository;
+import com.medicarehub.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Batches run against the database: rejected items must not stop the rest, accepted rows must be written
+// with the full entity mapping in JDBC batches, and a rolled back batch must leave neither rows nor booked
+// slots behind.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = BookingTestSlice.class)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=batchbooking",
+		"spring.jpa.properties.hibernate.cache.region_prefix=batchbooking"
+})
+class AppointmentBatchServiceTest {
+
+	private static final LocalTime NINE = LocalTime.of(9, 0);
+	private static int seeded; // Each test gets its own doctor and patients
+
+	@Autowired
+	private AppointmentBatchService batchService;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private DoctorScheduleRepository scheduleRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final LocalDate date = LocalDate.now().plusDays(1);
+	private final Authentication receptionist = new UsernamePasswordAuthenticationToken(
+			new UserDetailsImpl(-1L, "reception", "reception@example.com", "x", true,
+					List.of(new SimpleGrantedAuthority("ROLE_RECEPTIONIST"))),
+			null, List.of(new SimpleGrantedAuthority("ROLE_RECEPTIONIST")));
+
+	private Long doctorId;
+	private final List<Long> patientIds = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		int n = ++seeded;
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Department department = departmentRepository.save(new Department("Batch " + n, "Batch bookings"));
+			Doctor doctor = doctorRepository.save(new Doctor(
+					new User("batch-doctor" + n, "batch-doctor" + n + "@example.com", "x", "Greg", "House"),
+					department, "General practice", "LIC-B" + n));
+			// 09:00-10:00 in 15 minute slots
+			scheduleRepository.save(new DoctorSchedule(doctor, date.getDayOfWeek(), NINE, LocalTime.of(10, 0), 15, null));
+			doctorId = doctor.getId();
+			for (int p = 0; p < 3; p++) {
+				String username = "batch" + n + "-patient" + p;
+				patientIds.add(patientRepository.save(new Patient(
+						new User(username, username + "@example.com", "x", "Jane", "Doe" + p),
+						"PB" + n + "-" + p, LocalDate.now())).getId());
+			}
+		});
+	}
+
+	@Test
+	void conflictingItemsFailAndTheRestIsBooked() {
+		appointmentService.bookAppointment(item(patientIds.get(0), doctorId, NINE), receptionist);
+
+		BatchAppointmentResponseDto response = batchService.bookAppointments(batch(
+				item(patientIds.get(0), doctorId, NINE),                  // Already booked before the batch
+				item(patientIds.get(1), doctorId, NINE.plusMinutes(15)),
+				item(patientIds.get(2), doctorId, NINE.plusMinutes(15)),  // Taken by the previous item
+				item(patientIds.get(2), -1L, NINE.plusMinutes(30)),       // Unknown doctor
+				item(patientIds.get(2), doctorId, NINE.plusMinutes(30))
+		), receptionist);
+
+		assertEquals(5, response.getRequested());
+		assertEquals(2, response.getBooked());
+		assertEquals(3, response.getFailed());
+		assertEquals(List.of(false, true, false, false, true),
+				response.getResults().stream().map(BatchAppointmentItemResultDto::isSuccess).toList());
+		assertNotNull(response.getResults().get(1).getAppointment());
+		assertNotNull(response.getResults().get(2).getError());
+
+		List<Appointment> stored = new ArrayList<>(appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, date));
+		stored.sort(Comparator.comparing(Appointment::getAppointmentTime));
+		assertEquals(List.of(NINE, NINE.plusMinutes(15), NINE.plusMinutes(30)),
+				stored.stream().map(Appointment::getAppointmentTime).toList());
+		// Written through the entity mapping: derived columns and timestamps are filled in
+		assertEquals(NINE.plusMinutes(30), stored.get(1).getEndTime());
+		assertNotNull(stored.get(1).getCreatedAt());
+		assertEquals(patientIds.get(1), stored.get(1).getPatient().getId());
+
+		// The accepted slots are booked for later requests too
+		assertThrows(BadRequestException.class,
+				() -> appointmentService.bookAppointment(item(patientIds.get(0), doctorId, NINE.plusMinutes(15)), receptionist));
+	}
+
+	@Test
+	void rolledBackBatchLeavesNothingBooked() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			BatchAppointmentResponseDto response = batchService.bookAppointments(batch(
+					item(patientIds.get(0), doctorId, NINE),
+					item(patientIds.get(1), doctorId, NINE.plusMinutes(15))
+			), receptionist);
+			assertEquals(2, response.getBooked());
+			status.setRollbackOnly();
+		});
+
+		assertTrue(appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, date).isEmpty());
+		// Neither the availability index nor anything else kept the slots of the rolled back batch
+		appointmentService.bookAppointment(item(patientIds.get(2), doctorId, NINE), receptionist);
+		appointmentService.bookAppointment(item(patientIds.get(0), doctorId, NINE.plusMinutes(15)), receptionist);
+		assertEquals(2, appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, date).size());
+	}
+
+	@Test
+	void insertsAreBatchedSoStatementsDoNotGrowWithTheBatch() {
+		batchService.bookAppointments(batch(item(patientIds.get(0), doctorId, NINE)), receptionist); // Warms the schedule cache
+
+		QueryCountInspector.reset();
+		batchService.bookAppointments(batch(item(patientIds.get(1), doctorId, NINE.plusMinutes(15))), receptionist);
+		int oneItem = QueryCountInspector.current();
+
+		LocalDate nextWeek = date.plusWeeks(1);
+		QueryCountInspector.reset();
+		BatchAppointmentResponseDto response = batchService.bookAppointments(batch(
+				itemOn(nextWeek, patientIds.get(0), NINE),
+				itemOn(nextWeek, patientIds.get(1), NINE.plusMinutes(15)),
+				itemOn(nextWeek, patientIds.get(2), NINE.plusMinutes(30))
+		), receptionist);
+		int threeItems = QueryCountInspector.current();
+
+		assertEquals(3, response.getBooked());
+		// The same reads, and one batched INSERT statement instead of one per item
+		assertEquals(oneItem, threeItems, "statements for one item: " + oneItem + ", for three: " + threeItems);
+		assertEquals(3, appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, nextWeek).size());
+		assertEquals(3, response.getResults().stream().map(result -> result.getAppointment().getId()).distinct().count());
+	}
+
+	private static BatchAppointmentRequestDto batch(AppointmentRequestDto... items) {
+		BatchAppointmentRequestDto batch = new BatchAppointmentRequestDto();
+		batch.setAppointments(List.of(items));
+		return batch;
+	}
+
+	private AppointmentRequestDto item(Long patientId, Long doctor, LocalTime time) {
+		AppointmentRequestDto request = new AppointmentRequestDto();
+		request.setDoctorId(doctor);
+		request.setPatientId(patientId);
+		request.setAppointmentDate(date);
+		request.setAppointmentTime(time);
+		request.setReasonForVisit("Referral follow-up");
+		return request;
+	}
+
+	private AppointmentRequestDto itemOn(LocalDate day, Long patientId, LocalTime time) {
+		AppointmentRequestDto request = item(patientId, doctorId, time);
+		request.setAppointmentDate(day);
+		return request;
+	}
+}
@@ -0,0 +1,107 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.AppointmentResponseDto;
+import com.medicarehub.entity.Appointment;
+import com.medicarehub.entity.Department;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The name filters as the list endpoint passes them: raw search box text, normalized and escaped by the service
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = BookingTestSlice.class)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=namefilter",
+		"spring.jpa.properties.hibernate.cache.region_prefix=namefilter"
+})
+class AppointmentNameFilterTest {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	private int patients;
+
+	@BeforeEach
+	void seed() {
+		Department department = entityManager.persist(new Department("Filters", "Name filters"));
+		Doctor doctor = entityManager.persist(new Doctor(
+				new User("filter-doctor", "filter-doctor@example.com", "x", "Greg", "House"),
+				department, "General practice", "LIC-F1"));
+		for (String[] name : new String[][] {
+				{"Jane", "Doe"}, {"Janet", "Smith"}, {"Bob", "Jan"},
+				{"Ann", "O_Neil"}, {"Ann", "Oxneil"}, {"Tom", "Ten%"}, {"Tim", "Tenth"}}) {
+			String username = "filter-patient" + patients;
+			Patient patient = entityManager.persist(new Patient(
+					new User(username, username + "@example.com", "x", name[0], name[1]), "PF-" + patients, LocalDate.now()));
+			entityManager.persist(new Appointment(patient, doctor, LocalDate.now().plusDays(1),
+					LocalTime.of(9, 0).plusMinutes(30L * patients), 30, "Routine check-up"));
+			patients++;
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void prefixMatchesFullNameOrLastName() {
+		assertEquals(Set.of("Doe", "Smith", "Jan"), patientLastNames("jan"));
+		assertEquals(Set.of("Doe"), patientLastNames("jane d"));
+		assertEquals(Set.of("Doe"), patientLastNames("doe"));
+	}
+
+	@Test
+	void searchTextIsNormalizedLikeTheStoredColumns() {
+		assertEquals(Set.of("Doe"), patientLastNames("  JANE   Doe "));
+		assertEquals(Set.of("Doe", "Smith", "Jan"), patientLastNames("JaN"));
+	}
+
+	@Test
+	void typedWildcardsAreMatchedLiterally() {
+		// Unescaped, "o_n" would also match "oxneil" and "ten%" would also match "tenth"
+		assertEquals(Set.of("O_Neil"), patientLastNames("o_n"));
+		assertEquals(Set.of("Ten%"), patientLastNames("ten%"));
+		assertEquals(Set.of(), patientLastNames("%"));
+		assertEquals(Set.of(), patientLastNames("_"));
+	}
+
+	@Test
+	void doctorFilterUsesTheSameRules() {
+		assertEquals(patients, appointmentService.getAllAppointmentsFiltered(Optional.empty(), Optional.empty(),
+				Optional.empty(), Optional.of(" HOUSE"), page()).getTotalElements());
+		assertEquals(0, appointmentService.getAllAppointmentsFiltered(Optional.empty(), Optional.empty(),
+				Optional.empty(), Optional.of("h_use"), page()).getTotalElements());
+	}
+
+	private Set<String> patientLastNames(String patientNameSearch) {
+		return appointmentService.getAllAppointmentsFiltered(Optional.empty(), Optional.empty(),
+						Optional.of(patientNameSearch), Optional.empty(), page())
+				.getContent().stream().map(AppointmentResponseDto::getPatientLastName).collect(Collectors.toSet());
+	}
+
+	private static PageRequest page() {
+		return PageRequest.of(0, 20, Sort.by("appointmentDate", "appointmentTime"));
+	}
+}
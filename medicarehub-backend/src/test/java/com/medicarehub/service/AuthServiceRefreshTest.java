@@ -0,0 +1,132 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.JwtResponseDto;
+import com.medicarehub.entity.ERole;
+import com.medicarehub.entity.Role;
+import com.medicarehub.entity.User;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.PatientRepository;
+import com.medicarehub.repository.RevokedTokenRepository;
+import com.medicarehub.repository.UserRepository;
+import com.medicarehub.security.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.lenient;
+
+// Refresh token rotation with a real JwtUtils and revocation list; only the repositories are mocked
+@ExtendWith(MockitoExtension.class)
+class AuthServiceRefreshTest {
+
+	private static final String SECRET = "bWVkaWNhcmVodWItc2VjcmV0LWtleS1tdXN0LWJlLXZlcnktbG9uZy1hbmQtc2VjdXJlLXRvLW1lZXQtNTEyLWJpdC1yZXF1aXJlbWVudHM=";
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private PatientRepository patientRepository;
+
+	@Mock
+	private DoctorRepository doctorRepository;
+
+	@Mock
+	private RevokedTokenRepository revokedTokenRepository;
+
+	private final AuthService authService = new AuthService();
+	private final JwtUtils jwtUtils = new JwtUtils();
+	private final TokenRevocationList revocationList = new TokenRevocationList();
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 900_000);
+		ReflectionTestUtils.setField(jwtUtils, "refreshExpirationMs", 3_600_000L);
+		ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+		ReflectionTestUtils.setField(revocationList, "revokedTokenRepository", revokedTokenRepository);
+		ReflectionTestUtils.setField(revocationList, "expectedEntries", 1000);
+		ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+		revocationList.load();
+
+		authService.jwtUtils = jwtUtils;
+		authService.revocationList = revocationList;
+		authService.userRepository = userRepository;
+		authService.patientRepository = patientRepository;
+		authService.doctorRepository = doctorRepository;
+
+		user = new User("jdoe", "jdoe@example.com", "hash", "Jane", "Doe");
+		user.setId(1L);
+		user.setRoles(Set.of(new Role(ERole.ROLE_PATIENT)));
+		lenient().when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(user));
+		lenient().when(patientRepository.findIdByUserId(1L)).thenReturn(Optional.of(10L));
+	}
+
+	private String refreshTokenFor(User user) {
+		return jwtUtils.generateRefreshToken(UserDetailsImpl.build(user));
+	}
+
+	@Test
+	void refreshRotatesThePair() {
+		String refreshToken = refreshTokenFor(user);
+
+		JwtResponseDto response = authService.refreshTokens(refreshToken);
+
+		Claims access = jwtUtils.parseClaims(response.getToken());
+		assertEquals("jdoe", access.getSubject());
+		assertEquals(10L, JwtUtils.getPatientId(access));
+		assertEquals(List.of("ROLE_PATIENT"), response.getRoles());
+		assertNotEquals(refreshToken, response.getRefreshToken());
+		assertTrue(JwtUtils.isRefreshToken(jwtUtils.parseClaims(response.getRefreshToken())));
+		assertTrue(revocationList.isRevoked(jwtUtils.parseClaims(refreshToken).getId()));
+	}
+
+	@Test
+	void replayedRefreshTokenIsRejected() {
+		String refreshToken = refreshTokenFor(user);
+		JwtResponseDto rotated = authService.refreshTokens(refreshToken);
+
+		assertThrows(CredentialsExpiredException.class, () -> authService.refreshTokens(refreshToken));
+		// The token issued by the rotation still works, once
+		authService.refreshTokens(rotated.getRefreshToken());
+		assertThrows(CredentialsExpiredException.class, () -> authService.refreshTokens(rotated.getRefreshToken()));
+	}
+
+	@Test
+	void accessTokenCannotBeUsedAsRefreshToken() {
+		String accessToken = authService.refreshTokens(refreshTokenFor(user)).getToken();
+
+		assertThrows(CredentialsExpiredException.class, () -> authService.refreshTokens(accessToken));
+	}
+
+	@Test
+	void deactivatedUserCannotRefresh() {
+		user.setActive(false);
+
+		assertThrows(DisabledException.class, () -> authService.refreshTokens(refreshTokenFor(user)));
+	}
+
+	@Test
+	void loggedOutRefreshTokenIsRejected() {
+		String refreshToken = refreshTokenFor(user);
+
+		authService.logout(null, refreshToken);
+
+		assertThrows(CredentialsExpiredException.class, () -> authService.refreshTokens(refreshToken));
+	}
+}
@@ -0,0 +1,86 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.SlotSearchResultDto;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.entity.User;
+import com.medicarehub.repository.DepartmentRepository;
+import com.medicarehub.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilitySearchServiceTest {
+
+	private static final int NINE = 9 * 60;
+	private static final int THREE_PM = 15 * 60;
+
+	@Mock
+	private DoctorRepository doctorRepository;
+
+	@Mock
+	private DepartmentRepository departmentRepository;
+
+	@Mock
+	private DoctorScheduleService doctorScheduleService;
+
+	@InjectMocks
+	private AvailabilitySearchService availabilitySearchService;
+
+	private final SlotHoldRegistry slotHoldRegistry = new SlotHoldRegistry();
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(slotHoldRegistry, "ttlSeconds", 180L);
+		ReflectionTestUtils.setField(availabilitySearchService, "slotHoldRegistry", slotHoldRegistry);
+	}
+
+	private static Doctor doctor(Long id, String lastName) {
+		Doctor doctor = new Doctor(new User("dr" + id, "dr" + id + "@example.com", "x", "Dr", lastName), null, "Cardiology", "LIC-" + id);
+		doctor.setId(id);
+		return doctor;
+	}
+
+	private static DoctorAvailabilityIndex.DaySlots day(int startMinute, int endMinute) {
+		return DoctorAvailabilityIndex.DaySlots.build(
+				List.of(new ScheduleWindow(1L, null, null, startMinute, endMinute, 30, true)), List.of(), Long.MAX_VALUE);
+	}
+
+	private static DoctorAvailabilityIndex.DaySlots closed() {
+		return DoctorAvailabilityIndex.DaySlots.build(List.of(), List.of(), Long.MAX_VALUE);
+	}
+
+	@Test
+	void heldSlotsDoNotUseUpTheLimit() {
+		LocalDate tomorrow = LocalDate.now().plusDays(1);
+		Doctor a = doctor(1L, "Adams");
+		Doctor b = doctor(2L, "Baker");
+		when(doctorRepository.findActiveByDepartmentWithUser(10L, null)).thenReturn(List.of(a, b));
+		// Nothing today (so the result does not depend on the time of day), tomorrow A 09:00-10:00 and B 15:00-15:30
+		when(doctorScheduleService.loadAvailabilityWindow(anyCollection(), any(), any())).thenReturn(Map.of(
+				1L, new DoctorAvailabilityIndex.DaySlots[]{closed(), day(NINE, NINE + 60)},
+				2L, new DoctorAvailabilityIndex.DaySlots[]{closed(), day(THREE_PM, THREE_PM + 30)}));
+		assertNotNull(slotHoldRegistry.tryHold(1L, tomorrow, NINE, NINE + 30, "someone else"));
+
+		List<SlotSearchResultDto> results = availabilitySearchService.findEarliestSlotsInDepartment(10L, null, 2, 1);
+
+		assertEquals(1, results.size());
+		assertEquals(1L, results.get(0).getDoctorId());
+		assertEquals(tomorrow, results.get(0).getDate());
+		assertEquals("09:30", results.get(0).getStartTime());
+	}
+}
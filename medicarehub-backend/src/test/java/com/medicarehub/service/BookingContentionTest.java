@@ -0,0 +1,227 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.AppointmentRequestDto;
+import com.medicarehub.entity.Appointment;
+import com.medicarehub.entity.Department;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.entity.DoctorSchedule;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.User;
+import com.medicarehub.exception.BadRequestException;
+import com.medicarehub.repository.AppointmentRepository;
+import com.medicarehub.repository.DepartmentRepository;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.DoctorScheduleRepository;
+import com.medicarehub.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Many patients racing bookAppointment for the same few slots of one doctor, each booking in its own
+// transaction against the database. Every slot must end up booked exactly once, whether the losers are
+// stopped by the in-memory fast-fail or only by the doctor row lock and the overlap query behind it.
+// The throughput run is tagged "benchmark" and only runs with -Pbenchmark.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = BookingTestSlice.class)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=contention",
+		"spring.jpa.properties.hibernate.cache.region_prefix=contention"
+})
+class BookingContentionTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(BookingContentionTest.class);
+
+	private static final int PATIENTS = 16;
+	private static final int SLOTS = 4;
+	private static final int SLOT_MINUTES = 15;
+	private static final LocalTime DAY_START = LocalTime.of(9, 0);
+	private static final int BENCHMARK_ROUNDS = 25; // One week apart, so every round races for fresh slots
+
+	private static int seeded; // Each test gets its own doctor and patients
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private DoctorAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private AppointmentRepository appointmentRepository;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private DoctorScheduleRepository scheduleRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final LocalDate date = LocalDate.now().plusDays(1);
+	private final Authentication receptionist = new UsernamePasswordAuthenticationToken(
+			new UserDetailsImpl(-1L, "reception", "reception@example.com", "x", true,
+					List.of(new SimpleGrantedAuthority("ROLE_RECEPTIONIST"))),
+			null, List.of(new SimpleGrantedAuthority("ROLE_RECEPTIONIST")));
+
+	private Long doctorId;
+	private final List<Long> patientIds = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		int n = ++seeded;
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Department department = departmentRepository.save(new Department("Contention " + n, "Booking races"));
+			Doctor doctor = doctorRepository.save(new Doctor(
+					new User("contention-doctor" + n, "contention-doctor" + n + "@example.com", "x", "Greg", "House"),
+					department, "General practice", "LIC-C" + n));
+			// 09:00-10:00 in 15 minute slots
+			scheduleRepository.save(new DoctorSchedule(doctor, date.getDayOfWeek(), DAY_START,
+					DAY_START.plusMinutes((long) SLOTS * SLOT_MINUTES), SLOT_MINUTES, null));
+			doctorId = doctor.getId();
+			for (int p = 0; p < PATIENTS; p++) {
+				String username = "contention" + n + "-patient" + p;
+				patientIds.add(patientRepository.save(new Patient(
+						new User(username, username + "@example.com", "x", "Jane", "Doe" + p),
+						"PC" + n + "-" + p, LocalDate.now())).getId());
+			}
+		});
+	}
+
+	@AfterEach
+	void enableIndex() {
+		ReflectionTestUtils.setField(availabilityIndex, "enabled", true);
+	}
+
+	@Test
+	void everySlotIsBookedOnceWhenAllContendersReachTheDatabase() throws Exception {
+		// No index: nothing is rejected in memory, every booking goes through the doctor row lock and the overlap query
+		ReflectionTestUtils.setField(availabilityIndex, "enabled", false);
+		assertEverySlotBookedOnce(date, race(date));
+	}
+
+	@Test
+	void everySlotIsBookedOnceWithTheInMemoryFastFail() throws Exception {
+		assertEverySlotBookedOnce(date, race(date));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void bookingThroughputUnderContention() throws Exception {
+		// Later rounds run without the index, on dates no earlier round has touched
+		benchmark("in-memory fast-fail", 0);
+		ReflectionTestUtils.setField(availabilityIndex, "enabled", false);
+		benchmark("database only", BENCHMARK_ROUNDS);
+	}
+
+	private void benchmark(String mode, int firstWeek) throws InterruptedException {
+		int booked = 0;
+		int conflicts = 0;
+		long startedAt = System.nanoTime();
+		for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+			LocalDate day = date.plusWeeks(firstWeek + round);
+			Race race = race(day);
+			assertEverySlotBookedOnce(day, race);
+			booked += race.booked();
+			conflicts += race.conflicts();
+		}
+		double seconds = (System.nanoTime() - startedAt) / 1e9;
+		logger.info("Booking contention ({}): {} patients, {} rounds, {} booked, {} conflicts, {} bookings/s",
+				mode, PATIENTS, BENCHMARK_ROUNDS, booked, conflicts, Math.round(booked / seconds));
+	}
+
+	private record Race(int booked, int conflicts) {
+	}
+
+	// Every patient tries the slots of the day in the same order until one booking succeeds
+	private Race race(LocalDate day) throws InterruptedException {
+		AtomicInteger booked = new AtomicInteger();
+		AtomicInteger conflicts = new AtomicInteger();
+		List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(PATIENTS);
+		for (Long patientId : patientIds) {
+			executor.submit(() -> {
+				try {
+					start.await();
+					for (int slot = 0; slot < SLOTS; slot++) {
+						try {
+							appointmentService.bookAppointment(request(patientId, day, slot), receptionist);
+							booked.incrementAndGet();
+							return;
+						} catch (BadRequestException conflict) {
+							conflicts.incrementAndGet(); // Lost this slot, try the next one
+						}
+					}
+				} catch (Throwable e) {
+					unexpected.add(e);
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+		assertEquals(List.of(), unexpected);
+		return new Race(booked.get(), conflicts.get());
+	}
+
+	private void assertEverySlotBookedOnce(LocalDate day, Race race) {
+		assertEquals(SLOTS, race.booked());
+		List<Appointment> appointments = appointmentRepository.findByDoctorIdAndAppointmentDate(doctorId, day);
+		assertEquals(SLOTS, appointments.size());
+		for (int slot = 0; slot < SLOTS; slot++) {
+			LocalTime start = DAY_START.plusMinutes((long) slot * SLOT_MINUTES);
+			assertEquals(1, appointments.stream().filter(a -> a.getAppointmentTime().equals(start)).count(),
+					"slot " + start + " must be booked exactly once");
+		}
+	}
+
+	private AppointmentRequestDto request(Long patientId, LocalDate day, int slot) {
+		AppointmentRequestDto request = new AppointmentRequestDto();
+		request.setDoctorId(doctorId);
+		request.setPatientId(patientId);
+		request.setAppointmentDate(day);
+		request.setAppointmentTime(DAY_START.plusMinutes((long) slot * SLOT_MINUTES));
+		request.setReasonForVisit("Routine check-up");
+		return request;
+	}
+}
@@ -0,0 +1,121 @@
+package com.medicarehub.service;
+
+import com.medicarehub.config.QueryCountInspector;
+import com.medicarehub.dto.AppointmentRequestDto;
+import com.medicarehub.entity.Department;
+import com.medicarehub.entity.Doctor;
+import com.medicarehub.entity.DoctorSchedule;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.User;
+import com.medicarehub.repository.DepartmentRepository;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.DoctorScheduleRepository;
+import com.medicarehub.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A warm booking (schedule cache and availability index loaded) costs five statements: patient, doctor,
+// doctor row lock, overlap check and insert, however many appointments the doctor already has.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = BookingTestSlice.class)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=bookingbudget",
+		"spring.jpa.properties.hibernate.cache.region_prefix=bookingbudget"
+})
+class BookingQueryBudgetTest {
+
+	private static final int WARM_BOOKING_STATEMENTS = 5;
+	private static final int PATIENTS = 6;
+	private static final LocalTime NINE = LocalTime.of(9, 0);
+
+	@Autowired
+	private AppointmentService appointmentService;
+
+	@Autowired
+	private DepartmentRepository departmentRepository;
+
+	@Autowired
+	private DoctorRepository doctorRepository;
+
+	@Autowired
+	private DoctorScheduleRepository scheduleRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final LocalDate date = LocalDate.now().plusDays(1);
+	private final Authentication receptionist = new UsernamePasswordAuthenticationToken(
+			new UserDetailsImpl(-1L, "reception", "reception@example.com", "x", true,
+					List.of(new SimpleGrantedAuthority("ROLE_RECEPTIONIST"))),
+			null, List.of(new SimpleGrantedAuthority("ROLE_RECEPTIONIST")));
+
+	private Long doctorId;
+	private final List<Long> patientIds = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			Department department = departmentRepository.save(new Department("Budget", "Query budget"));
+			Doctor doctor = doctorRepository.save(new Doctor(
+					new User("budget-doctor", "budget-doctor@example.com", "x", "Greg", "House"),
+					department, "General practice", "LIC-Q1"));
+			// 09:00-12:00 in 30 minute slots
+			scheduleRepository.save(new DoctorSchedule(doctor, date.getDayOfWeek(), NINE, LocalTime.of(12, 0), 30, null));
+			doctorId = doctor.getId();
+			for (int p = 0; p < PATIENTS; p++) {
+				String username = "budget-patient" + p;
+				patientIds.add(patientRepository.save(new Patient(
+						new User(username, username + "@example.com", "x", "Jane", "Doe" + p),
+						"PQ-" + p, LocalDate.now())).getId());
+			}
+		});
+	}
+
+	@Test
+	void warmBookingStaysWithinTheFixedBudget() {
+		appointmentService.bookAppointment(request(patientIds.get(0), NINE), receptionist); // Loads cache and index
+
+		for (int p = 1; p < PATIENTS; p++) {
+			LocalTime time = NINE.plusMinutes(30L * p);
+			QueryCountInspector.reset();
+			appointmentService.bookAppointment(request(patientIds.get(p), time), receptionist);
+			assertEquals(WARM_BOOKING_STATEMENTS, QueryCountInspector.current(), "statements for the booking at " + time);
+		}
+	}
+
+	private AppointmentRequestDto request(Long patientId, LocalTime time) {
+		AppointmentRequestDto request = new AppointmentRequestDto();
+		request.setDoctorId(doctorId);
+		request.setPatientId(patientId);
+		request.setAppointmentDate(date);
+		request.setAppointmentTime(time);
+		request.setReasonForVisit("Routine check-up");
+		return request;
+	}
+}
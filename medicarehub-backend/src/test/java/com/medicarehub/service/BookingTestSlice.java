@@ -0,0 +1,18 @@
+package com.medicarehub.service;
+
+import com.medicarehub.config.PersistenceConfig;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+// Persistence layer plus the booking services, for @DataJpaTest classes that book through the services.
+// No web or security layer: tests pass an Authentication directly. The application class is left out because
+// it would also start the data seeding runner.
+@TestConfiguration(proxyBeanMethods = false)
+@EntityScan("com.medicarehub.entity")
+@EnableJpaRepositories("com.medicarehub.repository")
+@Import({PersistenceConfig.class, AppointmentService.class, AppointmentBatchService.class, DoctorScheduleService.class, DoctorScheduleCache.class,
+		DoctorAvailabilityIndex.class, SlotHoldRegistry.class, ActorResolver.class})
+class BookingTestSlice {
+}
@@ -0,0 +1,142 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.Appointment;
+import com.medicarehub.entity.AppointmentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Bit operations of the per-day slot bitmap, and how long the index keeps days
+class DoctorAvailabilityIndexTest {
+
+	private static final int NINE = 9 * 60;
+	private static final int NOON = 12 * 60;
+
+	// 09:00-12:00 in 30 minute slots
+	private static DoctorAvailabilityIndex.DaySlots morning(List<Appointment> appointments) {
+		return DoctorAvailabilityIndex.DaySlots.build(
+				List.of(new ScheduleWindow(1L, null, null, NINE, NOON, 30, true)), appointments, Long.MAX_VALUE);
+	}
+
+	@Test
+	void reservedRangeIsTakenUntilFreed() {
+		DoctorAvailabilityIndex.DaySlots day = morning(List.of());
+
+		assertTrue(day.tryReserve(NINE, NINE + 30));
+		assertFalse(day.tryReserve(NINE, NINE + 30));
+		assertFalse(day.isSlotAvailable(NINE));
+		assertTrue(day.isSlotAvailable(NINE + 30));
+
+		day.setBooked(NINE, NINE + 30, false);
+		assertTrue(day.isSlotAvailable(NINE));
+		assertTrue(day.tryReserve(NINE, NINE + 30));
+	}
+
+	@Test
+	void partialOverlapConflictsButAdjacentRangesDoNot() {
+		DoctorAvailabilityIndex.DaySlots day = morning(List.of());
+		assertTrue(day.tryReserve(NINE + 20, NINE + 50)); // 09:20-09:50
+
+		assertFalse(day.isSlotAvailable(NINE));
+		assertFalse(day.isSlotAvailable(NINE + 30));
+		assertFalse(day.tryReserve(NINE + 49, NINE + 60));
+		assertFalse(day.tryReserve(NINE, NINE + 21));
+		assertTrue(day.tryReserve(NINE + 50, NINE + 60)); // Half-open ranges: touching is not overlapping
+		assertTrue(day.tryReserve(NINE + 10, NINE + 20));
+	}
+
+	@Test
+	void rangesCrossingWordBoundariesAreMaskedExactly() {
+		DoctorAvailabilityIndex.DaySlots day = morning(List.of());
+		day.setBooked(60, 70, true); // Minutes 60-69 span bitmap words 0 and 1
+
+		assertTrue(day.tryReserve(59, 60));
+		assertFalse(day.tryReserve(63, 64));
+		assertFalse(day.tryReserve(64, 65));
+		assertFalse(day.tryReserve(69, 70));
+		assertTrue(day.tryReserve(70, 71));
+
+		day.setBooked(60, 70, false);
+		assertTrue(day.tryReserve(60, 70));
+	}
+
+	@Test
+	void wholeDayAndLastMinute() {
+		DoctorAvailabilityIndex.DaySlots day = morning(List.of());
+		assertTrue(day.tryReserve(0, DoctorAvailabilityIndex.MINUTES_PER_DAY));
+		assertFalse(day.tryReserve(DoctorAvailabilityIndex.MINUTES_PER_DAY - 1, DoctorAvailabilityIndex.MINUTES_PER_DAY));
+		day.setBooked(0, DoctorAvailabilityIndex.MINUTES_PER_DAY, false);
+		assertTrue(day.tryReserve(DoctorAvailabilityIndex.MINUTES_PER_DAY - 1, DoctorAvailabilityIndex.MINUTES_PER_DAY));
+	}
+
+	@Test
+	void buildMarksBookedAppointmentsAndSkipsCancelledOnes() {
+		LocalDate date = LocalDate.now().plusDays(1);
+		Appointment booked = new Appointment(null, null, date, LocalTime.of(9, 30), 30, "Check-up");
+		Appointment cancelled = new Appointment(null, null, date, LocalTime.of(10, 0), 30, "Check-up");
+		cancelled.setStatus(AppointmentStatus.CANCELLED_BY_PATIENT);
+		DoctorAvailabilityIndex.DaySlots day = morning(List.of(booked, cancelled));
+
+		List<Integer> free = new ArrayList<>();
+		day.forEachAvailable(0, (start, end) -> free.add(start));
+		assertEquals(List.of(NINE, NINE + 60, NINE + 90, NINE + 120, NINE + 150), free);
+
+		free.clear();
+		assertEquals(2, day.forEachAvailable(NINE + 60, 2, (start, end) -> free.add(start)));
+		assertEquals(List.of(NINE + 60, NINE + 90), free);
+	}
+
+	@Test
+	void onlyDaysWithinTheHorizonAreKept() {
+		DoctorAvailabilityIndex index = new DoctorAvailabilityIndex();
+		ReflectionTestUtils.setField(index, "maxDaysAhead", 10);
+		LocalDate today = LocalDate.now();
+		List<ScheduleWindow> windows = List.of(new ScheduleWindow(1L, null, null, NINE, NOON, 30, true));
+
+		assertNotNull(index.load(7L, today.minusDays(1), index.stamp(7L), windows, List.of()));
+		assertNotNull(index.load(7L, today.plusDays(11), index.stamp(7L), windows, List.of()));
+		index.load(7L, today.plusDays(10), index.stamp(7L), windows, List.of());
+
+		assertNull(index.getDay(7L, today.minusDays(1)));
+		assertNull(index.getDay(7L, today.plusDays(11)));
+		assertNotNull(index.getDay(7L, today.plusDays(10)));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void sweepDropsExpiredDays() {
+		DoctorAvailabilityIndex index = new DoctorAvailabilityIndex();
+		ReflectionTestUtils.setField(index, "ttlSeconds", -1L); // Expired as soon as it is stored
+		List<ScheduleWindow> windows = List.of(new ScheduleWindow(1L, null, null, NINE, NOON, 30, true));
+		for (long doctorId = 1; doctorId <= 20; doctorId++) {
+			index.load(doctorId, LocalDate.now().plusDays(1), index.stamp(doctorId), windows, List.of());
+		}
+		assertEquals(20, index.size());
+
+		index.evictStale();
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	void loadRacingWithABookingIsNotStored() {
+		DoctorAvailabilityIndex index = new DoctorAvailabilityIndex();
+		LocalDate date = LocalDate.now().plusDays(1);
+		List<ScheduleWindow> windows = List.of(new ScheduleWindow(1L, null, null, NINE, NOON, 30, true));
+
+		long stamp = index.stamp(3L);
+		index.markBooked(3L, date, LocalTime.of(9, 0), 30); // Committed while the DB snapshot was being read
+		index.load(3L, date, stamp, windows, List.of());
+
+		assertNull(index.getDay(3L, date));
+	}
+}
@@ -0,0 +1,113 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.DoctorResponseDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DoctorDirectoryIndexTest {
+
+	private final DoctorDirectoryIndex index = new DoctorDirectoryIndex();
+
+	@BeforeEach
+	void load() {
+		assertTrue(index.loadIfCold(() -> List.of(
+				doctor(1L, "Lisa", "Cuddy", "Cardiology", "Cardiology", "MD"),
+				doctor(2L, "James", "Wilson", "Neurocardiology", "Neurology", "MD, PhD"),
+				doctor(3L, "Eric", "Cardio", "Surgery", "Surgery", "MD"),
+				doctor(4L, "Greg", "House", "Nephrology", "Diagnostics", "MD"),
+				doctor(5L, "Allison", "Cameron", "Surgery", "Surgery", "MD"))));
+	}
+
+	private static DoctorResponseDto doctor(Long id, String firstName, String lastName, String specialization,
+											String departmentName, String qualifications) {
+		DoctorResponseDto doctor = new DoctorResponseDto();
+		doctor.setId(id);
+		doctor.setFirstName(firstName);
+		doctor.setLastName(lastName);
+		doctor.setSpecialization(specialization);
+		doctor.setDepartmentName(departmentName);
+		doctor.setQualifications(qualifications);
+		doctor.setActive(true);
+		return doctor;
+	}
+
+	private List<Long> search(String searchTerm) {
+		return index.search(searchTerm, PageRequest.of(0, 10)).getContent().stream().map(DoctorResponseDto::getId).toList();
+	}
+
+	@Test
+	void ranksWholeWordOverPrefixOverInfix() {
+		// Last name "Cardio" (whole word) > specialization "Cardiology" (prefix) > "Neurocardiology" (infix)
+		assertEquals(List.of(3L, 1L, 2L), search("cardio"));
+	}
+
+	@Test
+	void shortWordsMatchTermPrefixesOnly() {
+		// Below trigram length: no infix matches, so "Neurocardiology" is left out. Cameron and Cardio tie on
+		// a last name prefix and go by name, ahead of the specialization prefix.
+		assertEquals(List.of(5L, 3L, 1L), search("CA"));
+		assertEquals(List.of(4L), search("ho"));
+	}
+
+	@Test
+	void longerWordsMatchInsideTermsThroughTrigrams() {
+		assertEquals(List.of(1L, 2L), search("ardiol")); // Equal scores: by last name
+		assertEquals(List.of(2L), search("rocard"));
+		assertEquals(List.of(), search("cardiox"));
+	}
+
+	@Test
+	void everyWordMustMatchAndTiesGoByName() {
+		assertEquals(List.of(1L), search("lisa cardio"));
+		assertEquals(List.of(), search("lisa neuro"));
+		assertEquals(List.of(5L, 3L), search("  Surgery ")); // Cameron before Cardio
+		assertEquals(List.of(), search(" - "));
+	}
+
+	@Test
+	void pagesOverTheRankedHits() {
+		Page<DoctorResponseDto> second = index.search("cardio", PageRequest.of(1, 2));
+
+		assertEquals(3, second.getTotalElements());
+		assertEquals(List.of(2L), second.getContent().stream().map(DoctorResponseDto::getId).toList());
+	}
+
+	@Test
+	void updatesAndInactiveDoctorsAreApplied() {
+		DoctorResponseDto renamed = doctor(4L, "Greg", "Housely", "Nephrology", "Diagnostics", "MD");
+		index.put(renamed);
+		assertEquals(List.of(4L), search("housely"));
+
+		renamed.setActive(false);
+		index.put(renamed);
+		assertEquals(List.of(), search("housely"));
+
+		index.remove(1L);
+		assertEquals(List.of(3L, 2L), search("cardio"));
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	void coldIndexDefersToTheDatabase() {
+		index.invalidate();
+		assertNull(index.search("cardio", PageRequest.of(0, 10)));
+
+		// A change committed while loading makes the snapshot unusable; the next call loads again
+		assertFalse(index.loadIfCold(() -> {
+			index.remove(3L);
+			return List.of(doctor(3L, "Eric", "Cardio", "Surgery", "Surgery", "MD"));
+		}));
+		assertFalse(index.isLoaded());
+		assertTrue(index.loadIfCold(() -> List.of(doctor(1L, "Lisa", "Cuddy", "Cardiology", "Cardiology", "MD"))));
+		assertEquals(List.of(1L), search("cardio"));
+	}
+}
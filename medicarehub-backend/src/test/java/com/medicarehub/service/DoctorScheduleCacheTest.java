@@ -0,0 +1,99 @@
+package com.medicarehub.service;
+
+import com.medicarehub.exception.ResourceNotFoundException;
+import com.medicarehub.repository.DoctorRepository;
+import com.medicarehub.repository.DoctorScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorScheduleCacheTest {
+
+	@Mock
+	private DoctorScheduleRepository doctorScheduleRepository;
+
+	@Mock
+	private DoctorRepository doctorRepository;
+
+	@InjectMocks
+	private DoctorScheduleCache cache;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+	}
+
+	@Test
+	void doctorWithoutSchedulesIsCached() {
+		when(doctorScheduleRepository.findByDoctorId(1L)).thenReturn(List.of());
+		when(doctorRepository.existsById(1L)).thenReturn(true);
+
+		cache.get(1L);
+		cache.get(1L);
+
+		verify(doctorScheduleRepository, times(1)).findByDoctorId(1L);
+		verify(doctorRepository, times(1)).existsById(1L);
+	}
+
+	@Test
+	void batchLoadCachesExistingDoctorsWithoutSchedules() {
+		when(doctorScheduleRepository.findByDoctorIdIn(anyCollection())).thenReturn(List.of());
+		when(doctorRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+
+		cache.getAll(List.of(1L, 99L));
+		cache.get(1L); // Served from the cache
+
+		verify(doctorScheduleRepository, times(0)).findByDoctorId(1L);
+	}
+
+	@Test
+	void unknownDoctorIsNotCached() {
+		when(doctorScheduleRepository.findByDoctorId(99L)).thenReturn(List.of());
+		when(doctorRepository.existsById(99L)).thenReturn(false);
+
+		assertThrows(ResourceNotFoundException.class, () -> cache.get(99L));
+		assertThrows(ResourceNotFoundException.class, () -> cache.get(99L));
+		verify(doctorScheduleRepository, times(2)).findByDoctorId(99L);
+	}
+
+	@Test
+	void evictingAnotherDoctorDuringALoadKeepsTheLoad() {
+		when(doctorScheduleRepository.findByDoctorId(2L)).thenAnswer(invocation -> {
+			cache.evict(1L); // A schedule change of doctor 1 commits while doctor 2 is being read
+			return List.of();
+		});
+		when(doctorRepository.existsById(2L)).thenReturn(true);
+
+		cache.get(2L);
+		cache.get(2L);
+
+		verify(doctorScheduleRepository, times(1)).findByDoctorId(2L);
+	}
+
+	@Test
+	void evictingTheSameDoctorDuringALoadDiscardsTheLoad() {
+		when(doctorScheduleRepository.findByDoctorId(3L)).thenAnswer(invocation -> {
+			cache.evict(3L);
+			return List.of();
+		});
+		when(doctorRepository.existsById(3L)).thenReturn(true);
+
+		cache.get(3L);
+		cache.get(3L);
+
+		verify(doctorScheduleRepository, times(2)).findByDoctorId(3L);
+	}
+}
@@ -0,0 +1,59 @@
+package com.medicarehub.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpiringCacheTest {
+
+	@Test
+	void loadRacingWithAnEvictionOfItsKeyIsNotStored() {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(() -> 300);
+
+		long stamp = cache.stamp(1L);
+		cache.evict(1L); // Change committed while the old state was being read
+		assertEquals("old", cache.put(1L, "old", stamp));
+		assertNull(cache.get(1L));
+
+		cache.put(1L, "new", cache.stamp(1L));
+		assertEquals("new", cache.get(1L));
+	}
+
+	@Test
+	void evictingAnotherKeyKeepsTheLoad() {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(() -> 300);
+
+		long stamp = cache.stamp(2L);
+		cache.evict(1L);
+		cache.put(2L, "two", stamp);
+
+		assertEquals("two", cache.get(2L));
+	}
+
+	@Test
+	void expiredEntriesAreMisses() {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(() -> 0);
+
+		cache.put(1L, "one", cache.stamp(1L));
+
+		assertNull(cache.get(1L));
+	}
+
+	@Test
+	void fullCacheDropsOnlyTheOldestEntry() throws InterruptedException {
+		ExpiringCache<Long, String> cache = new ExpiringCache<>(() -> 300, () -> 2);
+
+		cache.put(1L, "one", cache.stamp(1L));
+		Thread.sleep(5); // Later expiry than "one"
+		cache.put(2L, "two", cache.stamp(2L));
+		cache.put(3L, "three", cache.stamp(3L));
+
+		assertNull(cache.get(1L));
+		assertEquals("two", cache.get(2L));
+		assertEquals("three", cache.get(3L));
+
+		cache.put(3L, "three again", cache.stamp(3L)); // Replacing a cached key makes no room
+		assertEquals("two", cache.get(2L));
+	}
+}
@@ -0,0 +1,89 @@
+package com.medicarehub.service;
+
+import com.medicarehub.dto.PatientLookupDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PatientBlockingKeysTest {
+
+	private static final double THRESHOLD = 0.85; // patient.duplicates.threshold
+	private static final LocalDate BORN = LocalDate.of(1975, 3, 14);
+	private static final String PHONE = "+1 (555) 123-4567";
+
+	private static PatientLookupDto patient(String firstName, String lastName, LocalDate dateOfBirth, String phoneNumber) {
+		return new PatientLookupDto(null, null, firstName, lastName, dateOfBirth, phoneNumber);
+	}
+
+	private static boolean shareAKey(PatientLookupDto a, PatientLookupDto b) {
+		Set<String> shared = new HashSet<>(PatientBlockingKeys.keysOf(a.getFirstName(), a.getLastName(), a.getDateOfBirth(), a.getPhoneNumber()));
+		shared.retainAll(PatientBlockingKeys.keysOf(b.getFirstName(), b.getLastName(), b.getDateOfBirth(), b.getPhoneNumber()));
+		return !shared.isEmpty();
+	}
+
+	@Test
+	void robertAndRupertAreTheSamePerson() {
+		assertEquals("R163", PatientBlockingKeys.phonetic("Robert"));
+		assertEquals("R163", PatientBlockingKeys.phonetic("Rupert"));
+
+		PatientLookupDto robert = patient("Robert", "Smith", BORN, null);
+		PatientLookupDto rupert = patient("Rupert", "Smith", BORN, null);
+		assertTrue(shareAKey(robert, rupert));
+		assertTrue(PatientBlockingKeys.score(robert, rupert) >= THRESHOLD);
+	}
+
+	@Test
+	void swappedFirstAndLastNameAreTheSamePerson() {
+		PatientLookupDto straight = patient("Robert", "Smith", BORN, null);
+		PatientLookupDto swapped = patient("Smith", "Robert", BORN, null);
+		assertTrue(shareAKey(straight, swapped));
+		assertTrue(PatientBlockingKeys.score(straight, swapped) >= THRESHOLD);
+
+		// Without a date of birth the unordered name pair still brings them together
+		assertTrue(shareAKey(patient("Robert", "Smith", null, null), patient("Smith", "Robert", null, null)));
+	}
+
+	@Test
+	void familyMembersSharingAPhoneStayBelowTheThreshold() {
+		PatientLookupDto father = patient("John", "Smith", BORN, PHONE);
+		PatientLookupDto son = patient("John", "Smith", LocalDate.of(2005, 9, 1), "555-123-4567");
+		PatientLookupDto wife = patient("Mary", "Smith", LocalDate.of(1977, 6, 2), PHONE);
+
+		assertTrue(shareAKey(father, son));
+		assertTrue(shareAKey(father, wife));
+		assertTrue(PatientBlockingKeys.score(father, son) < THRESHOLD, "same name, conflicting date of birth");
+		assertTrue(PatientBlockingKeys.score(father, wife) < THRESHOLD);
+	}
+
+	@Test
+	void accentsAndCaseDoNotMatter() {
+		assertEquals(1.0, PatientBlockingKeys.score(patient("Jos\u00e9", "N\u00fa\u00f1ez", BORN, PHONE), patient("JOSE", "nunez", BORN, PHONE)), 1e-9);
+	}
+
+	@Test
+	void phoneKeyIgnoresFormattingAndCountryCode() {
+		assertEquals("551234567", PatientBlockingKeys.phoneKey(PHONE));
+		assertEquals("551234567", PatientBlockingKeys.phoneKey("555.123.4567"));
+		assertNull(PatientBlockingKeys.phoneKey("12-34"));
+	}
+
+	@Test
+	void unrelatedPatientsShareNoKey() {
+		assertFalse(shareAKey(patient("Robert", "Smith", BORN, PHONE), patient("Alice", "Jones", LocalDate.of(1990, 1, 1), "555 987 6543")));
+		assertTrue(PatientBlockingKeys.keysOf(null, " ", null, null).isEmpty());
+	}
+
+	@Test
+	void jaroWinklerReferenceValues() {
+		assertEquals(0.961, PatientBlockingKeys.jaroWinkler("martha", "marhta"), 0.001);
+		assertEquals(0.840, PatientBlockingKeys.jaroWinkler("dwayne", "duane"), 0.001);
+		assertEquals(0.0, PatientBlockingKeys.jaroWinkler("abc", ""));
+	}
+}
@@ -0,0 +1,162 @@
+package com.medicarehub.service;
+
+import com.medicarehub.config.PersistenceConfig;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.User;
+import com.medicarehub.repository.IdBlockRepository;
+import com.medicarehub.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Several "nodes" (generator instances) sharing one id_blocks row through the real allocator, each reservation
+// in its own transaction against the database. All nodes start at once with no row yet, so they also race to
+// create it. The mass registration run comparing block sizes is tagged "benchmark" and only runs with -Pbenchmark.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=idblocks",
+		"spring.jpa.properties.hibernate.cache.region_prefix=idblocks"
+})
+class PatientIdGeneratorTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(PatientIdGeneratorTest.class);
+
+	private static final int NODES = 3;
+	private static final int THREADS_PER_NODE = 4;
+	private static final int REGISTRATIONS = 300;
+	private static final int BLOCK_SIZE = 7;
+	private static final int BENCHMARK_THREADS_PER_NODE = 8;
+	private static final int BENCHMARK_REGISTRATIONS = 6_000;
+
+	@Autowired
+	private IdBlockAllocator idBlockAllocator;
+
+	@Autowired
+	private IdBlockRepository idBlockRepository;
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	@BeforeEach
+	void dropSequence() {
+		idBlockRepository.deleteAll();
+	}
+
+	@Test
+	void idsAreUniqueAcrossNodesSharingTheSequenceRow() throws Exception {
+		long reserved = register(BLOCK_SIZE, THREADS_PER_NODE, REGISTRATIONS);
+
+		// Every reservation advanced the shared row by exactly one block: at most one partly used block per node
+		assertEquals(0, reserved % BLOCK_SIZE);
+		assertTrue(reserved >= REGISTRATIONS && reserved < REGISTRATIONS + (long) NODES * BLOCK_SIZE, "reserved " + reserved);
+	}
+
+	@Test
+	@Tag("benchmark")
+	void massRegistrationThroughputPerBlockSize() throws Exception {
+		for (int blockSize : new int[]{1, 10, 50, 500}) {
+			idBlockRepository.deleteAll();
+			long startedAt = System.nanoTime();
+			long reserved = register(blockSize, BENCHMARK_THREADS_PER_NODE, BENCHMARK_REGISTRATIONS);
+			double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+			logger.info("Block size {}: {} registrations on {} nodes, {} block reservations, {} IDs/s",
+					blockSize, BENCHMARK_REGISTRATIONS, NODES, reserved / blockSize, Math.round(BENCHMARK_REGISTRATIONS / seconds));
+		}
+	}
+
+	// Issues the IDs from NODES generators all starting at once, checks they are unique and returns how many
+	// values the shared row was advanced by
+	private long register(int blockSize, int threadsPerNode, int registrations) throws Exception {
+		List<PatientIdGenerator> nodes = new ArrayList<>();
+		for (int n = 0; n < NODES; n++) {
+			nodes.add(generator(blockSize));
+		}
+
+		Set<String> issued = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(NODES * threadsPerNode);
+		List<Future<Boolean>> futures = new ArrayList<>();
+		for (int i = 0; i < registrations; i++) {
+			PatientIdGenerator node = nodes.get(i % NODES);
+			futures.add(executor.submit(() -> {
+				start.await();
+				return issued.add(node.nextPatientUniqueId());
+			}));
+		}
+		start.countDown();
+		for (Future<Boolean> future : futures) {
+			future.get(); // Rethrows anything the allocator could not recover from
+		}
+		executor.shutdown();
+
+		assertEquals(registrations, issued.size(), "every issued ID must be unique");
+		long first = issued.stream().mapToLong(id -> Long.parseLong(id.substring(1))).min().orElseThrow();
+		return idBlockRepository.findById(PatientIdGenerator.SEQUENCE_NAME).orElseThrow().getNextValue() - first;
+	}
+
+	@Test
+	void newSequenceContinuesAfterTheNumericallyHighestExistingId() {
+		// Zero-padded and unpadded IDs: as strings "P0000999" > "P1000", as numbers 1000 is the highest
+		patientRepository.save(new Patient(new User("legacy1", "legacy1@example.com", "x", "Ann", "Old"), "P0000999", LocalDate.now()));
+		patientRepository.save(new Patient(new User("legacy2", "legacy2@example.com", "x", "Bob", "Old"), "P1000", LocalDate.now()));
+
+		PatientIdGenerator generator = generator(BLOCK_SIZE);
+
+		assertEquals("P0001001", generator.nextPatientUniqueId());
+		assertEquals("P0001002", generator.nextPatientUniqueId());
+	}
+
+	@Test
+	void formatsFixedWidthIds() {
+		assertEquals("P0000001", PatientIdGenerator.format(1));
+		assertEquals("P0012345", PatientIdGenerator.format(12_345));
+	}
+
+	// A separate instance per node, all sharing the transactional allocator bean
+	private PatientIdGenerator generator(int blockSize) {
+		PatientIdGenerator generator = new PatientIdGenerator();
+		ReflectionTestUtils.setField(generator, "idBlockAllocator", idBlockAllocator);
+		ReflectionTestUtils.setField(generator, "patientRepository", patientRepository);
+		ReflectionTestUtils.setField(generator, "blockSize", blockSize);
+		return generator;
+	}
+
+	// Only the persistence layer plus the allocator: the application class would also start the data seeding runner
+	@SpringBootConfiguration
+	@EntityScan("com.medicarehub.entity")
+	@EnableJpaRepositories("com.medicarehub.repository")
+	@Import({PersistenceConfig.class, IdBlockAllocator.class})
+	static class JpaSlice {
+	}
+}
@@ -0,0 +1,119 @@
+package com.medicarehub.service;
+
+import com.medicarehub.config.PersistenceConfig;
+import com.medicarehub.dto.PatientLookupDto;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.User;
+import com.medicarehub.exception.BadRequestException;
+import com.medicarehub.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Reception type-ahead against H2: each criterion on its own, combined with AND, and the result limit with its order
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=patientlookup",
+		"spring.jpa.properties.hibernate.cache.region_prefix=patientlookup"
+})
+class PatientLookupTest {
+
+	private static final LocalDate BIRTHDAY = LocalDate.of(1980, 5, 17);
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	private final PatientService patientService = new PatientService();
+
+	@BeforeEach
+	void seed() {
+		ReflectionTestUtils.setField(patientService, "patientRepository", patientRepository);
+		save("P0000101", "Jane", "Doe", "+1 (555) 123-4567", BIRTHDAY);
+		save("P0000102", "John", "Doe", "555 987 0001", BIRTHDAY);
+		save("P0000203", "Janet", "Smith", "555-000-4567", LocalDate.of(1990, 1, 2));
+		save("P0000204", "Bob", "Jansen", null, null);
+		patientRepository.flush();
+	}
+
+	private void save(String uniqueId, String firstName, String lastName, String phoneNumber, LocalDate dateOfBirth) {
+		User user = new User(uniqueId.toLowerCase(), uniqueId.toLowerCase() + "@example.com", "x", firstName, lastName);
+		user.setPhoneNumber(phoneNumber);
+		user.setDateOfBirth(dateOfBirth);
+		patientRepository.save(new Patient(user, uniqueId, LocalDate.now()));
+	}
+
+	private List<String> lookup(String name, String phoneSuffix, LocalDate dateOfBirth, String uniqueIdPrefix, Integer limit) {
+		return patientService.lookupPatients(name, phoneSuffix, dateOfBirth, uniqueIdPrefix, limit).stream()
+				.map(PatientLookupDto::getPatientUniqueId).toList();
+	}
+
+	@Test
+	void namePrefixMatchesFullNameOrLastNameSortedByName() {
+		// Jansen by last name, Jane Doe and Janet Smith by full name
+		assertEquals(List.of("P0000101", "P0000204", "P0000203"), lookup(" JAN", null, null, null, null));
+		assertEquals(List.of("P0000101", "P0000102"), lookup("doe", null, null, null, null));
+		assertEquals(List.of("P0000101"), lookup("jane  d", null, null, null, null));
+	}
+
+	@Test
+	void phoneSuffixDateOfBirthAndUniqueIdPrefix() {
+		assertEquals(List.of("P0000101", "P0000203"), lookup(null, "45-67", null, null, null));
+		assertEquals(List.of("P0000101", "P0000102"), lookup(null, null, BIRTHDAY, null, null));
+		assertEquals(List.of("P0000204", "P0000203"), lookup(null, null, null, " p00002", null)); // Jansen, Smith
+	}
+
+	@Test
+	void criteriaAreCombinedWithAnd() {
+		assertEquals(List.of("P0000101"), lookup("doe", "4567", BIRTHDAY, "P00001", null));
+		assertEquals(List.of(), lookup("smith", null, BIRTHDAY, null, null));
+	}
+
+	@Test
+	void resultIsCappedAtTheLimit() {
+		assertEquals(2, lookup(null, null, null, "P", 2).size());
+		assertEquals(1, lookup(null, null, null, "P", 0).size()); // At least one
+	}
+
+	@Test
+	void moreMatchesThanTheLimitGiveTheFirstByLastName() {
+		save("P0000305", "Jan", "Young", null, null);
+		save("P0000306", "Jana", "Adams", null, null);
+		patientRepository.flush();
+
+		// Five matches for "jan": Adams, Doe, Jansen, Smith, Young
+		assertEquals(List.of("P0000306", "P0000101", "P0000204"), lookup("jan", null, null, null, 3));
+		assertEquals(List.of("P0000306", "P0000101", "P0000204"), lookup("jan", null, null, null, 3));
+		assertEquals(List.of("P0000101"), lookup("doe", null, null, null, 1)); // Same last name: first registered
+	}
+
+	@Test
+	void emptyOrTooShortCriteriaAreRejected() {
+		assertThrows(BadRequestException.class, () -> lookup(" ", null, null, null, null));
+		assertThrows(BadRequestException.class, () -> lookup(null, "67", null, null, null));
+	}
+
+	// Only the persistence layer: the application class would also start the data seeding runner
+	@SpringBootConfiguration
+	@EntityScan("com.medicarehub.entity")
+	@EnableJpaRepositories("com.medicarehub.repository")
+	@Import(PersistenceConfig.class)
+	static class JpaSlice {
+	}
+}
@@ -0,0 +1,84 @@
+package com.medicarehub.service;
+
+import com.medicarehub.config.PersistenceConfig;
+import com.medicarehub.dto.CursorPageDto;
+import com.medicarehub.dto.PatientResponseDto;
+import com.medicarehub.entity.Patient;
+import com.medicarehub.entity.User;
+import com.medicarehub.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Walks the patient keyset listing page by page, including users without a last name
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+		"h2.database=patientscroll",
+		"spring.jpa.properties.hibernate.cache.region_prefix=patientscroll"
+})
+class PatientScrollTest {
+
+	@Autowired
+	private PatientRepository patientRepository;
+
+	private final PatientService patientService = new PatientService();
+
+	@BeforeEach
+	void seed() {
+		patientRepository.deleteAll();
+		ReflectionTestUtils.setField(patientService, "patientRepository", patientRepository);
+		save("p1", "Smith");
+		save("p2", null);
+		save("p3", "Adams");
+		save("p4", null);
+		save("p5", "Smith");
+	}
+
+	private void save(String username, String lastName) {
+		patientRepository.save(new Patient(new User(username, username + "@example.com", "x", "Pat", lastName),
+				"P000000" + username.substring(1), LocalDate.now()));
+	}
+
+	@Test
+	void walkVisitsEveryPatientOnceWithNamelessUsersFirst() {
+		List<PatientResponseDto> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			// One row per page, so a cursor is taken from every row, the nameless ones included
+			CursorPageDto<PatientResponseDto> page = patientService.scrollPatients(cursor, 1);
+			seen.addAll(page.getContent());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		List<String> usernames = seen.stream().map(PatientResponseDto::getUsername).toList();
+		assertEquals(List.of("p2", "p4", "p3", "p1", "p5"), usernames);
+	}
+
+	// Only the persistence layer: the application class would also start the data seeding runner
+	@SpringBootConfiguration
+	@EntityScan("com.medicarehub.entity")
+	@EnableJpaRepositories("com.medicarehub.repository")
+	@Import(PersistenceConfig.class)
+	static class JpaSlice {
+	}
+}
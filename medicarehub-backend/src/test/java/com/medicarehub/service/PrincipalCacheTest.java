@@ -0,0 +1,108 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.ERole;
+import com.medicarehub.entity.Role;
+import com.medicarehub.entity.User;
+import com.medicarehub.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private UserDetailsServiceImpl userDetailsService;
+
+	@InjectMocks
+	private PrincipalCache cache;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+		ReflectionTestUtils.setField(cache, "maxEntries", 100);
+	}
+
+	private static User user(long id, boolean active) {
+		User user = new User("jdoe", "jdoe@example.com", "hash", "Jane", "Doe");
+		user.setId(id);
+		user.setActive(active);
+		user.setRoles(Set.of(new Role(ERole.ROLE_PATIENT)));
+		return user;
+	}
+
+	@Test
+	void coldNodeReadsTheCurrentUserState() {
+		// Nothing cached yet (restart, other node): a deactivated user's token must not pass
+		when(userRepository.findWithRolesById(1L)).thenReturn(Optional.of(user(1L, false)));
+
+		UserDetailsImpl principal = cache.resolve("jdoe", 1L);
+
+		assertFalse(principal.isEnabled());
+		assertNull(principal.getPassword());
+	}
+
+	@Test
+	void deletedUserResolvesToNull() {
+		when(userRepository.findWithRolesById(2L)).thenReturn(Optional.empty());
+
+		assertNull(cache.resolve("jdoe", 2L));
+	}
+
+	@Test
+	void principalIsCachedUntilInvalidated() {
+		when(userRepository.findWithRolesById(3L))
+				.thenReturn(Optional.of(user(3L, true)))
+				.thenReturn(Optional.of(user(3L, false)));
+
+		UserDetailsImpl first = cache.resolve("jdoe", 3L);
+		assertTrue(first.isEnabled());
+		assertEquals(1, first.getAuthorities().size());
+		assertSame(first, cache.resolve("jdoe", 3L));
+		verify(userRepository, times(1)).findWithRolesById(3L);
+
+		cache.invalidate(3L); // Deactivated
+		assertFalse(cache.resolve("jdoe", 3L).isEnabled());
+		verify(userRepository, times(2)).findWithRolesById(3L);
+	}
+
+	@Test
+	void invalidationDuringALoadDiscardsTheLoad() {
+		when(userRepository.findWithRolesById(4L)).thenAnswer(invocation -> {
+			cache.invalidate(4L); // Deactivation commits while the old state is being read
+			return Optional.of(user(4L, true));
+		});
+
+		cache.resolve("jdoe", 4L);
+		cache.resolve("jdoe", 4L);
+
+		verify(userRepository, times(2)).findWithRolesById(4L);
+	}
+
+	@Test
+	void tokenForAnotherUsernameIsRejected() {
+		when(userRepository.findWithRolesById(5L)).thenReturn(Optional.of(user(5L, true)));
+
+		assertNull(cache.resolve("someone-else", 5L));
+		assertNull(cache.resolve("someone-else", 5L)); // Also when served from the cache
+	}
+}
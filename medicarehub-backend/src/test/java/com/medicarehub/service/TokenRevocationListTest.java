@@ -0,0 +1,78 @@
+package com.medicarehub.service;
+
+import com.medicarehub.entity.RevokedToken;
+import com.medicarehub.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+	@Mock
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@InjectMocks
+	private TokenRevocationList revocationList;
+
+	private final Instant inAnHour = Instant.now().plusSeconds(3600);
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(revocationList, "expectedEntries", 1000);
+		ReflectionTestUtils.setField(revocationList, "falsePositiveRate", 0.01);
+	}
+
+	@Test
+	void loadsRevocationsFromTheTableAtStartup() {
+		when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(
+				List.of(new RevokedToken("revoked-before-restart", inAnHour, Instant.now())));
+
+		revocationList.load();
+
+		assertTrue(revocationList.isRevoked("revoked-before-restart"));
+		assertFalse(revocationList.isRevoked("valid"));
+		assertFalse(revocationList.isRevoked(null));
+	}
+
+	@Test
+	void revokingTwiceOnlySucceedsOnce() {
+		when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+		revocationList.load();
+
+		assertTrue(revocationList.revoke("jti-1", inAnHour));
+		assertFalse(revocationList.revoke("jti-1", inAnHour)); // What refresh rotation relies on
+
+		assertTrue(revocationList.isRevoked("jti-1"));
+		verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+	}
+
+	@Test
+	void syncPicksUpRevocationsFromOtherNodesAndForgetsExpiredOnes() {
+		when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+		revocationList.load();
+		revocationList.revoke("expiring", Instant.now().minusSeconds(1)); // Expired token: no longer needs tracking
+		when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(
+				List.of(new RevokedToken("revoked-elsewhere", inAnHour, Instant.now())));
+
+		revocationList.sync();
+
+		assertTrue(revocationList.isRevoked("revoked-elsewhere"));
+		assertFalse(revocationList.isRevoked("expiring"));
+		verify(revokedTokenRepository).deleteExpired(any());
+	}
+}
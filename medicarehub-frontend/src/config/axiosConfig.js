@@ -1,8 +1,10 @@
 // src/config/axiosConfig.js
 import axios from 'axios';
 
+const API_BASE_URL = 'http://localhost:8080/api';
+
 const apiClient = axios.create({
-  baseURL: 'http://localhost:8080/api',
+  baseURL: API_BASE_URL,
   headers: { 'Content-Type': 'application/json' },
 });
 
@@ -14,16 +16,52 @@ apiClient.interceptors.request.use(
   }, (error) => Promise.reject(error)
 );
 
+// Access tokens are short-lived (15 min). On a 401 the refresh token is exchanged once for a new pair
+// and the request is retried; concurrent 401s share the same refresh call, because each refresh token
+// only works once.
+let refreshInFlight = null;
+
+const refreshTokens = () => {
+  if (!refreshInFlight) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshInFlight = (refreshToken
+      ? axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken }) // Plain axios: no interceptors, no retry loop
+      : Promise.reject(new Error('No refresh token')))
+      .then((response) => {
+        localStorage.setItem('authToken', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => { refreshInFlight = null; });
+  }
+  return refreshInFlight;
+};
+
+const endSession = () => {
+  localStorage.removeItem('authToken');
+  localStorage.removeItem('refreshToken');
+  localStorage.removeItem('userData');
+  if (window.location.pathname !== '/login') window.location.href = '/login';
+};
+
 apiClient.interceptors.response.use(
   (response) => response,
-  (error) => {
-    if (error.response && error.response.status === 401) {
-      console.error("Unauthorized or token expired. Consider global logout.");
-      // localStorage.removeItem('authToken');
-      // localStorage.removeItem('userData');
-      // if (window.location.pathname !== '/login') window.location.href = '/login';
+  async (error) => {
+    const original = error.config;
+    const isAuthCall = original && original.url && original.url.startsWith('/auth/');
+    if (error.response && error.response.status === 401 && original && !original._retried && !isAuthCall
+        && localStorage.getItem('authToken')) {
+      original._retried = true;
+      try {
+        const token = await refreshTokens();
+        original.headers.Authorization = `Bearer ${token}`;
+        return apiClient(original);
+      } catch (refreshError) {
+        console.error("Session expired, please sign in again.");
+        endSession();
+      }
     }
     return Promise.reject(error);
   }
 );
-export default apiClient;
\ No newline at end of file
+export default apiClient;
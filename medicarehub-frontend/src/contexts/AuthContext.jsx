@@ -31,15 +31,18 @@ export const AuthProvider = ({ children }) => {
       try {
         const parsedUserData = JSON.parse(userDataString);
         const jwtPayload = parseJwt(token);
-        if (jwtPayload && jwtPayload.exp * 1000 > Date.now()) {
+        // An expired access token is renewed by the axios interceptor as long as there is a refresh token
+        if (jwtPayload && (jwtPayload.exp * 1000 > Date.now() || localStorage.getItem('refreshToken'))) {
           setCurrentUser(parsedUserData);
           setAuthToken(token);
         } else {
           localStorage.removeItem('authToken');
+          localStorage.removeItem('refreshToken');
           localStorage.removeItem('userData');
         }
       } catch (error) {
         localStorage.removeItem('authToken');
+        localStorage.removeItem('refreshToken');
         localStorage.removeItem('userData');
       }
     }
@@ -49,6 +52,7 @@ export const AuthProvider = ({ children }) => {
   const login = useCallback(async (usernameOrEmail, password) => {
     const response = await authService.login(usernameOrEmail, password);
     localStorage.setItem('authToken', response.token);
+    localStorage.setItem('refreshToken', response.refreshToken);
     const userData = { id: response.id, username: response.username, email: response.email, roles: response.roles, firstName: response.firstName, lastName: response.lastName }; // Assuming firstName/lastName in JWT/login response
     localStorage.setItem('userData', JSON.stringify(userData));
     setAuthToken(response.token);
@@ -57,7 +61,10 @@ export const AuthProvider = ({ children }) => {
   }, []);
 
   const logout = useCallback(() => {
+    // Fire and forget; the session ends locally right away
+    authService.logout(localStorage.getItem('authToken'), localStorage.getItem('refreshToken'));
     localStorage.removeItem('authToken');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('userData');
     setAuthToken(null);
     setCurrentUser(null);
@@ -24,9 +24,21 @@ const signup = async (userData) => {
   }
 };
 
+// Revokes the given access token and refresh token on the server. The access token is passed in because
+// local storage may already be cleared by the time the request goes out.
+const logout = async (accessToken, refreshToken) => {
+  try {
+    await apiClient.post('/auth/logout', refreshToken ? { refreshToken } : null,
+      accessToken ? { headers: { Authorization: `Bearer ${accessToken}` } } : undefined);
+  } catch (error) {
+    console.error("Logout service error:", error.response || error.message || error); // Local sign-out happens anyway
+  }
+};
+
 const authService = {
   login,
   signup,
+  logout,
 };
 
 export default authService;
\ No newline at end of file